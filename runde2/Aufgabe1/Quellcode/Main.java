@@ -1,7 +1,9 @@
 package de.flo.wenigerKrummeTouren;
 
-import de.flo.wenigerKrummeTouren.algorithms.exact.ExactSolver4;
-import de.flo.wenigerKrummeTouren.algorithms.greedy.GreedySolver3;
+import de.flo.wenigerKrummeTouren.algorithms.portfolio.PortfolioSolver;
+import de.flo.wenigerKrummeTouren.metrics.MetricsListener;
+import de.flo.wenigerKrummeTouren.metrics.SearchMetrics;
+import de.flo.wenigerKrummeTouren.metrics.SearchStatistics;
 import de.flo.wenigerKrummeTouren.util.Point;
 import de.flo.wenigerKrummeTouren.util.Utils;
 
@@ -18,6 +20,16 @@ import java.util.stream.Collectors;
  */
 public final class Main {
 
+    /**
+     * The CSV file the timings of all runs are recorded in, used to decide if the exact solver is started
+     */
+    private static final File TIMINGS_FILE = new File("portfolio-timings.csv");
+
+    /**
+     * The time between two progress lines of the exact solver in ms
+     */
+    private static final long PROGRESS_INTERVAL = 5000L;
+
     /**
      * Private constructor, sucht that no instances of this class can be created
      */
@@ -96,18 +108,52 @@ public final class Main {
             // Convert the ArrayList of points into an array of points
             Point[] pointsArray = points.toArray(new Point[0]);
 
-            // Finally, solve the problem using the best exact solver if the amount of points is smaller than 16
-            // and using a greedy solver otherwise.
-            Solver solver;
+            // Get the time budget in seconds from the user
+            int budget = getInputInt(scanner, "Please enter a time budget in seconds (0 -> no limit, but the exact solver stops after an hour): ");
 
-            if (points.size() <= 20) {
-                solver = new ExactSolver4(pointsArray);
-            } else {
-                solver = new GreedySolver3(pointsArray);
+            if (budget < 0) {
+                System.out.println("A time budget cannot be negative! Please try again.");
+                continue;
             }
 
-            // Solve the problem and print the result using the chosen Solver using the run-function
-            run(solver);
+            // Ask if the coordinates should be used as integers (exact turning angles), if they qualify
+            boolean useIntegers = getInputBoolean(scanner, "Should the coordinates be used as integers if possible, "
+                    + "deciding the turning angles exactly? (y/n): ");
+
+            // Finally, solve the problem using a portfolio of a greedy solver, a local search and (if it's likely
+            // to finish in time) an exact solver. The exact solver writes checkpoints next to the given file,
+            // such that an interrupted run is resumed when the same file is given again.
+            File checkpoint = new File(path + ".checkpoint");
+
+            // While the exact solver is searching, print a progress line periodically
+            try (SearchMetrics metrics = new SearchMetrics(pointsArray.length)) {
+                metrics.addListener(new MetricsListener() {
+                    @Override
+                    public void progress(SearchStatistics statistics) {
+                        if (statistics.getTotalNodes() > 0) System.out.println("Progress: " + statistics);
+                    }
+
+                    @Override
+                    public void resumed(File checkpoint, int prefixes) {
+                        System.out.println("Resuming from checkpoint \"" + checkpoint + "\" (" + prefixes + " prefixes left).");
+                    }
+
+                    @Override
+                    public void checkpointIgnored(File checkpoint, boolean unreadable) {
+                        if (unreadable) {
+                            System.out.println("Error occurred - Could not read checkpoint \"" + checkpoint + "\", starting from scratch.");
+                        } else {
+                            System.out.println("Checkpoint \"" + checkpoint + "\" belongs to other points, starting from scratch.");
+                        }
+                    }
+                });
+                metrics.startReporting(PROGRESS_INTERVAL);
+
+                Solver solver = new PortfolioSolver(pointsArray, budget * 1000L, checkpoint, TIMINGS_FILE, metrics, useIntegers);
+
+                // Solve the problem and print the result using the chosen Solver using the run-function
+                run(solver);
+            }
         }
     }
 
@@ -142,6 +188,10 @@ public final class Main {
 
         // Now, print the routs length and the time needed for solving the instance
         System.out.println("Length = " + (result == null ? -1 : Utils.length(result)));
+        if (solver instanceof PortfolioSolver) {
+            System.out.println("Optimal: " + ((PortfolioSolver) solver).isProven());
+            System.out.println("Integer coordinates: " + ((PortfolioSolver) solver).isIntegral());
+        }
         System.out.println("Time: " + milli + "ms");
         System.out.println("-------------");
     }
@@ -192,6 +242,26 @@ public final class Main {
         return result;
     }
 
+    /**
+     * Private static function printing a given message onto the console and returning
+     * if the user answered yes ("y") or no ("n"). This function loops until the
+     * user actually answers and prints an error message otherwise.
+     *
+     * @param scanner A scanner scanning the console
+     * @param message The message for the user
+     * @return If the user answered yes
+     */
+    private static boolean getInputBoolean(Scanner scanner, String message) {
+        while (true) {
+            String input = getInput(scanner, message).trim();
+
+            if (input.equalsIgnoreCase("y")) return true;
+            if (input.equalsIgnoreCase("n")) return false;
+
+            System.out.println("Error occurred - Please answer with \"y\" or \"n\": \"" + input + "\". Please try again.");
+        }
+    }
+
     /**
      * Private static function returning if a given integer is a valid dimension (for a point).
      * That is, iff the integer is greater than or equal to one.
@@ -1,6 +1,8 @@
 package de.flo.wenigerKrummeTouren.algorithms.exact;
 
 import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
 import de.flo.wenigerKrummeTouren.util.Point;
 import de.flo.wenigerKrummeTouren.util.Utils;
 
@@ -10,10 +12,17 @@ import de.flo.wenigerKrummeTouren.util.Utils;
  * going through half of all possible permutations iteratively using Heap's
  * Algorithm.
  * To be precise, this class is a concrete implementation of "Algorithmus-5" in the documentation.
+ * Optionally, the permutations are gone through in parallel and evaluated incrementally
+ * using HeapEnumeration, which is much faster (the default mode is kept as a simple reference).
  *
  */
 public class ExactSolver2 extends Solver {
 
+    /**
+     * The amount of threads used in the parallel mode (0 for the default mode)
+     */
+    private final int threads;
+
     /**
      * Public constructor of this class calling the parent's constructor and
      * taking in the points to find a route for.
@@ -22,6 +31,22 @@ public class ExactSolver2 extends Solver {
      */
     public ExactSolver2(Point[] points) {
         super(points);
+        this.threads = 0;
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for and the amount of threads used,
+     * using the parallel mode evaluating the routes incrementally.
+     *
+     * @param points  The points the route is created for
+     * @param threads The amount of threads used (at least 1)
+     * @throws IllegalArgumentException If the amount of threads is less than 1
+     */
+    public ExactSolver2(Point[] points, int threads) {
+        super(points);
+        if (threads < 1) throw new IllegalArgumentException();
+        this.threads = threads;
     }
 
     /**
@@ -33,6 +58,8 @@ public class ExactSolver2 extends Solver {
      */
     @Override
     public Point[] solve() {
+        if (this.threads > 0) return solveParallel();
+
         // Initialize the best points (route), and it's length with null and -1.
         // Those variables will keep track of the best route found so far.
         Point[] bestPoints = null;
@@ -60,7 +87,7 @@ public class ExactSolver2 extends Solver {
                     // If the turning angle constraint is met, check if the
                     // route is shorter than the best route and
                     // update the best Route if so
-                    if (bestLength < length) {
+                    if (bestLength == -1 || length < bestLength) {
                         bestPoints = currentPoints.clone();
                         bestLength = length;
                     }
@@ -86,7 +113,7 @@ public class ExactSolver2 extends Solver {
                             // If the turning angle constraint is met, check if the
                             // current route is shorter than the best route and
                             // update the best Route if so
-                            if (bestLength < length) {
+                            if (bestLength == -1 || length < bestLength) {
                                 bestPoints = currentPoints.clone();
                                 bestLength = length;
                             }
@@ -101,4 +128,21 @@ public class ExactSolver2 extends Solver {
 
         return bestPoints;
     }
-}
\ No newline at end of file
+
+    /**
+     * Private methode solving the problem for the given points by going through half of all permutations
+     * of those points in parallel, evaluating them incrementally (see HeapEnumeration).
+     *
+     * @return The best possible route (might be null)
+     */
+    private Point[] solveParallel() {
+        // With no points, the empty route is the best one
+        if (this.getSize() == 0) return new Point[0];
+
+        Instance instance = new Instance(this.getPoints());
+        Incumbent incumbent = new Incumbent();
+        HeapEnumeration.searchParallel(instance, incumbent, this.threads, true);
+
+        return instance.toPoints(incumbent.getRoute());
+    }
+}
@@ -1,6 +1,7 @@
 package de.flo.wenigerKrummeTouren.algorithms.exact;
 
 import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.metrics.SearchMetrics;
 import de.flo.wenigerKrummeTouren.util.Point;
 import de.flo.wenigerKrummeTouren.util.Utils;
 
@@ -15,6 +16,7 @@ import java.util.concurrent.CopyOnWriteArraySet;
  * going through all possible permutations recursively and skipping
  * necessary branches.
  * To be precise, this class is an implementation of "Algorithmus-6" in the documentation.
+ * Optionally, the search is counted into SearchMetrics.
  */
 public class ExactSolver4 extends Solver {
 
@@ -28,6 +30,16 @@ public class ExactSolver4 extends Solver {
      */
     private double minLength = -1;
 
+    /**
+     * The metrics the search is counted into (null if the search should not be counted)
+     */
+    private final SearchMetrics metrics;
+
+    /**
+     * The counters of the current search (null if the search is not counted)
+     */
+    private SearchMetrics.Counters counters = null;
+
     /**
      * Public constructor of this class calling the parent's constructor and
      * taking in the points to find a route for.
@@ -35,7 +47,19 @@ public class ExactSolver4 extends Solver {
      * @param points The points the route is created for
      */
     public ExactSolver4(Point[] points) {
+        this(points, null);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for and the metrics the search is counted into.
+     *
+     * @param points  The points the route is created for
+     * @param metrics The metrics (null if the search should not be counted)
+     */
+    public ExactSolver4(Point[] points, SearchMetrics metrics) {
         super(points);
+        this.metrics = metrics;
     }
 
     /**
@@ -59,7 +83,8 @@ public class ExactSolver4 extends Solver {
         List<Point> currentList = new ArrayList<>();
 
         // Call the recursive checking of all possible routes.
-        checkAllRecursively(pointsLeft, currentList, 0D);
+        if (this.metrics != null) this.counters = this.metrics.newCounters();
+        checkAllRecursively(pointsLeft, currentList, 0D, 1D);
 
         // Return null if the best list is null, or return the best list as an array.
         if (this.bestList == null) return null;
@@ -73,26 +98,38 @@ public class ExactSolver4 extends Solver {
      * @param pointsLeft The points which are currently not in the route
      * @param currentList The current route as a list of points
      * @param currentLength The current route's length
+     * @param weight The current route's weight used for the metrics (see SearchMetrics.Counters)
      */
-    private void checkAllRecursively(Set<Point> pointsLeft, List<Point> currentList, double currentLength) {
+    private void checkAllRecursively(Set<Point> pointsLeft, List<Point> currentList, double currentLength, double weight) {
+        // Get the current route's size (#points)
+        int size = currentList.size();
+
         // Skip the current branch if the current route's length is bigger
         // than the best route's length (if that is not null)
         if (this.minLength != -1 && this.minLength < currentLength) {
+            if (this.counters != null) this.counters.prunedByBound(size, weight);
             return;
         }
 
+        if (this.counters != null) this.counters.node(size);
+
         // If there are no points left, update the best list to the
         // current one by copying.
         // Note that the current route is smaller than the best one
         // because of the last if-statement
         if (pointsLeft.isEmpty()) {
+            if (this.counters != null) {
+                this.counters.explored(weight);
+                if (this.minLength == -1 || currentLength < this.minLength) this.counters.improved(currentLength);
+            }
+
             this.minLength = currentLength;
             this.bestList = Utils.copyList(currentList);
             return;
         }
 
-        // Get the current route's size (#points)
-        int size = currentList.size();
+        // The weight of every child of the current route
+        double childWeight = this.counters != null ? weight / pointsLeft.size() : 0D;
 
         // Iterate through all unused points (e.i.,
         // points that are not in the route yet)
@@ -104,7 +141,10 @@ public class ExactSolver4 extends Solver {
                 Point P = currentList.get(size - 2);
                 Point Q = currentList.get(size - 1);
 
-                if (!Utils.turningAngleIsValid(P, Q, nextPoint)) continue;
+                if (!Utils.turningAngleIsValid(P, Q, nextPoint)) {
+                    if (this.counters != null) this.counters.prunedByAngle(size + 1, childWeight);
+                    continue;
+                }
             }
 
             // Compute the distance from the last point of the current list to nextPoint.
@@ -116,7 +156,7 @@ public class ExactSolver4 extends Solver {
             currentList.add(nextPoint);
 
             // Recursively check all routes starting with the current subroute
-            checkAllRecursively(pointsLeft, currentList, currentLength + dist);
+            checkAllRecursively(pointsLeft, currentList, currentLength + dist, childWeight);
 
             // Remove the current point from the current route and add it to the points left again
             currentList.remove(nextPoint);
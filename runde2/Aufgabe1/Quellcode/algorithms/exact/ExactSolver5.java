@@ -0,0 +1,322 @@
+package de.flo.wenigerKrummeTouren.algorithms.exact;
+
+import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.checkpoint.Checkpoint;
+import de.flo.wenigerKrummeTouren.checkpoint.CheckpointWriter;
+import de.flo.wenigerKrummeTouren.metrics.SearchMetrics;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+import de.flo.wenigerKrummeTouren.util.Point;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the abstract class Solver.
+ * This class solves a given instance of the problem exactly like ExactSolver4 ("Algorithmus-6"),
+ * but splits the search tree into all valid prefixes (subroutes) of a fixed size, which are
+ * searched by several threads sharing the best route found so far as bound.
+ * Optionally, a checkpoint containing the prefixes not searched completely yet and the best
+ * route found so far is written to a file periodically. If that file already exists when
+ * starting, the search is resumed from it, resulting in the same route as an uninterrupted run.
+ * Optionally, the search is counted into SearchMetrics and the coordinates are used as integers if possible
+ * (see IntegerCoordinates).
+ */
+public class ExactSolver5 extends Solver {
+
+    /**
+     * The size of the prefixes the search tree is split into
+     */
+    private static final int PREFIX_DEPTH = 3;
+
+    /**
+     * The amount of threads used for searching
+     */
+    private final int threads;
+
+    /**
+     * The file used for checkpoints (null if no checkpoints should be written)
+     */
+    private final File checkpointFile;
+
+    /**
+     * The time between two checkpoints in ms
+     */
+    private final long checkpointInterval;
+
+    /**
+     * The metrics the search is counted into (null if the search should not be counted)
+     */
+    private final SearchMetrics metrics;
+
+    /**
+     * If the coordinates should be used as integers if possible
+     */
+    private final boolean useIntegers;
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, using all available processors
+     * and not writing any checkpoints.
+     *
+     * @param points The points the route is created for
+     */
+    public ExactSolver5(Point[] points) {
+        this(points, Runtime.getRuntime().availableProcessors(), null, 0);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, the amount of threads and
+     * the file and interval used for checkpoints.
+     *
+     * @param points             The points the route is created for
+     * @param threads            The amount of threads used for searching (at least 1)
+     * @param checkpointFile     The file used for checkpoints (null if no checkpoints should be written)
+     * @param checkpointInterval The time between two checkpoints in ms
+     * @throws IllegalArgumentException If the amount of threads is less than 1
+     */
+    public ExactSolver5(Point[] points, int threads, File checkpointFile, long checkpointInterval) {
+        this(points, threads, checkpointFile, checkpointInterval, null);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, the amount of threads,
+     * the file and interval used for checkpoints and the metrics the search is counted into.
+     *
+     * @param points             The points the route is created for
+     * @param threads            The amount of threads used for searching (at least 1)
+     * @param checkpointFile     The file used for checkpoints (null if no checkpoints should be written)
+     * @param checkpointInterval The time between two checkpoints in ms
+     * @param metrics            The metrics (null if the search should not be counted)
+     * @throws IllegalArgumentException If the amount of threads is less than 1
+     */
+    public ExactSolver5(Point[] points, int threads, File checkpointFile, long checkpointInterval, SearchMetrics metrics) {
+        this(points, threads, checkpointFile, checkpointInterval, metrics, false);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, the amount of threads,
+     * the file and interval used for checkpoints, the metrics the search is counted into
+     * and if the coordinates should be used as integers if possible.
+     *
+     * @param points             The points the route is created for
+     * @param threads            The amount of threads used for searching (at least 1)
+     * @param checkpointFile     The file used for checkpoints (null if no checkpoints should be written)
+     * @param checkpointInterval The time between two checkpoints in ms
+     * @param metrics            The metrics (null if the search should not be counted)
+     * @param useIntegers        If the coordinates should be used as integers if possible
+     * @throws IllegalArgumentException If the amount of threads is less than 1
+     */
+    public ExactSolver5(Point[] points, int threads, File checkpointFile, long checkpointInterval, SearchMetrics metrics,
+                        boolean useIntegers) {
+        super(points);
+        if (threads < 1) throw new IllegalArgumentException();
+
+        this.threads = threads;
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
+        this.metrics = metrics;
+        this.useIntegers = useIntegers;
+    }
+
+    /**
+     * Implementation of the solve-methode solving the problem
+     * for the given points by searching all valid prefixes in parallel
+     * as described above.
+     *
+     * @return The best possible route (might be null)
+     */
+    @Override
+    public Point[] solve() {
+        // With no points, the empty route is the best one
+        if (this.getSize() == 0) return new Point[0];
+
+        Instance instance = new Instance(this.getPoints(), this.useIntegers);
+        Incumbent incumbent = new Incumbent();
+        search(instance, incumbent);
+
+        return instance.toPoints(incumbent.getRoute());
+    }
+
+    /**
+     * Public method searching all valid prefixes in parallel as described above, using and updating a
+     * given incumbent, that might be shared with other solvers. The search stops early if the current
+     * thread is interrupted.
+     *
+     * @param instance  The instance created from this solver's points
+     * @param incumbent The incumbent used as bound and updated whenever a better route is found
+     * @return If the search was complete, e.i. the incumbent's route is optimal (if there is one)
+     */
+    public boolean search(Instance instance, Incumbent incumbent) {
+        // Get the prefixes to search, either all valid prefixes or the ones left in the checkpoint
+        LongAdder nodes = new LongAdder();
+        long finishedBefore = 0;
+        List<int[]> prefixes;
+
+        Checkpoint checkpoint = readCheckpoint(instance);
+
+        if (checkpoint != null) {
+            prefixes = checkpoint.getPrefixes();
+            nodes.add(checkpoint.getNodes());
+            finishedBefore = checkpoint.getFinishedPrefixes();
+            if (checkpoint.getRoute() != null) incumbent.offer(checkpoint.getRoute(), checkpoint.getLength());
+        } else {
+            prefixes = PrefixSearch.createPrefixes(instance, Math.min(PREFIX_DEPTH, this.getSize()));
+        }
+
+        // Every part of the search tree that is not covered by the prefixes (invalid prefixes or prefixes
+        // searched before the checkpoint) counts as explored
+        if (this.metrics != null) {
+            double left = 0D;
+            for (int[] prefix : prefixes) left += PrefixSearch.weight(instance, prefix);
+            this.metrics.newCounters().explored(Math.max(0D, 1D - left));
+        }
+
+        // Keep track of which prefixes have been searched completely
+        List<int[]> finalPrefixes = prefixes;
+        AtomicIntegerArray finished = new AtomicIntegerArray(prefixes.size());
+        AtomicInteger finishedCount = new AtomicInteger();
+        AtomicInteger nextPrefix = new AtomicInteger();
+
+        // Start writing checkpoints (if wanted), created from the prefixes not finished yet
+        long finalFinishedBefore = finishedBefore;
+        CheckpointWriter writer = null;
+
+        if (this.checkpointFile != null) {
+            writer = new CheckpointWriter(this.checkpointFile, this.checkpointInterval, () -> {
+                List<int[]> left = new ArrayList<>();
+                for (int i = 0; i < finalPrefixes.size(); i++) {
+                    if (finished.get(i) == 0) left.add(finalPrefixes.get(i));
+                }
+
+                // Compute the best route's length from the route itself, since it might
+                // have been replaced in the meantime
+                int[] route = incumbent.getRoute();
+                double length = route == null ? Double.POSITIVE_INFINITY : instance.length(route);
+
+                return new Checkpoint(instance.fingerprint(), instance.getSize(), left, route, length,
+                        nodes.sum(), finalFinishedBefore + finishedCount.get());
+            });
+        }
+
+        // Let every thread take the next prefix not searched yet until all have been searched
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+
+        for (int t = 0; t < this.threads; t++) {
+            executor.execute(() -> {
+                PrefixSearch search = new PrefixSearch(instance, incumbent, this.metrics != null ? this.metrics.newCounters() : null);
+                int i;
+
+                while ((i = nextPrefix.getAndIncrement()) < finalPrefixes.size()) {
+                    long nodesBefore = search.getNodes();
+                    search.search(finalPrefixes.get(i));
+                    nodes.add(search.getNodes() - nodesBefore);
+
+                    // Stop if the search was interrupted (the prefix was not searched completely)
+                    if (search.isInterrupted()) return;
+
+                    finished.set(i, 1);
+                    finishedCount.incrementAndGet();
+                }
+            });
+        }
+
+        executor.shutdown();
+        boolean complete = true;
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // Stop all threads by interrupting them and wait for them to stop
+            complete = false;
+            executor.shutdownNow();
+
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ignored) {
+            }
+
+            Thread.currentThread().interrupt();
+        }
+
+        // Stop writing checkpoints. If the search is complete, the checkpoint file is not needed anymore,
+        // otherwise a last checkpoint is written, such that the search can be resumed from it.
+        if (writer != null) {
+            writer.close();
+
+            if (complete) {
+                this.checkpointFile.delete();
+            } else {
+                writer.writeNow();
+            }
+        }
+
+        return complete;
+    }
+
+    /**
+     * Private methode reading the checkpoint file, if there is one and it belongs to the given instance.
+     * Resuming or ignoring an existing checkpoint is reported to the metrics' listeners.
+     *
+     * @param instance The instance
+     * @return The checkpoint or null if there is no (matching) checkpoint
+     */
+    private Checkpoint readCheckpoint(Instance instance) {
+        if (this.checkpointFile == null || !this.checkpointFile.isFile()) return null;
+
+        try {
+            Checkpoint checkpoint = Checkpoint.read(this.checkpointFile);
+
+            if (!belongsTo(checkpoint, instance)) {
+                if (this.metrics != null) this.metrics.checkpointIgnored(this.checkpointFile, false);
+                return null;
+            }
+
+            if (this.metrics != null) this.metrics.resumed(this.checkpointFile, checkpoint.getPrefixes().size());
+            return checkpoint;
+        } catch (IOException e) {
+            if (this.metrics != null) this.metrics.checkpointIgnored(this.checkpointFile, true);
+            return null;
+        }
+    }
+
+    /**
+     * Public static function checking if a search of a given instance can be resumed from a checkpoint file,
+     * e.i. if the file exists, can be read and belongs to the instance.
+     *
+     * @param checkpointFile The checkpoint file (might be null)
+     * @param instance       The instance
+     * @return If the search can be resumed from the file
+     */
+    public static boolean canResume(File checkpointFile, Instance instance) {
+        if (checkpointFile == null || !checkpointFile.isFile()) return false;
+
+        try {
+            return belongsTo(Checkpoint.read(checkpointFile), instance);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Private static function checking if a checkpoint belongs to a given instance.
+     *
+     * @param checkpoint The checkpoint
+     * @param instance   The instance
+     * @return If the checkpoint belongs to the instance
+     */
+    private static boolean belongsTo(Checkpoint checkpoint, Instance instance) {
+        return checkpoint.getFingerprint() == instance.fingerprint() && checkpoint.getSize() == instance.getSize();
+    }
+}
@@ -0,0 +1,426 @@
+package de.flo.wenigerKrummeTouren.algorithms.exact;
+
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class going through all permutations of a part of a route using Heap's Algorithm (in the same order
+ * as ExactSolver1 and ExactSolver2), but evaluating the routes incrementally instead of checking and
+ * measuring every whole route again.
+ * Heap's Algorithm permutes the first k positions of the part before swapping the point at position k
+ * with one of them, so while the first k positions are permuted, all positions behind them are fixed.
+ * Every time a position becomes fixed, only the new edge and the new angle at that position are
+ * checked and added to the length of the fixed points. If that angle doesn't meet the turning angle
+ * constraint or the fixed points are already longer than the best route, none of the k! permutations
+ * can be better, so they are skipped by applying their combined permutation (precomputed) at once.
+ * Using searchParallel(...), the permutations are split into tasks by fixing the first points
+ * (each task's points are found by unranking the task's index), which are searched by several threads.
+ * Note that an instance of this class is not thread-safe, every thread needs its own one.
+ */
+public class HeapEnumeration {
+
+    /**
+     * The amount of tasks per thread the permutations are (at least) split into
+     */
+    private static final int TASKS_PER_THREAD = 64;
+
+    /**
+     * The tolerance of the incrementally computed length when comparing it to the best route's length
+     */
+    private static final double EPSILON = 1e-6;
+
+    /**
+     * The instance containing the points, their distances and turning angle constraints
+     */
+    private final Instance instance;
+
+    /**
+     * The incumbent updated whenever a better route is found
+     */
+    private final Incumbent incumbent;
+
+    /**
+     * The current route given by the points' indexes
+     */
+    private final int[] route;
+
+    /**
+     * The combined permutation of all steps of Heap's Algorithm on k positions, e.i. after them,
+     * the i-th position contains the point that was at position combined[k][i] before
+     */
+    private final int[][] combined;
+
+    /**
+     * Buffer used for applying the combined permutations
+     */
+    private final int[] buffer;
+
+    /**
+     * The first position permuted
+     */
+    private int from;
+
+    /**
+     * The length of the route's first points that are not permuted
+     */
+    private double prefixLength;
+
+    /**
+     * The amount of routes evaluated so far
+     */
+    private long routes = 0;
+
+    /**
+     * If the enumeration was stopped because the current thread was interrupted
+     */
+    private boolean interrupted = false;
+
+    /**
+     * Public constructor taking in the instance and the incumbent.
+     *
+     * @param instance  The instance containing the points
+     * @param incumbent The incumbent updated whenever a better route is found
+     */
+    public HeapEnumeration(Instance instance, Incumbent incumbent) {
+        this.instance = instance;
+        this.incumbent = incumbent;
+        this.route = new int[instance.getSize()];
+        this.buffer = new int[instance.getSize()];
+        this.combined = combinedPermutations(instance.getSize());
+    }
+
+    /**
+     * Public method going through all permutations of the points at the positions from (inclusive)
+     * to (exclusive) of a given route, offering every one meeting the turning angle constraint
+     * (that is not longer than the best route found so far) to the incumbent.
+     *
+     * @param start The route given by the points' indexes (containing every point once, not changed)
+     * @param from  The first position permuted
+     * @param to    The position after the last one permuted
+     */
+    public void enumerate(int[] start, int from, int to) {
+        System.arraycopy(start, 0, this.route, 0, this.route.length);
+
+        int n = this.route.length;
+        this.from = from;
+
+        // With nothing to permute, check the whole route
+        if (to - from == 0) {
+            if (invalidAngles(1, n - 2) == 0) offer(edgeLength(0, n - 2));
+            return;
+        }
+
+        // The points in front of the permuted ones and behind them are fixed, so their
+        // angles and edges are checked once (the ones next to the permuted points later)
+        if (invalidAngles(1, from - 2) > 0 || invalidAngles(to + 1, n - 2) > 0) return;
+
+        this.prefixLength = edgeLength(0, from - 2);
+        permute(to - from, edgeLength(to, n - 2));
+    }
+
+    /**
+     * Private methode permuting the first k permuted positions recursively using Heap's Algorithm,
+     * while all positions behind them are fixed (and their edges and angles checked already).
+     *
+     * @param k            The amount of positions permuted
+     * @param suffixLength The length of the fixed points behind the permuted ones
+     */
+    private void permute(int k, double suffixLength) {
+        if (k == 1) {
+            evaluate(suffixLength);
+            return;
+        }
+
+        int last = this.from + k - 1;
+
+        for (int j = 0; j < k && !this.interrupted; j++) {
+            // Before every permutation of the first k - 1 positions but the first one, swap a point to position k - 1
+            if (j > 0) swap(k % 2 == 0 ? this.from + j - 1 : this.from, last);
+
+            // The point at position k - 1 is fixed now, check its edge and angle to the points behind it
+            double length = suffixLength;
+            boolean valid = true;
+
+            if (last + 1 < this.route.length) {
+                length += this.instance.distance(this.route[last], this.route[last + 1]);
+                if (last + 2 < this.route.length) valid = this.instance.isValid(this.route[last], this.route[last + 1], this.route[last + 2]);
+            }
+
+            if (valid && this.prefixLength + length <= this.incumbent.getLength() + EPSILON) {
+                permute(k - 1, length);
+            } else {
+                skip(k - 1);
+            }
+        }
+    }
+
+    /**
+     * Private methode evaluating the current route, whose edges and angles are checked already except
+     * the ones around the first permuted position, and offering it to the incumbent if it's valid.
+     *
+     * @param suffixLength The length of the fixed points behind the first permuted position
+     */
+    private void evaluate(double suffixLength) {
+        // Check if the thread was interrupted from time to time
+        if ((++this.routes & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) this.interrupted = true;
+
+        if (invalidAngles(this.from - 1, this.from + 1) > 0) return;
+        offer(this.prefixLength + edgeLength(this.from - 1, this.from) + suffixLength);
+    }
+
+    /**
+     * Private methode offering the current route to the incumbent (using its exact length)
+     * if its given length is not longer than the best route found so far.
+     *
+     * @param length The route's length (computed incrementally)
+     */
+    private void offer(double length) {
+        if (length <= this.incumbent.getLength() + EPSILON) {
+            this.incumbent.offer(this.route, this.instance.length(this.route));
+        }
+    }
+
+    /**
+     * Private methode skipping all steps of Heap's Algorithm on the first k permuted positions,
+     * e.i. applying their combined permutation.
+     *
+     * @param k The amount of positions
+     */
+    private void skip(int k) {
+        System.arraycopy(this.route, this.from, this.buffer, 0, k);
+        for (int i = 0; i < k; i++) this.route[this.from + i] = this.buffer[this.combined[k][i]];
+    }
+
+    /**
+     * Private methode swapping the points at two positions of the current route.
+     *
+     * @param p The first position
+     * @param q The second position
+     */
+    private void swap(int p, int q) {
+        int temp = this.route[p];
+        this.route[p] = this.route[q];
+        this.route[q] = temp;
+    }
+
+    /**
+     * Private methode computing the length of the edges of the current route in a given range,
+     * where an edge is given by the position of its first point.
+     *
+     * @param from The first edge (might be out of bounds)
+     * @param to   The last edge (might be out of bounds)
+     * @return The edges' length
+     */
+    private double edgeLength(int from, int to) {
+        double length = 0D;
+
+        for (int i = Math.max(0, from); i <= Math.min(this.route.length - 2, to); i++) {
+            length += this.instance.distance(this.route[i], this.route[i + 1]);
+        }
+
+        return length;
+    }
+
+    /**
+     * Private methode counting the triples of consecutive points of the current route not meeting
+     * the turning angle constraint, whose middle point's position is in a given range.
+     *
+     * @param from The first position (might be out of bounds)
+     * @param to   The last position (might be out of bounds)
+     * @return The amount of invalid triples
+     */
+    private int invalidAngles(int from, int to) {
+        int count = 0;
+
+        for (int i = Math.max(1, from); i <= Math.min(this.route.length - 2, to); i++) {
+            if (!this.instance.isValid(this.route[i - 1], this.route[i], this.route[i + 1])) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Private static function computing the combined permutations of all steps of Heap's Algorithm
+     * on up to n positions, using the combined permutation on k - 1 positions for k positions.
+     *
+     * @param n The maximal amount of positions
+     * @return The combined permutations (see combined)
+     */
+    private static int[][] combinedPermutations(int n) {
+        int[][] combined = new int[n + 1][];
+        combined[0] = new int[0];
+        if (n >= 1) combined[1] = new int[]{0};
+
+        for (int k = 2; k <= n; k++) {
+            int[] positions = new int[k];
+            int[] buffer = new int[k];
+            for (int i = 0; i < k; i++) positions[i] = i;
+
+            for (int j = 0; j < k; j++) {
+                if (j > 0) {
+                    int p = k % 2 == 0 ? j - 1 : 0;
+                    int temp = positions[p];
+                    positions[p] = positions[k - 1];
+                    positions[k - 1] = temp;
+                }
+
+                System.arraycopy(positions, 0, buffer, 0, k - 1);
+                for (int i = 0; i < k - 1; i++) positions[i] = buffer[combined[k - 1][i]];
+            }
+
+            combined[k] = positions;
+        }
+
+        return combined;
+    }
+
+    /**
+     * Public method returning if the enumeration was stopped because the current thread was interrupted.
+     *
+     * @return If the enumeration was interrupted
+     */
+    public boolean isInterrupted() {
+        return this.interrupted;
+    }
+
+    /**
+     * Public static function going through all routes (or, if symmetric, all routes whose first point's
+     * index is smaller than their last point's index, since a route and its reverse have the same length
+     * and both meet the turning angle constraint or both don't) in parallel, offering the valid ones to the incumbent.
+     *
+     * @param instance  The instance
+     * @param incumbent The incumbent updated whenever a better route is found
+     * @param threads   The amount of threads (at least 1)
+     * @param symmetric If only one of every route and its reverse should be checked
+     * @return If the search was complete (false if it was interrupted)
+     */
+    public static boolean searchParallel(Instance instance, Incumbent incumbent, int threads, boolean symmetric) {
+        int n = instance.getSize();
+
+        // The points not fixed as first and last point are permuted, the first ones of them are fixed by the
+        // tasks (at positions offset to offset + fixed - 1) and the remaining ones by Heap's Algorithm
+        int free = symmetric ? n - 2 : n;
+        long pairs = symmetric ? (long) n * (n - 1) / 2 : 1L;
+        int offset = symmetric ? 1 : 0;
+
+        if (free < 0) return true;
+
+        int fixed = 0;
+        while (fixed < free && pairs * partialPermutations(free, fixed) < (long) threads * TASKS_PER_THREAD) fixed++;
+
+        long perPair = partialPermutations(free, fixed);
+        long tasks = pairs * perPair;
+        int prefixSize = fixed;
+
+        AtomicLong nextTask = new AtomicLong();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                HeapEnumeration enumeration = new HeapEnumeration(instance, incumbent);
+                int[] route = new int[n];
+                int[] remaining = new int[n];
+
+                for (long task = nextTask.getAndIncrement(); task < tasks; task = nextTask.getAndIncrement()) {
+                    // Set the first and last point (if symmetric) and collect the remaining points
+                    int count = 0;
+
+                    if (symmetric) {
+                        int[] pair = unrankPair(task / perPair, n);
+                        route[0] = pair[0];
+                        route[n - 1] = pair[1];
+
+                        for (int i = 0; i < n; i++) if (i != pair[0] && i != pair[1]) remaining[count++] = i;
+                    } else {
+                        for (int i = 0; i < n; i++) remaining[count++] = i;
+                    }
+
+                    // Fix the task's points and put the remaining ones behind them
+                    unrankPrefix(task % perPair, remaining, count, prefixSize, route, offset);
+                    System.arraycopy(remaining, 0, route, offset + prefixSize, count - prefixSize);
+
+                    enumeration.enumerate(route, offset + prefixSize, offset + free);
+
+                    if (enumeration.isInterrupted() || Thread.currentThread().isInterrupted()) {
+                        interrupted.set(true);
+                        return;
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return !interrupted.get();
+    }
+
+    /**
+     * Private static function computing the amount of ordered selections of k out of n elements, e.i. n! / (n - k)!.
+     *
+     * @param n The amount of elements
+     * @param k The amount of selected elements (at most n)
+     * @return The amount of ordered selections
+     */
+    private static long partialPermutations(int n, int k) {
+        long result = 1L;
+        for (int i = 0; i < k; i++) result *= n - i;
+        return result;
+    }
+
+    /**
+     * Private static function returning the pair (a, b) with 0 <= a < b < n with a given rank
+     * (pairs ordered by a, then by b).
+     *
+     * @param rank The rank
+     * @param n    The amount of elements
+     * @return The pair
+     */
+    private static int[] unrankPair(long rank, int n) {
+        int a = 0;
+
+        while (rank >= n - 1 - a) {
+            rank -= n - 1 - a;
+            a++;
+        }
+
+        return new int[]{a, a + 1 + (int) rank};
+    }
+
+    /**
+     * Private static function writing the ordered selection of k out of the given elements with a given rank
+     * (ordered lexicographically by the elements' positions) into an array, removing the selected elements
+     * (the remaining ones keep their order).
+     *
+     * @param rank     The rank
+     * @param elements The elements
+     * @param count    The amount of elements
+     * @param k        The amount of selected elements
+     * @param target   The array the selected elements are written to
+     * @param offset   The position of the first selected element in the target
+     */
+    private static void unrankPrefix(long rank, int[] elements, int count, int k, int[] target, int offset) {
+        for (int i = 0; i < k; i++) {
+            long radix = partialPermutations(count - i - 1, k - i - 1);
+            int index = (int) (rank / radix);
+            rank %= radix;
+
+            target[offset + i] = elements[index];
+            System.arraycopy(elements, index + 1, elements, index, count - i - index - 1);
+        }
+    }
+}
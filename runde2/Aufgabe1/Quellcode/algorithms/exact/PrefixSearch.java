@@ -0,0 +1,238 @@
+package de.flo.wenigerKrummeTouren.algorithms.exact;
+
+import de.flo.wenigerKrummeTouren.metrics.SearchMetrics;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for searching all routes starting with a given prefix (subroute) recursively,
+ * skipping branches that are longer than the best route found so far, like ExactSolver4.
+ * The best route and the bound are taken from a (possibly shared) Incumbent, such that
+ * the search tree can be split into prefixes searched by several threads or processes.
+ * Optionally, the search is counted into the counters of SearchMetrics.
+ * Note that an instance of this class is not thread-safe, every thread needs its own one.
+ */
+public class PrefixSearch {
+
+    /**
+     * The instance containing the points, their distances and turning angle constraints
+     */
+    private final Instance instance;
+
+    /**
+     * The incumbent used as bound and updated whenever a better route is found
+     */
+    private final Incumbent incumbent;
+
+    /**
+     * The current route given by the points' indexes
+     */
+    private final int[] route;
+
+    /**
+     * Array containing if the point with a given index is in the current route
+     */
+    private final boolean[] used;
+
+    /**
+     * The amount of nodes (subroutes) expanded by this search
+     */
+    private long nodes = 0;
+
+    /**
+     * If the search was stopped because the current thread was interrupted
+     */
+    private boolean interrupted = false;
+
+    /**
+     * The counters the search is counted into (null if the search should not be counted)
+     */
+    private final SearchMetrics.Counters counters;
+
+    /**
+     * Public constructor taking in the instance and the incumbent.
+     *
+     * @param instance  The instance containing the points
+     * @param incumbent The incumbent used as bound
+     */
+    public PrefixSearch(Instance instance, Incumbent incumbent) {
+        this(instance, incumbent, null);
+    }
+
+    /**
+     * Public constructor taking in the instance, the incumbent and the counters the search is counted into.
+     *
+     * @param instance  The instance containing the points
+     * @param incumbent The incumbent used as bound
+     * @param counters  The counters (null if the search should not be counted)
+     */
+    public PrefixSearch(Instance instance, Incumbent incumbent, SearchMetrics.Counters counters) {
+        this.instance = instance;
+        this.counters = counters;
+        this.incumbent = incumbent;
+        this.route = new int[instance.getSize()];
+        this.used = new boolean[instance.getSize()];
+    }
+
+    /**
+     * Public method searching all routes starting with the given prefix.
+     * The prefix has to meet the turning angle constraint and must not contain any point twice.
+     *
+     * @param prefix The prefix given by the points' indexes (at least one point)
+     */
+    public void search(int[] prefix) {
+        // Copy the prefix into the current route and compute its length
+        double length = 0D;
+
+        for (int i = 0; i < prefix.length; i++) {
+            this.route[i] = prefix[i];
+            this.used[prefix[i]] = true;
+            if (i > 0) length += this.instance.distance(prefix[i - 1], prefix[i]);
+        }
+
+        checkAllRecursively(prefix.length, length, this.counters != null ? weight(this.instance, prefix) : 0D);
+
+        // Reset the used points, such that this search can be reused
+        for (int point : prefix) this.used[point] = false;
+    }
+
+    /**
+     * Private methode that is used to recursively check all possible
+     * routes starting with the current route skipping necessary branches.
+     *
+     * @param index         The amount of points in the current route
+     * @param currentLength The current route's length
+     * @param weight        The current route's weight used for the metrics (see SearchMetrics.Counters)
+     */
+    private void checkAllRecursively(int index, double currentLength, double weight) {
+        this.nodes++;
+
+        // Stop the search if the current thread was interrupted. Checked only every 4096 nodes,
+        // such that the check does not slow down the search.
+        if ((this.nodes & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) this.interrupted = true;
+        if (this.interrupted) return;
+
+        // Skip the current branch if the current route's length is bigger
+        // than the best route's length
+        if (currentLength > this.incumbent.getLength()) {
+            if (this.counters != null) this.counters.prunedByBound(index, weight);
+            return;
+        }
+
+        if (this.counters != null) this.counters.node(index);
+
+        // If all points are in the route, offer it to the incumbent
+        int n = this.route.length;
+
+        if (index == n) {
+            boolean improved = this.incumbent.offer(this.route, currentLength);
+
+            if (this.counters != null) {
+                this.counters.explored(weight);
+                if (improved) this.counters.improved(currentLength);
+            }
+
+            return;
+        }
+
+        // Get the last two points of the current route (prev is -1 if there is only one point)
+        int last = this.route[index - 1];
+        int prev = index >= 2 ? this.route[index - 2] : -1;
+
+        // The weight of every child of the current route
+        double childWeight = this.counters != null ? weight / (n - index) : 0D;
+
+        // Iterate through all unused points meeting the turning angle constraint
+        for (int next = 0; next < n; next++) {
+            if (this.used[next]) continue;
+
+            if (prev != -1 && !this.instance.isValid(prev, last, next)) {
+                if (this.counters != null) this.counters.prunedByAngle(index + 1, childWeight);
+                continue;
+            }
+
+            this.used[next] = true;
+            this.route[index] = next;
+
+            checkAllRecursively(index + 1, currentLength + this.instance.distance(last, next), childWeight);
+
+            this.used[next] = false;
+        }
+    }
+
+    /**
+     * Public method returning if the search was stopped because the current thread was interrupted.
+     * In that case, the prefix searched last was not searched completely.
+     *
+     * @return If the search was interrupted
+     */
+    public boolean isInterrupted() {
+        return this.interrupted;
+    }
+
+    /**
+     * Getter for the amount of nodes expanded by this search so far
+     *
+     * @return The amount of nodes expanded
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Public static function computing the weight of a prefix used for the metrics, e.i. the product
+     * of the reciprocals of the amounts of children of its ancestors (see SearchMetrics.Counters).
+     *
+     * @param instance The instance
+     * @param prefix   The prefix given by the points' indexes
+     * @return The prefix's weight
+     */
+    public static double weight(Instance instance, int[] prefix) {
+        double weight = 1D;
+        for (int i = 0; i < prefix.length; i++) weight /= instance.getSize() - i;
+        return weight;
+    }
+
+    /**
+     * Public static function creating all prefixes of a given size that meet the
+     * turning angle constraint, in lexicographic order of the points' indexes.
+     *
+     * @param instance The instance
+     * @param depth    The prefixes' size (at most the amount of points)
+     * @return A list of all valid prefixes
+     */
+    public static List<int[]> createPrefixes(Instance instance, int depth) {
+        List<int[]> prefixes = new ArrayList<>();
+        createPrefixesRecursively(instance, new int[depth], new boolean[instance.getSize()], 0, prefixes);
+        return prefixes;
+    }
+
+    /**
+     * Private static function creating all valid prefixes recursively.
+     *
+     * @param instance The instance
+     * @param prefix   The current prefix
+     * @param used     Array containing if a point is in the current prefix
+     * @param index    The amount of points in the current prefix
+     * @param prefixes The list all complete prefixes are added to
+     */
+    private static void createPrefixesRecursively(Instance instance, int[] prefix, boolean[] used, int index, List<int[]> prefixes) {
+        if (index == prefix.length) {
+            prefixes.add(prefix.clone());
+            return;
+        }
+
+        for (int next = 0; next < instance.getSize(); next++) {
+            if (used[next]) continue;
+            if (index >= 2 && !instance.isValid(prefix[index - 2], prefix[index - 1], next)) continue;
+
+            used[next] = true;
+            prefix[index] = next;
+            createPrefixesRecursively(instance, prefix, used, index + 1, prefixes);
+            used[next] = false;
+        }
+    }
+}
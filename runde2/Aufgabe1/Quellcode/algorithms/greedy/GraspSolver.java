@@ -0,0 +1,290 @@
+package de.flo.wenigerKrummeTouren.algorithms.greedy;
+
+import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.algorithms.localSearch.LocalSearch;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+import de.flo.wenigerKrummeTouren.util.Point;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the abstract class Solver.
+ * This class uses GRASP (greedy randomized adaptive search procedure) to solve a given instance
+ * of the problem: Many routes are created by a randomized greedy approach, that starts at a random
+ * point and then always chooses the next point uniformly at random from the k nearest points meeting
+ * the angle constraint (backtracking in dead ends, see Construction). Every route created is improved by local search and the best one is returned.
+ * The starts are split between several threads, every thread having its own stream of random numbers,
+ * such that the result is the same for a given seed and amount of threads.
+ */
+public class GraspSolver extends Solver {
+
+    /**
+     * The maximum amount of points placed in one construction (including backtracking) relative to the amount of points
+     */
+    private static final int BACKTRACKING_FACTOR = 100;
+
+    /**
+     * The amount of randomized greedy routes created
+     */
+    private final int starts;
+
+    /**
+     * The amount of nearest points the next point is chosen from
+     */
+    private final int k;
+
+    /**
+     * The seed of the random numbers
+     */
+    private final long seed;
+
+    /**
+     * The amount of threads used
+     */
+    private final int threads;
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, using 1000 starts, the 3 nearest points,
+     * the seed 0 and all available processors.
+     *
+     * @param points The points the route is created for
+     */
+    public GraspSolver(Point[] points) {
+        this(points, 1000, 3, 0L, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for and the parameters of the GRASP.
+     *
+     * @param points  The points the route is created for
+     * @param starts  The amount of randomized greedy routes created
+     * @param k       The amount of nearest points the next point is chosen from (at least 1)
+     * @param seed    The seed of the random numbers
+     * @param threads The amount of threads used (at least 1)
+     * @throws IllegalArgumentException If k or the amount of threads is less than 1
+     */
+    public GraspSolver(Point[] points, int starts, int k, long seed, int threads) {
+        super(points);
+        if (k < 1 || threads < 1) throw new IllegalArgumentException();
+
+        this.starts = starts;
+        this.k = k;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Implementation of the solve-methode solving the problem using GRASP as described above.
+     *
+     * @return The best route found (might be null if none could be found)
+     */
+    @Override
+    public Point[] solve() {
+        // If the amount of points given is smaller than 3,
+        // the result is only the given points (since there won't
+        // be any angles)
+        if (this.getSize() <= 2) {
+            return this.getPoints().clone();
+        }
+
+        Instance instance = new Instance(this.getPoints());
+        Incumbent incumbent = new Incumbent();
+        int[] orders = createOrders(instance);
+
+        // Create one stream of random numbers per thread, split from the given seed in a fixed order
+        SplittableRandom root = new SplittableRandom(this.seed);
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+
+        for (int t = 0; t < this.threads; t++) {
+            SplittableRandom random = root.split();
+            int thread = t;
+
+            // The t-th thread takes the starts t, t + threads, t + 2 * threads, ...
+            executor.execute(() -> {
+                LocalSearch localSearch = new LocalSearch(instance);
+                Construction construction = new Construction(instance, orders, random);
+
+                for (int s = thread; s < this.starts && !Thread.currentThread().isInterrupted(); s += this.threads) {
+                    int[] route = construction.construct();
+                    if (route == null) continue;
+
+                    int[] improved = localSearch.improve(route);
+                    incumbent.offer(improved, instance.length(improved));
+                }
+            });
+        }
+
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        return instance.toPoints(incumbent.getRoute());
+    }
+
+    /**
+     * Private static function creating for every point the list of all other points
+     * ordered by their distance to it, stored in one array (row i contains the points for point i).
+     *
+     * @param instance The instance
+     * @return The ordered points, row i starting at index i * (n - 1)
+     */
+    private static int[] createOrders(Instance instance) {
+        int n = instance.getSize();
+        int[] orders = new int[n * (n - 1)];
+
+        Integer[] others = new Integer[n - 1];
+
+        for (int i = 0; i < n; i++) {
+            int from = i;
+            for (int j = 0, index = 0; j < n; j++) if (j != i) others[index++] = j;
+
+            Arrays.sort(others, (a, b) -> Double.compare(instance.distance(from, a), instance.distance(from, b)));
+            for (int j = 0; j < n - 1; j++) orders[i * (n - 1) + j] = others[j];
+        }
+
+        return orders;
+    }
+
+    /**
+     * Class creating routes using the randomized greedy approach described above. Since always choosing
+     * from the k nearest points often leads into dead ends (no point left meeting the angle constraint),
+     * a dead end is resolved by backtracking: the other points are tried as well, first the k nearest ones
+     * in random order and then all others by their distance. The amount of backtracking is limited.
+     * Note that an instance of this class is not thread-safe, every thread needs its own one.
+     */
+    private class Construction {
+
+        /**
+         * The instance
+         */
+        private final Instance instance;
+
+        /**
+         * For every point the other points ordered by their distance to it (see createOrders)
+         */
+        private final int[] orders;
+
+        /**
+         * The stream of random numbers
+         */
+        private final SplittableRandom random;
+
+        /**
+         * The current route given by the points' indexes
+         */
+        private final int[] route;
+
+        /**
+         * Array containing if the point with a given index is in the current route
+         */
+        private final boolean[] used;
+
+        /**
+         * Buffer for the candidates of every position in the route
+         */
+        private final int[][] candidates;
+
+        /**
+         * The amount of points placed in the current construction (used to limit the backtracking)
+         */
+        private long steps;
+
+        /**
+         * Constructor taking in the instance, the ordered points and the stream of random numbers.
+         *
+         * @param instance The instance
+         * @param orders   For every point the other points ordered by their distance to it
+         * @param random   The stream of random numbers
+         */
+        private Construction(Instance instance, int[] orders, SplittableRandom random) {
+            this.instance = instance;
+            this.orders = orders;
+            this.random = random;
+            this.route = new int[instance.getSize()];
+            this.used = new boolean[instance.getSize()];
+            this.candidates = new int[instance.getSize()][];
+        }
+
+        /**
+         * Method creating a route as described above.
+         *
+         * @return The route given by the points' indexes (null if none was found within the limit)
+         */
+        private int[] construct() {
+            int n = this.instance.getSize();
+            Arrays.fill(this.used, false);
+            this.steps = 0;
+
+            // Choose the first point at random
+            this.route[0] = this.random.nextInt(n);
+            this.used[this.route[0]] = true;
+
+            return constructRecursively(1) ? this.route : null;
+        }
+
+        /**
+         * Methode choosing the points of the route recursively, starting with the given position.
+         *
+         * @param index The amount of points in the current route
+         * @return If the route could be completed
+         */
+        private boolean constructRecursively(int index) {
+            int n = this.route.length;
+            if (index == n) return true;
+
+            // Give up if the limit of backtracking is exceeded
+            if (++this.steps > (long) BACKTRACKING_FACTOR * n) return false;
+
+            int last = this.route[index - 1];
+            int prev = index >= 2 ? this.route[index - 2] : -1;
+
+            // Collect the unused points meeting the angle constraint ordered by their distance
+            if (this.candidates[index] == null) this.candidates[index] = new int[n - 1];
+            int[] candidates = this.candidates[index];
+            int amount = 0;
+
+            for (int i = last * (n - 1), end = i + n - 1; i < end; i++) {
+                int next = this.orders[i];
+                if (this.used[next]) continue;
+                if (prev != -1 && !this.instance.isValid(prev, last, next)) continue;
+
+                candidates[amount++] = next;
+            }
+
+            // Shuffle the k nearest candidates, such that the next point is chosen uniformly among them
+            for (int i = Math.min(GraspSolver.this.k, amount) - 1; i > 0; i--) {
+                int j = this.random.nextInt(i + 1);
+                int temp = candidates[i];
+                candidates[i] = candidates[j];
+                candidates[j] = temp;
+            }
+
+            // Try the candidates in that order
+            for (int i = 0; i < amount; i++) {
+                int next = candidates[i];
+
+                this.route[index] = next;
+                this.used[next] = true;
+
+                if (constructRecursively(index + 1)) return true;
+
+                this.used[next] = false;
+                if (this.steps > (long) BACKTRACKING_FACTOR * n) return false;
+            }
+
+            return false;
+        }
+    }
+}
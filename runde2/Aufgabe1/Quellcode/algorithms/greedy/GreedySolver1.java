@@ -1,9 +1,12 @@
 package de.flo.wenigerKrummeTouren.algorithms.greedy;
 
 import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.util.NeighborLists;
 import de.flo.wenigerKrummeTouren.util.Point;
 import de.flo.wenigerKrummeTouren.util.Utils;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -12,10 +15,22 @@ import java.util.Set;
  * of the problem by starting at the first point given and then
  * always looking for the nearest point meeting the angle
  * constraint.
+ * The nearest points of every point (NeighborLists) are looked at first, only if none of them
+ * is suitable, all points are looked at.
  * To be precise, this class is an implementation of "Algorithmus-9" in the documentation.
  */
 public class GreedySolver1 extends Solver {
 
+    /**
+     * The nearest points of every point, looked at first when searching the next point
+     */
+    private NeighborLists neighbors = null;
+
+    /**
+     * The points' indexes
+     */
+    private Map<Point, Integer> indexes = null;
+
     /**
      * Public constructor of this class calling the parent's constructor and
      * taking in the points to find a route for.
@@ -43,6 +58,11 @@ public class GreedySolver1 extends Solver {
             return this.getPoints().clone();
         }
 
+        // Create the nearest points of every point (candidates for the next point)
+        this.neighbors = new NeighborLists(this.getPoints());
+        this.indexes = new IdentityHashMap<>();
+        for (int i = 0; i < this.getSize(); i++) this.indexes.put(this.getPoint(i), i);
+
         // Initialize the route (points) as an array of points
         // and a Set containing all given points (will be the
         // set containing all points not used yet)
@@ -96,7 +116,12 @@ public class GreedySolver1 extends Solver {
      * @return The point of the given set that is the closest to Q
      */
     private Point getNext(Set<Point> points, Point Q) {
-        // Initialize the closest point (to Q) and its length with null and -1
+        // First, only look at the nearest points of Q. Since they're ordered by
+        // their distance, the first one left is the closest point of all (see NeighborLists.nearest).
+        int nearest = this.neighbors.nearest(this.indexes.get(Q), j -> points.contains(this.getPoint(j)));
+        if (nearest != -1) return this.getPoint(nearest);
+
+        // Otherwise, initialize the closest point (to Q) and its length with null and -1
         Point bestPoint = null;
         double bestDistance = -1;
 
@@ -131,7 +156,13 @@ public class GreedySolver1 extends Solver {
      * if there's none)
      */
     private Point getNext(Set<Point> points, Point P, Point Q) {
-        // Initialize the closest point (to Q) and its length with null and -1
+        // First, only look at the nearest points of Q. Since they're ordered by their distance, the first one
+        // left meeting the angle constraint is the closest such point of all (see NeighborLists.nearest).
+        int nearest = this.neighbors.nearest(this.indexes.get(Q),
+                j -> points.contains(this.getPoint(j)) && Utils.turningAngleIsValid(P, Q, this.getPoint(j)));
+        if (nearest != -1) return this.getPoint(nearest);
+
+        // Otherwise, look at all points. Initialize the closest point (to Q) and its length with null and -1
         Point bestPoint = null;
         double bestDistance = -1;
 
@@ -154,4 +185,4 @@ public class GreedySolver1 extends Solver {
         // Return the best point found (might be null)
         return bestPoint;
     }
-}
\ No newline at end of file
+}
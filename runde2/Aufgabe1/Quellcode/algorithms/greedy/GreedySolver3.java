@@ -1,9 +1,12 @@
 package de.flo.wenigerKrummeTouren.algorithms.greedy;
 
 import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.util.NeighborLists;
 import de.flo.wenigerKrummeTouren.util.Point;
 import de.flo.wenigerKrummeTouren.util.Utils;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -13,10 +16,22 @@ import java.util.Set;
  * (first and second point in the route). For each pair it'll
  * look for the next points for the route by always using the
  * nearest point meeting the angle constraint.
+ * The nearest points of every point (NeighborLists) are looked at first, only if none of them
+ * is suitable, all points are looked at.
  * To be precise, this class is an implementation of "Algorithmus-11" in the documentation.
  */
 public class GreedySolver3 extends Solver {
 
+    /**
+     * The nearest points of every point, looked at first when searching the next point
+     */
+    private NeighborLists neighbors = null;
+
+    /**
+     * The points' indexes
+     */
+    private Map<Point, Integer> indexes = null;
+
     /**
      * Public constructor of this class calling the parent's constructor and
      * taking in the points to find a route for.
@@ -45,6 +60,11 @@ public class GreedySolver3 extends Solver {
             return this.getPoints().clone();
         }
 
+        // Create the nearest points of every point (candidates for the next point)
+        this.neighbors = new NeighborLists(this.getPoints());
+        this.indexes = new IdentityHashMap<>();
+        for (int i = 0; i < this.getSize(); i++) this.indexes.put(this.getPoint(i), i);
+
         // Initializing the best route and its length found so far
         // with null and -1.
         Point[] bestRoute = null;
@@ -145,7 +165,13 @@ public class GreedySolver3 extends Solver {
      * if there's none)
      */
     private Point getNext(Set<Point> points, Point P, Point Q) {
-        // Initialize the closest point (to Q) and its length with null and -1
+        // First, only look at the nearest points of Q. Since they're ordered by their distance, the first one
+        // left meeting the angle constraint is the closest such point of all (see NeighborLists.nearest).
+        int nearest = this.neighbors.nearest(this.indexes.get(Q),
+                j -> points.contains(this.getPoint(j)) && Utils.turningAngleIsValid(P, Q, this.getPoint(j)));
+        if (nearest != -1) return this.getPoint(nearest);
+
+        // Otherwise, look at all points. Initialize the closest point (to Q) and its length with null and -1
         Point bestPoint = null;
         double bestDistance = -1;
 
@@ -168,4 +194,4 @@ public class GreedySolver3 extends Solver {
         // Return the best point found (might be null)
         return bestPoint;
     }
-}
\ No newline at end of file
+}
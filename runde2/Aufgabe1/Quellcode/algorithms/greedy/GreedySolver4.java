@@ -1,43 +1,44 @@
 package de.flo.wenigerKrummeTouren.algorithms.greedy;
 
 import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+import de.flo.wenigerKrummeTouren.util.NeighborLists;
 import de.flo.wenigerKrummeTouren.util.Point;
-import de.flo.wenigerKrummeTouren.util.Utils;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation of the abstract class Solver.
  * This class uses a greedy approach to solve a given instance
  * of the problem by testing each possible subroute of a given
  * size k to be the start of the route. For each startroute it'll
- * first  check if the turning angle constraint is met and then
  * look for the next points for the route by always using the
  * nearest point meeting the angle constraint.
  * To be precise, this class is an implementation of "Algorithmus-12" in the documentation.
+ * The start subroutes are enumerated in parallel, split by their first two points. The turning
+ * angle constraint is checked while a start subroute grows, and start subroutes (and completions)
+ * that are already longer than the best route found so far are skipped. The next point of a completion
+ * is searched among the nearest points (NeighborLists) first.
  */
 public class GreedySolver4 extends Solver {
 
     /**
-     * The best route found so far as an array of points
+     * The given size of start subroutes
      */
-    private Point[] bestList = null;
+    private final int startSize;
 
     /**
-     * The best route's length initialized with negative one
+     * The amount of threads used
      */
-    private double minLength = -1;
-
-    /**
-     * The given size of start subroutes
-     */
-    private final int startSize;
+    private final int threads;
 
     /**
      * Public constructor taking in the needed points and the size of
-     * the start subroutes tested.
+     * the start subroutes tested, using all available processors.
      * Note that this size has to be at least 2.
      *
      * @param points    The needed points as an array
@@ -45,168 +46,234 @@ public class GreedySolver4 extends Solver {
      * @throws IllegalArgumentException If the start size is less than 2
      */
     public GreedySolver4(Point[] points, int startSize) {
+        this(points, startSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Public constructor taking in the needed points, the size of
+     * the start subroutes tested and the amount of threads used.
+     * Note that this size has to be at least 2.
+     *
+     * @param points    The needed points as an array
+     * @param startSize Size of the start subroutes
+     * @param threads   The amount of threads used (at least 1)
+     * @throws IllegalArgumentException If the start size is less than 2 or the amount of threads less than 1
+     */
+    public GreedySolver4(Point[] points, int startSize, int threads) {
         super(points);
-        if (startSize <= 1 || points.length < startSize) throw new IllegalArgumentException();
+        if (startSize <= 1 || points.length < startSize || threads < 1) throw new IllegalArgumentException();
         this.startSize = startSize;
+        this.threads = threads;
     }
 
     /**
      * Implementation of the solve-methode solving the problem
      * for the given points by testing each possible subroute of a given
-     * size k to be the start of the route. For each startroute it'll
-     * first  check if the turning angle constraint is met and then
-     * look for the next points for the route by always using the
-     * nearest point meeting the angle constraint.
+     * size k to be the start of the route as described above.
      *
      * @return The best route found (might be null if none could be found)
      */
     @Override
     public Point[] solve() {
-        // Create a Set containing all points that haven't been used yet.
-        // E.i. filling it with all given points. Using a CopyOnWriteArraySet such that
-        // one can remove and add element to it while looping through its elements.
-        // In fact, that is faster than copying the Set all the time.
-        Set<Point> pointsLeft = new CopyOnWriteArraySet<>();
-        for (int k = 0; k < this.getSize(); k++) pointsLeft.add(this.getPoint(k));
+        Instance instance = new Instance(this.getPoints());
+        Incumbent incumbent = new Incumbent();
+        NeighborLists neighbors = new NeighborLists(this.getPoints());
+
+        // Every task is given by the first two points of the start subroutes (i * n + j)
+        int n = this.getSize();
+        AtomicInteger nextTask = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
 
-        // Initialize the current start subroute as an array of points
-        // This array will be used for the creation of all starting routes.
-        Point[] route = new Point[this.startSize];
+        for (int t = 0; t < this.threads; t++) {
+            executor.execute(() -> {
+                Enumeration enumeration = new Enumeration(instance, incumbent, neighbors);
 
-        // Start iterating through all possible starting subroutes recursively
-        this.checkAllRecursively(route, 0, pointsLeft);
+                for (int task = nextTask.getAndIncrement(); task < n * n; task = nextTask.getAndIncrement()) {
+                    if (Thread.currentThread().isInterrupted()) return;
+
+                    int first = task / n, second = task % n;
+                    if (first != second) enumeration.enumerate(first, second);
+                }
+            });
+        }
+
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
 
         // Finally, return the best route found so far (might be null)
-        return this.bestList;
+        return instance.toPoints(incumbent.getRoute());
     }
 
     /**
-     * Private methode for to check each possible start subroute of the
-     * given size recursively.
-     *
-     * @param start The current route
-     * @param index The current index the next point will have in the route
-     * @param pointsLeft Set containing all points not used yet, e.i. all points not in the route yet
+     * Class enumerating the start subroutes with given first two points and creating
+     * the rest of the route greedily for each of them.
+     * Note that an instance of this class is not thread-safe, every thread needs its own one.
      */
-    public void checkAllRecursively(Point[] start, int index, Set<Point> pointsLeft) {
-        // If the start subroute has the needed length, check it
-        if (index == this.startSize) {
-            // First, check weather the current starting route is valid,
-            // e.i. the angle constraint is met. If this is not the case, return
-            if (!Utils.turningAnglesAreValid(start)) {
+    private class Enumeration {
+
+        /**
+         * The instance containing the points, their distances and turning angle constraints
+         */
+        private final Instance instance;
+
+        /**
+         * The incumbent used as bound and updated whenever a better route is found
+         */
+        private final Incumbent incumbent;
+
+        /**
+         * The nearest points of every point
+         */
+        private final NeighborLists neighbors;
+
+        /**
+         * The current route given by the points' indexes
+         */
+        private final int[] route;
+
+        /**
+         * Array containing if the point with a given index is in the current route
+         */
+        private final boolean[] used;
+
+        /**
+         * Constructor taking in the instance, the incumbent and the nearest points of every point.
+         *
+         * @param instance  The instance containing the points
+         * @param incumbent The incumbent used as bound
+         * @param neighbors The nearest points of every point
+         */
+        private Enumeration(Instance instance, Incumbent incumbent, NeighborLists neighbors) {
+            this.instance = instance;
+            this.incumbent = incumbent;
+            this.neighbors = neighbors;
+            this.route = new int[instance.getSize()];
+            this.used = new boolean[instance.getSize()];
+        }
+
+        /**
+         * Method checking each start subroute beginning with the given two points.
+         *
+         * @param first  The first point's index
+         * @param second The second point's index
+         */
+        private void enumerate(int first, int second) {
+            this.route[0] = first;
+            this.route[1] = second;
+            this.used[first] = true;
+            this.used[second] = true;
+
+            checkAllRecursively(2, this.instance.distance(first, second));
+
+            this.used[first] = false;
+            this.used[second] = false;
+        }
+
+        /**
+         * Methode to check each possible start subroute of the
+         * given size recursively.
+         *
+         * @param index         The current index the next point will have in the route
+         * @param currentLength The current subroute's length
+         */
+        private void checkAllRecursively(int index, double currentLength) {
+            // Skip the subroute if it is already longer than the best route
+            if (currentLength > this.incumbent.getLength()) return;
+
+            // If the start subroute has the needed length, greedily create the rest of the route
+            if (index == GreedySolver4.this.startSize) {
+                complete(index, currentLength);
                 return;
             }
 
-            // Greedily create the rest of the route
-            Point[] route = getRoute(start, pointsLeft);
+            int last = this.route[index - 1];
+            int prev = this.route[index - 2];
 
-            // Check if route is null (e.i. the route was not found)
-            if (route == null) return;
+            // Otherwise, iterate through all points not in the subroute yet meeting the angle constraint
+            for (int next = 0; next < this.route.length; next++) {
+                if (this.used[next] || !this.instance.isValid(prev, last, next)) continue;
 
-            // Get the current route's length and compare it to the best route
-            // If the current one is smaller than the best one, update the best one
-            double length = Utils.length(route);
+                this.route[index] = next;
+                this.used[next] = true;
 
-            if (this.minLength == -1 || length < this.minLength) {
-                this.minLength = length;
-                this.bestList = route.clone();
-            }
+                checkAllRecursively(index + 1, currentLength + this.instance.distance(last, next));
 
-            return;
+                this.used[next] = false;
+            }
         }
 
-        // Otherwise, iterate through all points not in the subroute yet
-        for (Point p : pointsLeft) {
-            // Add the current point p to the subroute and remove it from the points left
-            start[index] = p;
-            pointsLeft.remove(p);
-
-            checkAllRecursively(start, index + 1, pointsLeft);
-
-            // Add the current point to the points left again.
-            // No need to remove it from the subroute, it'll just be replaces
-            pointsLeft.add(p);
-        }
+        /**
+         * Methode for creating the whole route given the current start subroute
+         * meeting the angle constraint (always using the nearest point meeting it)
+         * and offering it to the incumbent.
+         *
+         * @param index         The start subroute's size
+         * @param currentLength The start subroute's length
+         */
+        private void complete(int index, double currentLength) {
+            int n = this.route.length;
+            int k = index;
+
+            // Add the rest of the route greedily
+            for (; k < n; k++) {
+                int last = this.route[k - 1];
+                int prev = this.route[k - 2];
+
+                // Get the nearest unused point meeting the angle constraint, looking at the nearest
+                // points first (the first suitable one is the nearest suitable point of all)
+                int best = nearestCandidate(prev, last);
+                double bestDistance = best == -1 ? -1 : this.instance.distance(last, best);
+
+                // Otherwise, look at all points
+                if (best == -1) {
+                    for (int next = 0; next < n; next++) {
+                        if (this.used[next] || !this.instance.isValid(prev, last, next)) continue;
+
+                        double distance = this.instance.distance(last, next);
+                        if (best == -1 || distance < bestDistance) {
+                            best = next;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+
+                // Stop if no point meets the angle constraint or the route is already too long
+                if (best == -1) break;
+                currentLength += bestDistance;
+                if (currentLength > this.incumbent.getLength()) break;
+
+                this.route[k] = best;
+                this.used[best] = true;
+            }
 
-    }
+            if (k == n) this.incumbent.offer(this.route, currentLength);
 
-    /**
-     * Methode for creating the whole route given a starting subroute
-     * meeting the angle constraint.
-     *
-     * @param startRoute the starting subroute
-     * @param set The points not used yet
-     * @return The complete route created greedily
-     */
-    private Point[] getRoute(Point[] startRoute, Set<Point> set) {
-        // First create the route as an array of points and copy
-        // the given start subroute to the start of that array
-        Point[] route = new Point[this.getSize()];
-        for (int i = 0; i < this.startSize; i++) route[i] = startRoute[i];
-
-        // Create a copy of the points left
-        Set<Point> pointsLeft = new HashSet<>(set);
-
-        // Use lastPoint and currentPoint to keep track of
-        // the last two points in the current route.
-        Point lastPoint = route[this.startSize - 2];
-        Point currentPoint = route[this.startSize - 1];
-
-        // Add the rest of the route greedily
-        for (int k = this.startSize; k < this.getSize(); k++) {
-            // Get the next point using this#getNext
-            Point next = getNext(pointsLeft, lastPoint, currentPoint);
-
-            // If next is null (e.i. there is no point left that meets
-            // the angle constraint), return null (e.i. no route was found)
-            if (next == null) return null;
-
-            // Otherwise, add the found point to the route and remove it from
-            // the points left. Also, update the last and current point.
-            route[k] = next;
-            pointsLeft.remove(next);
-            lastPoint = currentPoint;
-            currentPoint = next;
+            // Reset the points added, such that the start subroute can be reused
+            for (int i = index; i < k; i++) this.used[this.route[i]] = false;
         }
 
-        // Finally, update the route found
-        return route;
-    }
-
-    /**
-     * Private methode finding the next point R from a given set of possible
-     * points that is the closest to a given point Q and meets the angle
-     * constraint for P, Q and R, where P is another point.
-     *
-     * @param points The set of possible points R
-     * @param P      The point P
-     * @param Q      The point Q
-     * @return The point of the given set of points that is the closest to
-     * the point Q and meets the angle constraint for P, Q and R (or null,
-     * if there's none)
-     */
-    private Point getNext(Set<Point> points, Point P, Point Q) {
-        // Initialize the closest point (to Q) and its length with null and -1
-        Point bestPoint = null;
-        double bestDistance = -1;
-
-        // Iterate through all possible points
-        for (Point point : points) {
-            // For the current point P, get its distance to Q
-            // and if the angle constraint is met for P, Q and R
-            double curDistance = Q.distance(point);
-            boolean valid = Utils.turningAngleIsValid(P, Q, point);
-
-            // Update the best point and its length if the angle constraint is met (valid)
-            // and the best point still null or the current distance from P to Q is smaller
-            // than from the bestPoint to Q.
-            if (valid && (bestDistance == -1 || curDistance < bestDistance)) {
-                bestPoint = point;
-                bestDistance = curDistance;
+        /**
+         * Methode returning the nearest of the nearest points of a given point,
+         * that is unused and meets the angle constraint.
+         *
+         * @param prev The point before the given point
+         * @param last The given point
+         * @return The point's index (-1 if none of the nearest points is suitable)
+         */
+        private int nearestCandidate(int prev, int last) {
+            for (int j = 0; j < this.neighbors.getK(); j++) {
+                int next = this.neighbors.get(last, j);
+                if (!this.used[next] && this.instance.isValid(prev, last, next)) return next;
             }
-        }
 
-        // Return the best point found (might be null)
-        return bestPoint;
+            return -1;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,252 @@
+package de.flo.wenigerKrummeTouren.algorithms.localSearch;
+
+import de.flo.wenigerKrummeTouren.util.Instance;
+
+/**
+ * Class improving a given route by local search. It repeatedly applies the following moves,
+ * as long as they make the route shorter and the turning angle constraint stays met:
+ * - 2-opt: reversing a subroute
+ * - Or-opt: moving a subroute of one to three points to another position (possibly reversed)
+ * The search stops at a local optimum or as soon as the current thread is interrupted.
+ * Note that an instance of this class is not thread-safe, every thread needs its own one.
+ */
+public class LocalSearch {
+
+    /**
+     * The maximal size of subroutes moved by Or-opt
+     */
+    private static final int MAX_SEGMENT = 3;
+
+    /**
+     * Minimal improvement of a move, such that rounding errors don't cause endless loops
+     */
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * The instance containing the points, their distances and turning angle constraints
+     */
+    private final Instance instance;
+
+    /**
+     * Array used to build candidate routes without allocating
+     */
+    private final int[] scratch;
+
+    /**
+     * Public constructor taking in the instance.
+     *
+     * @param instance The instance
+     */
+    public LocalSearch(Instance instance) {
+        this.instance = instance;
+        this.scratch = new int[instance.getSize()];
+    }
+
+    /**
+     * Public method improving a given route that meets the turning angle constraint.
+     *
+     * @param route The route given by the points' indexes (won't be changed)
+     * @return The improved route (meeting the turning angle constraint)
+     */
+    public int[] improve(int[] route) {
+        int[] current = route.clone();
+        boolean improved = true;
+
+        // Apply moves until none of them improves the route (or the thread is interrupted)
+        while (improved && !Thread.currentThread().isInterrupted()) {
+            improved = twoOpt(current) || orOpt(current);
+        }
+
+        return current;
+    }
+
+    /**
+     * Private methode trying to find a 2-opt move improving the route and applying it.
+     * Reversing the subroute from i to j replaces the edges (i-1, i) and (j, j+1)
+     * with the edges (i-1, j) and (i, j+1).
+     *
+     * @param route The route (will be changed)
+     * @return If an improving move was applied
+     */
+    private boolean twoOpt(int[] route) {
+        int n = route.length;
+
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                // Compute the change of the route's length
+                double delta = 0D;
+
+                if (i > 0) delta += dist(route[i - 1], route[j]) - dist(route[i - 1], route[i]);
+                if (j < n - 1) delta += dist(route[i], route[j + 1]) - dist(route[j], route[j + 1]);
+
+                if (delta > -EPSILON) continue;
+
+                // Build the new route and check the turning angle constraint at the changed positions
+                System.arraycopy(route, 0, this.scratch, 0, n);
+                reverse(this.scratch, i, j);
+
+                if (anglesAreValid(this.scratch, i - 1, i) && anglesAreValid(this.scratch, j, j + 1)) {
+                    System.arraycopy(this.scratch, 0, route, 0, n);
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Private methode trying to find an Or-opt move improving the route and applying it.
+     * The subroute from i to i+len-1 is removed and inserted between the points at the
+     * positions k-1 and k, either as it is or reversed.
+     *
+     * @param route The route (will be changed)
+     * @return If an improving move was applied
+     */
+    private boolean orOpt(int[] route) {
+        int n = route.length;
+
+        for (int len = 1; len <= MAX_SEGMENT && len < n; len++) {
+            for (int i = 0; i + len <= n; i++) {
+                int first = route[i], last = route[i + len - 1];
+
+                // Change of the length when removing the subroute
+                double removeDelta = 0D;
+                if (i > 0) removeDelta -= dist(route[i - 1], first);
+                if (i + len < n) removeDelta -= dist(last, route[i + len]);
+                if (i > 0 && i + len < n) removeDelta += dist(route[i - 1], route[i + len]);
+
+                // Try all positions k (in the route before removing), e.i. between route[k-1] and route[k]
+                for (int k = 0; k <= n; k++) {
+                    if (k >= i && k <= i + len) continue;
+
+                    int before = k > 0 ? route[k - 1] : -1;
+                    int after = k < n ? route[k] : -1;
+
+                    for (int reversed = 0; reversed <= 1; reversed++) {
+                        int head = reversed == 0 ? first : last;
+                        int tail = reversed == 0 ? last : first;
+
+                        // Change of the length when inserting the subroute
+                        double insertDelta = 0D;
+                        if (before != -1) insertDelta += dist(before, head);
+                        if (after != -1) insertDelta += dist(tail, after);
+                        if (before != -1 && after != -1) insertDelta -= dist(before, after);
+
+                        if (removeDelta + insertDelta > -EPSILON) continue;
+
+                        // Build the new route and check the turning angle constraint around the
+                        // inserted subroute and around the gap it left (which moves if k < i)
+                        int position = move(route, this.scratch, i, len, k, reversed == 1);
+                        int gap = k > i ? i - 1 : i - 1 + len;
+
+                        if (anglesAreValid(this.scratch, position - 1, position + len)
+                                && anglesAreValid(this.scratch, gap, gap + 1)) {
+                            System.arraycopy(this.scratch, 0, route, 0, n);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Private static function writing the route with the subroute from i to i+len-1 moved in front
+     * of the position k (possibly reversed) into a target array.
+     *
+     * @param route    The route
+     * @param target   The target array
+     * @param i        The subroute's first position
+     * @param len      The subroute's size
+     * @param k        The position the subroute is moved in front of (not in [i; i+len])
+     * @param reversed If the subroute is reversed
+     * @return The position of the subroute's first point in the new route
+     */
+    private static int move(int[] route, int[] target, int i, int len, int k, boolean reversed) {
+        int index = 0;
+        int position = -1;
+
+        for (int p = 0; p <= route.length; p++) {
+            // Insert the subroute in front of position k
+            if (p == k) {
+                position = index;
+                for (int s = 0; s < len; s++) {
+                    target[index++] = route[reversed ? i + len - 1 - s : i + s];
+                }
+            }
+
+            if (p == route.length) break;
+            if (p >= i && p < i + len) continue;
+
+            target[index++] = route[p];
+        }
+
+        return position;
+    }
+
+    /**
+     * Private methode checking the turning angle constraint at all positions from
+     * a-1 to b+1 of a route, e.i. for all triples having their middle point in that range.
+     * Positions outside the route are ignored.
+     *
+     * @param route The route
+     * @param a     The first changed position
+     * @param b     The last changed position
+     * @return If the turning angle constraint is met at those positions
+     */
+    private boolean anglesAreValid(int[] route, int a, int b) {
+        int from = Math.max(1, a - 1);
+        int to = Math.min(route.length - 2, b + 1);
+
+        for (int q = from; q <= to; q++) {
+            if (!this.instance.isValid(route[q - 1], route[q], route[q + 1])) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Private methode returning the distance between two points given by their indexes.
+     *
+     * @param i The first point's index
+     * @param j The second point's index
+     * @return The distance
+     */
+    private double dist(int i, int j) {
+        return this.instance.distance(i, j);
+    }
+
+    /**
+     * Private static function reversing the elements of an array from i to j.
+     *
+     * @param array The array
+     * @param i     The first index
+     * @param j     The last index
+     */
+    private static void reverse(int[] array, int i, int j) {
+        while (i < j) {
+            int tmp = array[i];
+            array[i++] = array[j];
+            array[j--] = tmp;
+        }
+    }
+
+    /**
+     * Public static function checking if a route given by the points' indexes meets
+     * the turning angle constraint.
+     *
+     * @param instance The instance
+     * @param route    The route
+     * @return If the turning angle constraint is met
+     */
+    public static boolean anglesAreValid(Instance instance, int[] route) {
+        for (int q = 1; q < route.length - 1; q++) {
+            if (!instance.isValid(route[q - 1], route[q], route[q + 1])) return false;
+        }
+
+        return true;
+    }
+}
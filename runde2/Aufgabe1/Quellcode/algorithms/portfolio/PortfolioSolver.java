@@ -0,0 +1,313 @@
+package de.flo.wenigerKrummeTouren.algorithms.portfolio;
+
+import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.algorithms.exact.ExactSolver5;
+import de.flo.wenigerKrummeTouren.algorithms.greedy.GreedySolver3;
+import de.flo.wenigerKrummeTouren.algorithms.localSearch.LocalSearch;
+import de.flo.wenigerKrummeTouren.metrics.SearchMetrics;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+import de.flo.wenigerKrummeTouren.util.Point;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the abstract class Solver.
+ * This class runs a portfolio of solvers concurrently on the same instance, all sharing the best
+ * route found so far (Incumbent):
+ * - a fast greedy solver (GreedySolver3) providing a first route,
+ * - a local search improving every new best route,
+ * - an exact solver (ExactSolver5) using the best route as bound.
+ * The portfolio stops as soon as the exact solver has proven optimality or the time budget runs out
+ * (without a budget, the exact solver is still stopped after an hour, see PortfolioStatistics.getExactLimit).
+ * Without the exact solver, it stops as soon as the local search cannot improve the best route anymore.
+ * The timings of every run are recorded, such that the runtime of the exact solver can be predicted and it's
+ * only started if it's likely to finish in time (see PortfolioStatistics) or if it can resume from a checkpoint
+ * written by an earlier run that was stopped.
+ * Optionally, the coordinates are used as integers if possible, such that the local search and the exact solver
+ * decide the turning angle constraints exactly (see IntegerCoordinates for which coordinates qualify).
+ */
+public class PortfolioSolver extends Solver {
+
+    /**
+     * The time in ms the local search waits before checking for a new best route again
+     */
+    private static final long POLL_INTERVAL = 20L;
+
+    /**
+     * The time between two checkpoints of the exact solver in ms
+     */
+    private static final long CHECKPOINT_INTERVAL = 60_000L;
+
+    /**
+     * The time budget in ms (0 for no limit)
+     */
+    private final long budgetMillis;
+
+    /**
+     * The file used for checkpoints of the exact solver (null if no checkpoints should be written)
+     */
+    private final File checkpointFile;
+
+    /**
+     * The CSV file containing the timings of former runs (null if no timings should be used or recorded)
+     */
+    private final File timingsFile;
+
+    /**
+     * The metrics the exact solver's search is counted into (null if it should not be counted)
+     */
+    private final SearchMetrics metrics;
+
+    /**
+     * If the coordinates should be used as integers if possible
+     */
+    private final boolean useIntegers;
+
+    /**
+     * If the coordinates were used as integers in the last run
+     */
+    private volatile boolean integral = false;
+
+    /**
+     * If the optimality of the last result was proven by the exact solver
+     */
+    private volatile boolean proven = false;
+
+    /**
+     * The time in ms the greedy solver needed in the last run (-1 if it didn't finish)
+     */
+    private volatile long greedyMillis = -1;
+
+    /**
+     * The time in ms after which the local search improved the route for the last time in the last run (-1 if never)
+     */
+    private volatile long localSearchMillis = -1;
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, the time budget and the files
+     * used for checkpoints and timings.
+     *
+     * @param points         The points the route is created for
+     * @param budgetMillis   The time budget in ms (0 for no limit)
+     * @param checkpointFile The file used for checkpoints of the exact solver (might be null)
+     * @param timingsFile    The CSV file containing the timings of former runs (might be null)
+     */
+    public PortfolioSolver(Point[] points, long budgetMillis, File checkpointFile, File timingsFile) {
+        this(points, budgetMillis, checkpointFile, timingsFile, null);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, the time budget, the files
+     * used for checkpoints and timings and the metrics the exact solver's search is counted into.
+     *
+     * @param points         The points the route is created for
+     * @param budgetMillis   The time budget in ms (0 for no limit)
+     * @param checkpointFile The file used for checkpoints of the exact solver (might be null)
+     * @param timingsFile    The CSV file containing the timings of former runs (might be null)
+     * @param metrics        The metrics (null if the search should not be counted)
+     */
+    public PortfolioSolver(Point[] points, long budgetMillis, File checkpointFile, File timingsFile, SearchMetrics metrics) {
+        this(points, budgetMillis, checkpointFile, timingsFile, metrics, false);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, the time budget, the files
+     * used for checkpoints and timings, the metrics the exact solver's search is counted into
+     * and if the coordinates should be used as integers if possible.
+     *
+     * @param points         The points the route is created for
+     * @param budgetMillis   The time budget in ms (0 for no limit)
+     * @param checkpointFile The file used for checkpoints of the exact solver (might be null)
+     * @param timingsFile    The CSV file containing the timings of former runs (might be null)
+     * @param metrics        The metrics (null if the search should not be counted)
+     * @param useIntegers    If the coordinates should be used as integers if possible
+     */
+    public PortfolioSolver(Point[] points, long budgetMillis, File checkpointFile, File timingsFile, SearchMetrics metrics,
+                           boolean useIntegers) {
+        super(points);
+        this.budgetMillis = budgetMillis;
+        this.checkpointFile = checkpointFile;
+        this.timingsFile = timingsFile;
+        this.metrics = metrics;
+        this.useIntegers = useIntegers;
+    }
+
+    /**
+     * Implementation of the solve-methode solving the problem by running
+     * the portfolio of solvers as described above.
+     *
+     * @return The best route found (might be null if none could be found)
+     */
+    @Override
+    public Point[] solve() {
+        // With no points, the empty route is the best one
+        if (this.getSize() == 0) return new Point[0];
+
+        long start = System.currentTimeMillis();
+        Instance instance = new Instance(this.getPoints(), this.useIntegers);
+        Incumbent incumbent = new Incumbent();
+        this.integral = instance.isIntegral();
+
+        // Decide if the exact solver should be started using the timings of former runs. If an earlier run was
+        // stopped and left a checkpoint for these points, it's always started, such that the search is resumed.
+        boolean useExact = ExactSolver5.canResume(this.checkpointFile, instance)
+                || PortfolioStatistics.read(this.timingsFile).useExactSolver(this.getSize(), this.budgetMillis);
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        // Signal for stopping the portfolio before the time budget runs out
+        CountDownLatch done = new CountDownLatch(1);
+
+        this.proven = false;
+        this.greedyMillis = -1;
+        this.localSearchMillis = -1;
+
+        ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "portfolio");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // The greedy solver provides the first route
+        Future<?> greedy = executor.submit(() -> {
+            Point[] route = new GreedySolver3(this.getPoints()).solve();
+
+            if (route != null) {
+                int[] indexes = toIndexes(route);
+                incumbent.offer(indexes, instance.length(indexes));
+            }
+
+            this.greedyMillis = System.currentTimeMillis() - start;
+        });
+
+        // The local search improves every new best route
+        executor.execute(() -> {
+            LocalSearch localSearch = new LocalSearch(instance);
+            int[] last = null;
+
+            while (!Thread.currentThread().isInterrupted()) {
+                int[] route = incumbent.getRoute();
+
+                if (route != null && !Arrays.equals(route, last)) {
+                    int[] improved = localSearch.improve(route);
+
+                    if (incumbent.offer(improved, instance.length(improved))) {
+                        this.localSearchMillis = System.currentTimeMillis() - start;
+                    }
+
+                    last = improved;
+                    continue;
+                }
+
+                // Without the exact solver, the portfolio is done as soon as the
+                // greedy solver is done and the local search can't improve the route
+                if (!useExact && greedy.isDone() && (route == null || Arrays.equals(route, last))) {
+                    done.countDown();
+                    return;
+                }
+
+                try {
+                    Thread.sleep(POLL_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        // The exact solver uses the best route as bound and proves optimality
+        Future<?> exact = null;
+
+        if (useExact) {
+            int threads = Math.max(1, processors - 2);
+            ExactSolver5 solver = new ExactSolver5(this.getPoints(), threads, this.checkpointFile, CHECKPOINT_INTERVAL, this.metrics);
+
+            exact = executor.submit(() -> {
+                if (solver.search(instance, incumbent)) {
+                    this.proven = true;
+                    done.countDown();
+                }
+            });
+        }
+
+        // Wait until the portfolio is done or the time budget runs out, then stop all solvers.
+        // Without a budget, the exact solver is still stopped after PortfolioStatistics.getExactLimit(0) ms.
+        try {
+            if (this.budgetMillis > 0 || useExact) {
+                done.await(PortfolioStatistics.getExactLimit(this.budgetMillis), TimeUnit.MILLISECONDS);
+            } else {
+                done.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        executor.shutdownNow();
+
+        // Wait for the exact solver to stop, such that its last checkpoint is written
+        if (exact != null) {
+            try {
+                exact.get();
+            } catch (Exception ignored) {
+                // The exact solver was interrupted
+            }
+        }
+
+        // Record the timings of this run
+        long total = System.currentTimeMillis() - start;
+
+        if (this.timingsFile != null) {
+            PortfolioStatistics.append(this.timingsFile, new PortfolioStatistics.Record(this.getSize(), instance.fingerprint(),
+                    this.budgetMillis, useExact, this.proven, total, this.greedyMillis, this.localSearchMillis,
+                    incumbent.hasRoute() ? incumbent.getLength() : -1));
+        }
+
+        return instance.toPoints(incumbent.getRoute());
+    }
+
+    /**
+     * Public method returning if the optimality of the last result was proven by the exact solver.
+     *
+     * @return If the last result is optimal
+     */
+    public boolean isProven() {
+        return this.proven;
+    }
+
+    /**
+     * Public method returning if the coordinates were used as integers in the last run, e.i. if the
+     * turning angle constraints were decided exactly.
+     *
+     * @return If the coordinates were used as integers
+     */
+    public boolean isIntegral() {
+        return this.integral;
+    }
+
+    /**
+     * Private methode converting a route given as an array of points (from this solver's points)
+     * into the points' indexes.
+     *
+     * @param route The route given as an array of points
+     * @return The route given by the points' indexes
+     */
+    private int[] toIndexes(Point[] route) {
+        Map<Point, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < this.getSize(); i++) indexes.put(this.getPoint(i), i);
+
+        int[] result = new int[route.length];
+        for (int i = 0; i < route.length; i++) result[i] = indexes.get(route[i]);
+
+        return result;
+    }
+}
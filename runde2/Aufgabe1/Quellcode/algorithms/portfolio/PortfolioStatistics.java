@@ -0,0 +1,298 @@
+package de.flo.wenigerKrummeTouren.algorithms.portfolio;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class containing the timings of former runs of the PortfolioSolver (one record per instance),
+ * stored in a CSV file. Those timings are used to predict how long the exact solver needs for a
+ * given amount of points, such that the portfolio only starts it if it's likely to finish in time.
+ */
+public class PortfolioStatistics {
+
+    /**
+     * The header of the CSV file
+     */
+    private static final String HEADER = "size,fingerprint,budgetMillis,exactUsed,proven,totalMillis,greedyMillis,localSearchMillis,length";
+
+    /**
+     * The largest amount of points the exact solver is started for if there are no timings to predict its runtime
+     */
+    private static final int DEFAULT_EXACT_SIZE = 25;
+
+    /**
+     * The time limit of the exact solver if the portfolio has no time budget (one hour)
+     */
+    private static final long DEFAULT_LIMIT = 60L * 60L * 1000L;
+
+    /**
+     * The records of former runs
+     */
+    private final List<Record> records;
+
+    /**
+     * Private constructor taking in the records of former runs.
+     *
+     * @param records The records
+     */
+    private PortfolioStatistics(List<Record> records) {
+        this.records = records;
+    }
+
+    /**
+     * Public static function reading the statistics from a CSV file.
+     * If the file does not exist or cannot be read, the statistics are empty.
+     * Lines that cannot be parsed are ignored.
+     *
+     * @param file The CSV file (might be null)
+     * @return The statistics
+     */
+    public static PortfolioStatistics read(File file) {
+        List<Record> records = new ArrayList<>();
+        if (file == null || !file.isFile()) return new PortfolioStatistics(records);
+
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                if (line.equals(HEADER)) continue;
+
+                try {
+                    records.add(Record.parse(line));
+                } catch (RuntimeException ignored) {
+                    // Not a valid record
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error occurred - Could not read timings \"" + file + "\"!");
+        }
+
+        return new PortfolioStatistics(records);
+    }
+
+    /**
+     * Public static function appending a record to a CSV file (writing the header if the file is new).
+     *
+     * @param file   The CSV file
+     * @param record The record
+     */
+    public static void append(File file, Record record) {
+        boolean newFile = !file.isFile();
+
+        try (PrintWriter out = new PrintWriter(new FileWriter(file, true))) {
+            if (newFile) out.println(HEADER);
+            out.println(record);
+        } catch (IOException e) {
+            System.out.println("Error occurred - Could not write timings \"" + file + "\"!");
+        }
+    }
+
+    /**
+     * Public static function returning the time limit in ms of the exact solver for a given time budget.
+     *
+     * @param budgetMillis The time budget in ms (0 for no limit)
+     * @return The time budget, or DEFAULT_LIMIT if there is no limit
+     */
+    public static long getExactLimit(long budgetMillis) {
+        return budgetMillis > 0 ? budgetMillis : DEFAULT_LIMIT;
+    }
+
+    /**
+     * Public method predicting the time in ms the exact solver needs to prove optimality for a given
+     * amount of points. Since the search tree grows exponentially, a line is fitted through the
+     * logarithms of the runtimes of all runs in which optimality was proven.
+     * Runs in which the exact solver was stopped before proving optimality are lower bounds: the exact
+     * solver needs more time than they took for their amount of points and (since the runtime can't
+     * shrink with more points) for every bigger amount, so the prediction is at least that time.
+     *
+     * @param size The amount of points
+     * @return The predicted time in ms, or -1 if there are not enough records
+     */
+    public double predictExactMillis(int size) {
+        double lowerBound = lowerBoundMillis(size);
+        double fitted = fitExactMillis(size);
+
+        return Math.max(fitted, lowerBound);
+    }
+
+    /**
+     * Private method returning the longest run in which the exact solver was stopped before proving
+     * optimality for at most the given amount of points.
+     *
+     * @param size The amount of points
+     * @return The run's time in ms, or -1 if there is no such run
+     */
+    private double lowerBoundMillis(int size) {
+        double lowerBound = -1;
+
+        for (Record record : this.records) {
+            if (record.exactUsed && !record.proven && record.size <= size) lowerBound = Math.max(lowerBound, record.totalMillis);
+        }
+
+        return lowerBound;
+    }
+
+    /**
+     * Private method fitting a line through the logarithms of the runtimes of all
+     * runs in which optimality was proven (see predictExactMillis).
+     *
+     * @param size The amount of points
+     * @return The fitted time in ms, or -1 if there are not enough records
+     */
+    private double fitExactMillis(int size) {
+        // Collect the proven runs as points (size, log(time))
+        List<double[]> samples = new ArrayList<>();
+
+        for (Record record : this.records) {
+            if (record.proven) samples.add(new double[]{record.size, Math.log(Math.max(1, record.totalMillis))});
+        }
+
+        if (samples.isEmpty()) return -1;
+
+        // Fit a line using least squares
+        double meanX = 0D, meanY = 0D;
+        for (double[] sample : samples) {
+            meanX += sample[0] / samples.size();
+            meanY += sample[1] / samples.size();
+        }
+
+        double covariance = 0D, variance = 0D;
+        for (double[] sample : samples) {
+            covariance += (sample[0] - meanX) * (sample[1] - meanY);
+            variance += (sample[0] - meanX) * (sample[0] - meanX);
+        }
+
+        // If all runs had the same size, only predict for that size
+        if (variance == 0D) return size == (int) meanX ? Math.exp(meanY) : -1;
+
+        // The runtime can't shrink with more points
+        double slope = Math.max(0D, covariance / variance);
+        return Math.exp(meanY + slope * (size - meanX));
+    }
+
+    /**
+     * Public method deciding if the exact solver should be part of the portfolio for a given
+     * amount of points and time budget, e.i. if it's likely to prove optimality in time.
+     * Without any timings, it's only started for at most DEFAULT_EXACT_SIZE points.
+     * Either way, the exact solver is stopped after getExactLimit(budgetMillis) ms.
+     * Note that after a run was stopped at that limit, this returns false for its amount of points (and
+     * more), so runs continuing from that run's checkpoint have to start the exact solver regardless
+     * (see PortfolioSolver).
+     *
+     * @param size         The amount of points
+     * @param budgetMillis The time budget in ms (0 for no limit)
+     * @return If the exact solver should be started
+     */
+    public boolean useExactSolver(int size, long budgetMillis) {
+        double predicted = predictExactMillis(size);
+        if (predicted < 0) return size <= DEFAULT_EXACT_SIZE;
+
+        return predicted < getExactLimit(budgetMillis);
+    }
+
+    /**
+     * Class representing the timings of one run of the PortfolioSolver.
+     */
+    public static class Record {
+
+        /**
+         * The amount of points
+         */
+        private final int size;
+
+        /**
+         * The instance's fingerprint
+         */
+        private final long fingerprint;
+
+        /**
+         * The time budget in ms (0 for no limit)
+         */
+        private final long budgetMillis;
+
+        /**
+         * If the exact solver was started
+         */
+        private final boolean exactUsed;
+
+        /**
+         * If the exact solver proved the optimality of the result
+         */
+        private final boolean proven;
+
+        /**
+         * The total time in ms
+         */
+        private final long totalMillis;
+
+        /**
+         * The time in ms the greedy solver needed (-1 if it didn't finish)
+         */
+        private final long greedyMillis;
+
+        /**
+         * The time in ms after which the local search improved the route for the last time (-1 if never)
+         */
+        private final long localSearchMillis;
+
+        /**
+         * The resulting route's length (-1 if no route was found)
+         */
+        private final double length;
+
+        /**
+         * Public constructor taking in all timings of the run.
+         *
+         * @param size              The amount of points
+         * @param fingerprint       The instance's fingerprint
+         * @param budgetMillis      The time budget in ms (0 for no limit)
+         * @param exactUsed         If the exact solver was started
+         * @param proven            If the exact solver proved the optimality of the result
+         * @param totalMillis       The total time in ms
+         * @param greedyMillis      The time in ms the greedy solver needed (-1 if it didn't finish)
+         * @param localSearchMillis The time in ms of the last improvement by the local search (-1 if never)
+         * @param length            The resulting route's length (-1 if no route was found)
+         */
+        public Record(int size, long fingerprint, long budgetMillis, boolean exactUsed, boolean proven,
+                      long totalMillis, long greedyMillis, long localSearchMillis, double length) {
+            this.size = size;
+            this.fingerprint = fingerprint;
+            this.budgetMillis = budgetMillis;
+            this.exactUsed = exactUsed;
+            this.proven = proven;
+            this.totalMillis = totalMillis;
+            this.greedyMillis = greedyMillis;
+            this.localSearchMillis = localSearchMillis;
+            this.length = length;
+        }
+
+        /**
+         * Private static function parsing a record from a line of the CSV file.
+         *
+         * @param line The line
+         * @return The record
+         * @throws RuntimeException If the line is not a valid record
+         */
+        private static Record parse(String line) {
+            String[] values = line.split(",");
+
+            return new Record(Integer.parseInt(values[0]), Long.parseLong(values[1]), Long.parseLong(values[2]),
+                    Boolean.parseBoolean(values[3]), Boolean.parseBoolean(values[4]), Long.parseLong(values[5]),
+                    Long.parseLong(values[6]), Long.parseLong(values[7]), Double.parseDouble(values[8]));
+        }
+
+        /**
+         * Implementation of the toString-methode returning the record as a line of the CSV file.
+         *
+         * @return The record as a line of the CSV file
+         */
+        @Override
+        public String toString() {
+            return this.size + "," + this.fingerprint + "," + this.budgetMillis + "," + this.exactUsed + "," + this.proven + ","
+                    + this.totalMillis + "," + this.greedyMillis + "," + this.localSearchMillis + "," + this.length;
+        }
+    }
+}
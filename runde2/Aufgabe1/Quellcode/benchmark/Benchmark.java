@@ -0,0 +1,82 @@
+package de.flo.wenigerKrummeTouren.benchmark;
+
+import java.util.function.Supplier;
+
+/**
+ * Class representing one benchmark: a name, a setup creating the workload (not measured)
+ * and the amount of operations one invocation of the workload performs.
+ */
+public class Benchmark {
+
+    /**
+     * The benchmark's unique name
+     */
+    private final String name;
+
+    /**
+     * The setup creating the workload
+     */
+    private final Supplier<Workload> setup;
+
+    /**
+     * The amount of operations one invocation of the workload performs
+     */
+    private final int operations;
+
+    /**
+     * Public constructor taking in the name, the setup and the amount of operations per invocation.
+     *
+     * @param name       The benchmark's unique name
+     * @param setup      The setup creating the workload
+     * @param operations The amount of operations one invocation performs (at least 1)
+     * @throws IllegalArgumentException If the amount of operations is less than 1
+     */
+    public Benchmark(String name, Supplier<Workload> setup, int operations) {
+        if (operations < 1) throw new IllegalArgumentException();
+
+        this.name = name;
+        this.setup = setup;
+        this.operations = operations;
+    }
+
+    /**
+     * Getter for the benchmark's name
+     *
+     * @return The name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Getter for the setup creating the workload
+     *
+     * @return The setup
+     */
+    public Supplier<Workload> getSetup() {
+        return this.setup;
+    }
+
+    /**
+     * Getter for the amount of operations one invocation of the workload performs
+     *
+     * @return The amount of operations
+     */
+    public int getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * Interface for the code measured by a benchmark.
+     */
+    @FunctionalInterface
+    public interface Workload {
+
+        /**
+         * Method running the measured code once, passing all results to the blackhole.
+         *
+         * @param blackhole The blackhole
+         */
+        void run(Blackhole blackhole);
+    }
+}
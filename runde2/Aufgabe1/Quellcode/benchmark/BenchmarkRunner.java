@@ -0,0 +1,240 @@
+package de.flo.wenigerKrummeTouren.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class running benchmarks: Every benchmark is run in its own JVMs (forks), such that the
+ * JIT compiler's profile of one benchmark can't influence another one. In every fork, the
+ * workload is run for some warmup iterations first (not measured) and then for the measured
+ * iterations, each taking a fixed time. For each measured iteration, the throughput and the
+ * bytes allocated by the measuring thread are recorded.
+ * Note that the allocation of threads started by the workload (e.g. by parallel solvers) is not counted.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * The amount of warmup iterations per fork
+     */
+    private final int warmupIterations;
+
+    /**
+     * The amount of measured iterations per fork
+     */
+    private final int iterations;
+
+    /**
+     * The time of one iteration in ms
+     */
+    private final long iterationMillis;
+
+    /**
+     * The amount of forks (0 for running the benchmarks in this JVM)
+     */
+    private final int forks;
+
+    /**
+     * Public constructor taking in the settings of the runner.
+     *
+     * @param warmupIterations The amount of warmup iterations per fork
+     * @param iterations       The amount of measured iterations per fork (at least 1)
+     * @param iterationMillis  The time of one iteration in ms
+     * @param forks            The amount of forks (0 for running the benchmarks in this JVM)
+     * @throws IllegalArgumentException If the amount of iterations is less than 1 or any value is negative
+     */
+    public BenchmarkRunner(int warmupIterations, int iterations, long iterationMillis, int forks) {
+        if (warmupIterations < 0 || iterations < 1 || iterationMillis < 0 || forks < 0) throw new IllegalArgumentException();
+
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        this.iterationMillis = iterationMillis;
+        this.forks = forks;
+    }
+
+    /**
+     * Public method running a benchmark, either in this JVM or in forked JVMs
+     * (starting the given main class with the arguments created by forkArguments and the given ones).
+     *
+     * @param benchmark The benchmark
+     * @param mainClass The main class running a single benchmark in a fork
+     * @param arguments Further arguments passed to the main class of a fork
+     * @return The result (null if a fork failed)
+     */
+    public BenchmarkResult run(Benchmark benchmark, Class<?> mainClass, List<String> arguments) {
+        if (this.forks == 0) return runHere(benchmark);
+
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        for (int fork = 0; fork < this.forks; fork++) {
+            BenchmarkResult result = runForked(benchmark, mainClass, arguments);
+            if (result == null) return null;
+            results.add(result);
+        }
+
+        return BenchmarkResult.combine(results);
+    }
+
+    /**
+     * Public method running a benchmark in this JVM.
+     *
+     * @param benchmark The benchmark
+     * @return The result
+     */
+    public BenchmarkResult runHere(Benchmark benchmark) {
+        Benchmark.Workload workload = benchmark.getSetup().get();
+        Blackhole blackhole = new Blackhole();
+
+        for (int i = 0; i < this.warmupIterations; i++) {
+            runIteration(benchmark, workload, blackhole, null);
+        }
+
+        double[] throughputs = new double[this.iterations];
+        long[] allocation = new long[2];
+        double bytes = 0D;
+        long operations = 0L;
+
+        for (int i = 0; i < this.iterations; i++) {
+            throughputs[i] = runIteration(benchmark, workload, blackhole, allocation);
+            bytes += allocation[0];
+            operations += allocation[1];
+        }
+
+        double mean = 0D;
+        for (double throughput : throughputs) mean += throughput / this.iterations;
+
+        double variance = 0D;
+        for (double throughput : throughputs) variance += (throughput - mean) * (throughput - mean) / this.iterations;
+
+        return new BenchmarkResult(benchmark.getName(), this.iterations, mean, Math.sqrt(variance),
+                bytes < 0 ? -1 : bytes / operations);
+    }
+
+    /**
+     * Public method returning the arguments passed to the main class of a fork
+     * (see Benchmarks for their meaning).
+     *
+     * @param benchmark The benchmark run by the fork
+     * @return The arguments
+     */
+    public List<String> forkArguments(Benchmark benchmark) {
+        List<String> arguments = new ArrayList<>();
+
+        arguments.add("--run");
+        arguments.add(benchmark.getName());
+        arguments.add("--warmup");
+        arguments.add(String.valueOf(this.warmupIterations));
+        arguments.add("--iterations");
+        arguments.add(String.valueOf(this.iterations));
+        arguments.add("--time");
+        arguments.add(String.valueOf(this.iterationMillis));
+
+        return arguments;
+    }
+
+    /**
+     * Private methode running a benchmark in a new JVM using the same classpath
+     * and reading its result from the JVM's output.
+     *
+     * @param benchmark The benchmark
+     * @param mainClass The main class running a single benchmark
+     * @param arguments Further arguments passed to the main class
+     * @return The result (null if the fork failed)
+     */
+    private BenchmarkResult runForked(Benchmark benchmark, Class<?> mainClass, List<String> arguments) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.addAll(forkArguments(benchmark));
+        command.addAll(arguments);
+
+        BenchmarkResult result = null;
+
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("{")) {
+                        result = BenchmarkResult.parse(line);
+                    } else {
+                        System.out.println(line);
+                    }
+                }
+            }
+
+            if (process.waitFor() != 0) result = null;
+        } catch (IOException | IllegalArgumentException e) {
+            result = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = null;
+        }
+
+        if (result == null) System.out.println("Error occurred - Fork of benchmark \"" + benchmark.getName() + "\" failed!");
+        return result;
+    }
+
+    /**
+     * Private methode running the workload repeatedly for one iteration (at least once).
+     *
+     * @param benchmark  The benchmark
+     * @param workload   The workload
+     * @param blackhole  The blackhole
+     * @param allocation Array the bytes allocated (-1 if not supported) and the operations
+     *                   are written to (might be null)
+     * @return The throughput in operations per second
+     */
+    private double runIteration(Benchmark benchmark, Benchmark.Workload workload, Blackhole blackhole, long[] allocation) {
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long deadline = start + this.iterationMillis * 1_000_000L;
+        long invocations = 0L;
+        long now;
+
+        do {
+            workload.run(blackhole);
+            invocations++;
+            now = System.nanoTime();
+        } while (now < deadline);
+
+        long bytesAfter = allocatedBytes();
+        blackhole.publish();
+
+        long operations = invocations * benchmark.getOperations();
+
+        if (allocation != null) {
+            allocation[0] = bytesBefore < 0 ? -1 : bytesAfter - bytesBefore;
+            allocation[1] = operations;
+        }
+
+        return operations * 1e9 / Math.max(1L, now - start);
+    }
+
+    /**
+     * Private static function returning the bytes allocated by the current thread so far.
+     *
+     * @return The bytes allocated (-1 if not supported by the JVM)
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return -1;
+    }
+}
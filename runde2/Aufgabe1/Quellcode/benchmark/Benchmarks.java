@@ -0,0 +1,382 @@
+package de.flo.wenigerKrummeTouren.benchmark;
+
+import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.algorithms.exact.ExactSolver1;
+import de.flo.wenigerKrummeTouren.algorithms.exact.ExactSolver2;
+import de.flo.wenigerKrummeTouren.algorithms.exact.ExactSolver3;
+import de.flo.wenigerKrummeTouren.algorithms.exact.ExactSolver4;
+import de.flo.wenigerKrummeTouren.algorithms.exact.ExactSolver5;
+import de.flo.wenigerKrummeTouren.algorithms.greedy.GraspSolver;
+import de.flo.wenigerKrummeTouren.algorithms.greedy.GreedySolver1;
+import de.flo.wenigerKrummeTouren.algorithms.greedy.GreedySolver2;
+import de.flo.wenigerKrummeTouren.algorithms.greedy.GreedySolver3;
+import de.flo.wenigerKrummeTouren.algorithms.greedy.GreedySolver4;
+import de.flo.wenigerKrummeTouren.util.IntegerCoordinates;
+import de.flo.wenigerKrummeTouren.util.Point;
+import de.flo.wenigerKrummeTouren.util.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Final class containing all benchmarks of the geometry functions and solvers and the main-function
+ * running them. The results are printed and written to a JSON file (one result per line), which can be
+ * used as baseline for later runs: if a baseline is given, the change of every benchmark's throughput is printed.
+ * <p>
+ * Arguments (all optional):
+ * --filter regex      Only run the benchmarks whose name contains a match of the regex
+ * --forks n           The amount of forks per benchmark (default 1, 0 for no forks)
+ * --warmup n          The amount of warmup iterations per fork (default 5)
+ * --iterations n      The amount of measured iterations per fork (default 5)
+ * --time ms           The time of one iteration in ms (default 1000)
+ * --data dir          The directory containing the examples (default "Ergebnisse")
+ * --output file       The JSON file the results are written to (default "benchmark-results.json")
+ * --baseline file     A JSON file of a former run the results are compared to
+ * --list              Only print the benchmarks' names
+ */
+public final class Benchmarks {
+
+    /**
+     * The amount of points (pairs, triples) used by the benchmarks of the geometry functions
+     */
+    private static final int GEOMETRY_SIZE = 1024;
+
+    /**
+     * The example the instances of the exact solvers are taken from (its first n points)
+     */
+    private static final String EXACT_EXAMPLE = "wenigerkrumm4";
+
+    /**
+     * The sizes of the instances the exact solvers are benchmarked with
+     */
+    private static final Map<String, int[]> EXACT_SIZES = new LinkedHashMap<>();
+
+    static {
+        EXACT_SIZES.put("ExactSolver1", new int[]{6, 8});
+        EXACT_SIZES.put("ExactSolver2", new int[]{6, 8});
+        EXACT_SIZES.put("ExactSolver1/parallel", new int[]{8, 10, 12});
+        EXACT_SIZES.put("ExactSolver2/parallel", new int[]{8, 10, 12});
+        EXACT_SIZES.put("ExactSolver3", new int[]{6, 8});
+        EXACT_SIZES.put("ExactSolver4", new int[]{8, 10, 12});
+        EXACT_SIZES.put("ExactSolver5", new int[]{8, 10, 12});
+    }
+
+    /**
+     * Private constructor, such that no instances of this class can be created
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * The main function running the benchmarks
+     *
+     * @param args Arguments (see above)
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = parseOptions(args);
+        if (options == null) {
+            System.out.println("Error occurred - Invalid arguments " + Arrays.toString(args) + "!");
+            System.exit(1);
+            return;
+        }
+
+        File data = new File(options.getOrDefault("data", "Ergebnisse"));
+        List<Benchmark> benchmarks = createBenchmarks(data);
+
+        BenchmarkRunner runner;
+
+        try {
+            runner = new BenchmarkRunner(Integer.parseInt(options.getOrDefault("warmup", "5")),
+                    Integer.parseInt(options.getOrDefault("iterations", "5")),
+                    Long.parseLong(options.getOrDefault("time", "1000")),
+                    Integer.parseInt(options.getOrDefault("forks", "1")));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error occurred - Invalid arguments " + Arrays.toString(args) + "!");
+            System.exit(1);
+            return;
+        }
+
+        // Run a single benchmark in this JVM (used by the forks)
+        if (options.containsKey("run")) {
+            for (Benchmark benchmark : benchmarks) {
+                if (benchmark.getName().equals(options.get("run"))) {
+                    System.out.println(runner.runHere(benchmark).toJson());
+                    System.exit(0);
+                }
+            }
+
+            System.out.println("Error occurred - Unknown benchmark \"" + options.get("run") + "\"!");
+            System.exit(1);
+        }
+
+        Pattern filter = Pattern.compile(options.getOrDefault("filter", ""));
+        Map<String, BenchmarkResult> baseline = options.containsKey("baseline")
+                ? readResults(new File(options.get("baseline"))) : new HashMap<>();
+
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        for (Benchmark benchmark : benchmarks) {
+            if (!filter.matcher(benchmark.getName()).find()) continue;
+
+            if (options.containsKey("list")) {
+                System.out.println(benchmark.getName());
+                continue;
+            }
+
+            BenchmarkResult result = runner.run(benchmark, Benchmarks.class, Arrays.asList("--data", data.getAbsolutePath()));
+            if (result == null) continue;
+
+            results.add(result);
+            System.out.println(result + compare(result, baseline.get(result.getName())));
+        }
+
+        if (!options.containsKey("list")) writeResults(new File(options.getOrDefault("output", "benchmark-results.json")), results);
+    }
+
+    /**
+     * Public static function creating all benchmarks.
+     *
+     * @param data The directory containing the examples (subdirectories containing a file ending with "Eingabe.txt")
+     * @return The benchmarks
+     */
+    public static List<Benchmark> createBenchmarks(File data) {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        // Geometry functions, using random points
+        benchmarks.add(new Benchmark("Point.distance", () -> {
+            Point[] points = randomPoints(2 * GEOMETRY_SIZE);
+
+            return blackhole -> {
+                for (int i = 0; i < GEOMETRY_SIZE; i++) blackhole.consume(points[2 * i].distance(points[2 * i + 1]));
+            };
+        }, GEOMETRY_SIZE));
+
+        benchmarks.add(new Benchmark("Utils.turningAngleIsValid", () -> {
+            Point[] points = randomPoints(3 * GEOMETRY_SIZE);
+
+            return blackhole -> {
+                for (int i = 0; i < GEOMETRY_SIZE; i++) {
+                    blackhole.consume(Utils.turningAngleIsValid(points[3 * i], points[3 * i + 1], points[3 * i + 2]));
+                }
+            };
+        }, GEOMETRY_SIZE));
+
+        benchmarks.add(new Benchmark("IntegerCoordinates.isValid", () -> {
+            // Round the coordinates to six decimal places like in the examples, such that they are detected as integers
+            Point[] points = randomPoints(3 * GEOMETRY_SIZE);
+            for (int i = 0; i < points.length; i++) {
+                points[i] = new Point(new double[]{Math.rint(points[i].getCoordinate(0) * 1e6) / 1e6,
+                        Math.rint(points[i].getCoordinate(1) * 1e6) / 1e6}, false);
+            }
+
+            IntegerCoordinates integers = IntegerCoordinates.detect(points);
+
+            return blackhole -> {
+                for (int i = 0; i < GEOMETRY_SIZE; i++) blackhole.consume(integers.isValid(3 * i, 3 * i + 1, 3 * i + 2));
+            };
+        }, GEOMETRY_SIZE));
+
+        benchmarks.add(new Benchmark("Utils.length", () -> {
+            Point[] points = randomPoints(GEOMETRY_SIZE);
+            return blackhole -> blackhole.consume(Utils.length(points));
+        }, 1));
+
+        // Exact solvers, using the first points of an example
+        Map<String, Function<Point[], Solver>> exactSolvers = new LinkedHashMap<>();
+        exactSolvers.put("ExactSolver1", ExactSolver1::new);
+        exactSolvers.put("ExactSolver2", ExactSolver2::new);
+        exactSolvers.put("ExactSolver1/parallel", points -> new ExactSolver1(points, Runtime.getRuntime().availableProcessors()));
+        exactSolvers.put("ExactSolver2/parallel", points -> new ExactSolver2(points, Runtime.getRuntime().availableProcessors()));
+        exactSolvers.put("ExactSolver3", ExactSolver3::new);
+        exactSolvers.put("ExactSolver4", ExactSolver4::new);
+        exactSolvers.put("ExactSolver5", ExactSolver5::new);
+
+        File exactExample = findExample(new File(data, EXACT_EXAMPLE));
+
+        for (Map.Entry<String, Function<Point[], Solver>> entry : exactSolvers.entrySet()) {
+            for (int size : EXACT_SIZES.get(entry.getKey())) {
+                benchmarks.add(solverBenchmark(entry.getKey() + "/n=" + size, entry.getValue(), exactExample, size));
+            }
+        }
+
+        // Greedy solvers, using all examples
+        Map<String, Function<Point[], Solver>> greedySolvers = new LinkedHashMap<>();
+        greedySolvers.put("GreedySolver1", GreedySolver1::new);
+        greedySolvers.put("GreedySolver2", GreedySolver2::new);
+        greedySolvers.put("GreedySolver3", GreedySolver3::new);
+        greedySolvers.put("GreedySolver4", points -> new GreedySolver4(points, 2));
+        greedySolvers.put("GraspSolver", GraspSolver::new);
+
+        File[] examples = data.listFiles(File::isDirectory);
+        if (examples == null) examples = new File[0];
+        Arrays.sort(examples);
+
+        for (Map.Entry<String, Function<Point[], Solver>> entry : greedySolvers.entrySet()) {
+            for (File example : examples) {
+                File input = findExample(example);
+                if (input == null) continue;
+
+                benchmarks.add(solverBenchmark(entry.getKey() + "/" + example.getName(), entry.getValue(), input, Integer.MAX_VALUE));
+            }
+        }
+
+        return benchmarks;
+    }
+
+    /**
+     * Private static function creating a benchmark of a solver.
+     *
+     * @param name    The benchmark's name
+     * @param factory Function creating the solver for given points
+     * @param input   The file containing the points
+     * @param size    The maximum amount of points used (the first ones of the file)
+     * @return The benchmark
+     */
+    private static Benchmark solverBenchmark(String name, Function<Point[], Solver> factory, File input, int size) {
+        return new Benchmark(name, () -> {
+            if (input == null) throw new IllegalStateException("Example of benchmark \"" + name + "\" not found");
+
+            Point[] points;
+
+            try {
+                points = Utils.toPoints(Files.readAllLines(input.toPath()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            Point[] instance = Arrays.copyOf(points, Math.min(size, points.length));
+            return blackhole -> blackhole.consume(factory.apply(instance).solve());
+        }, 1);
+    }
+
+    /**
+     * Private static function finding the input file in an example's directory.
+     *
+     * @param directory The example's directory
+     * @return The first file whose name ends with "Eingabe.txt" (null if there's none)
+     */
+    private static File findExample(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith("Eingabe.txt"));
+        if (files == null || files.length == 0) return null;
+
+        Arrays.sort(files);
+        return files[0];
+    }
+
+    /**
+     * Private static function creating random points in the square [0, 1000]^2 (always the same ones).
+     *
+     * @param size The amount of points
+     * @return The points
+     */
+    private static Point[] randomPoints(int size) {
+        Random random = new Random(42L);
+        Point[] points = new Point[size];
+
+        for (int i = 0; i < size; i++) {
+            points[i] = new Point(new double[]{random.nextDouble() * 1000D, random.nextDouble() * 1000D}, false);
+        }
+
+        return points;
+    }
+
+    /**
+     * Private static function comparing a result to the baseline's result of the same benchmark.
+     *
+     * @param result   The result
+     * @param baseline The baseline's result (might be null)
+     * @return A string describing the change of the throughput (empty if there's no baseline)
+     */
+    private static String compare(BenchmarkResult result, BenchmarkResult baseline) {
+        if (baseline == null || baseline.getOpsPerSecond() <= 0) return "";
+
+        double change = (result.getOpsPerSecond() - baseline.getOpsPerSecond()) / baseline.getOpsPerSecond();
+
+        // The change is only significant if it's bigger than the errors of both results
+        boolean significant = Math.abs(result.getOpsPerSecond() - baseline.getOpsPerSecond()) > result.getError() + baseline.getError();
+
+        return String.format(Locale.ROOT, "   %+7.1f%%%s", change * 100D, significant ? (change < 0 ? " (regression)" : " (improvement)") : "");
+    }
+
+    /**
+     * Private static function reading the results of a former run.
+     *
+     * @param file The JSON file
+     * @return The results by the benchmarks' names (empty if the file can't be read)
+     */
+    private static Map<String, BenchmarkResult> readResults(File file) {
+        Map<String, BenchmarkResult> results = new HashMap<>();
+
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                if (!line.startsWith("{\"name\"")) continue;
+
+                BenchmarkResult result = BenchmarkResult.parse(line);
+                results.put(result.getName(), result);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error occurred - Could not read baseline \"" + file + "\"!");
+        }
+
+        return results;
+    }
+
+    /**
+     * Private static function writing the results to a JSON file (one result per line).
+     *
+     * @param file    The JSON file
+     * @param results The results
+     */
+    private static void writeResults(File file, List<BenchmarkResult> results) {
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("{\"benchmarks\":[");
+
+            for (int i = 0; i < results.size(); i++) {
+                out.println(results.get(i).toJson() + (i + 1 < results.size() ? "," : ""));
+            }
+
+            out.println("]}");
+        } catch (IOException e) {
+            System.out.println("Error occurred - Could not write results \"" + file + "\"!");
+        }
+    }
+
+    /**
+     * Private static function parsing the arguments into options (name without "--" to value,
+     * "list" having the value "true").
+     *
+     * @param args The arguments
+     * @return The options (null if the arguments are invalid)
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) return null;
+            String name = args[i].substring(2);
+
+            if (name.equals("list")) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                return null;
+            }
+        }
+
+        return options;
+    }
+}
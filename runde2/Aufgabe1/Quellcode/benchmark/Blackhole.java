@@ -0,0 +1,54 @@
+package de.flo.wenigerKrummeTouren.benchmark;
+
+/**
+ * Class consuming the results of benchmarked code, such that the JIT compiler can't
+ * remove that code as dead code. The values are folded into a field that is published
+ * through a volatile field once per iteration (see BenchmarkRunner), such that consuming
+ * a value costs only a few instructions.
+ */
+public final class Blackhole {
+
+    /**
+     * The folded values
+     */
+    private long state = 0L;
+
+    /**
+     * The published state, never read by the benchmarks
+     */
+    private volatile long sink = 0L;
+
+    /**
+     * Public method consuming a double.
+     *
+     * @param value The value
+     */
+    public void consume(double value) {
+        this.state = 31L * this.state + Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * Public method consuming a boolean.
+     *
+     * @param value The value
+     */
+    public void consume(boolean value) {
+        this.state = 31L * this.state + (value ? 1L : 2L);
+    }
+
+    /**
+     * Public method consuming an object.
+     *
+     * @param value The object (might be null)
+     */
+    public void consume(Object value) {
+        this.state = 31L * this.state + System.identityHashCode(value);
+    }
+
+    /**
+     * Method publishing the folded values, such that they escape.
+     */
+    void publish() {
+        this.sink = this.state;
+    }
+}
@@ -0,0 +1,248 @@
+package de.flo.wenigerKrummeTouren.checkpoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing a checkpoint of a search split into prefixes (subroutes), containing
+ * the prefixes that have not been searched completely yet (the search-frontier), the best
+ * route found so far and its length, as well as some counters.
+ * Checkpoints are written to disk in a compact binary format and can be read again
+ * to resume the search.
+ */
+public class Checkpoint {
+
+    /**
+     * Magic number at the start of every checkpoint file
+     */
+    private static final int MAGIC = 0x574B5443;
+
+    /**
+     * Version of the file format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Fingerprint of the instance the checkpoint belongs to
+     */
+    private final long fingerprint;
+
+    /**
+     * The amount of points of the instance
+     */
+    private final int size;
+
+    /**
+     * The prefixes that have not been searched completely yet, given by the points' indexes
+     */
+    private final List<int[]> prefixes;
+
+    /**
+     * The best route found so far given by the points' indexes (might be null)
+     */
+    private final int[] route;
+
+    /**
+     * The best route's length (Double.POSITIVE_INFINITY if there is no route)
+     */
+    private final double length;
+
+    /**
+     * The amount of nodes expanded so far
+     */
+    private final long nodes;
+
+    /**
+     * The amount of prefixes searched completely so far
+     */
+    private final long finishedPrefixes;
+
+    /**
+     * Public constructor taking in all values of the checkpoint.
+     *
+     * @param fingerprint      Fingerprint of the instance the checkpoint belongs to
+     * @param size             The amount of points of the instance
+     * @param prefixes         The prefixes that have not been searched completely yet
+     * @param route            The best route found so far (might be null)
+     * @param length           The best route's length
+     * @param nodes            The amount of nodes expanded so far
+     * @param finishedPrefixes The amount of prefixes searched completely so far
+     */
+    public Checkpoint(long fingerprint, int size, List<int[]> prefixes, int[] route, double length, long nodes, long finishedPrefixes) {
+        this.fingerprint = fingerprint;
+        this.size = size;
+        this.prefixes = prefixes;
+        this.route = route;
+        this.length = length;
+        this.nodes = nodes;
+        this.finishedPrefixes = finishedPrefixes;
+    }
+
+    /**
+     * Public method writing this checkpoint to a given file. The checkpoint is first written
+     * into a temporary file which then replaces the given file atomically, such that the file
+     * always contains a complete checkpoint, even if the program is killed while writing.
+     *
+     * @param file The file
+     * @throws IOException If the checkpoint could not be written
+     */
+    public void write(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(this.fingerprint);
+            out.writeInt(this.size);
+            out.writeLong(this.nodes);
+            out.writeLong(this.finishedPrefixes);
+
+            // Write the best route's length and the route itself (see writeArray for null)
+            out.writeDouble(this.length);
+            writeArray(out, this.route);
+
+            // Write the prefixes
+            out.writeInt(this.prefixes.size());
+            for (int[] prefix : this.prefixes) writeArray(out, prefix);
+        }
+
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Public static function reading a checkpoint from a given file.
+     *
+     * @param file The file
+     * @return The checkpoint
+     * @throws IOException If the file could not be read or does not contain a checkpoint
+     */
+    public static Checkpoint read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+
+            long fingerprint = in.readLong();
+            int size = in.readInt();
+            long nodes = in.readLong();
+            long finishedPrefixes = in.readLong();
+
+            double length = in.readDouble();
+            int[] route = readArray(in);
+
+            int amount = in.readInt();
+            List<int[]> prefixes = new ArrayList<>(amount);
+            for (int i = 0; i < amount; i++) prefixes.add(readArray(in));
+
+            return new Checkpoint(fingerprint, size, prefixes, route, length, nodes, finishedPrefixes);
+        }
+    }
+
+    /**
+     * Private static function writing an int array (or null) to a stream,
+     * first writing its length (-1 for null) and then its elements.
+     *
+     * @param out   The stream
+     * @param array The array (might be null)
+     * @throws IOException If the array could not be written
+     */
+    private static void writeArray(DataOutputStream out, int[] array) throws IOException {
+        if (array == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        out.writeInt(array.length);
+        for (int element : array) out.writeInt(element);
+    }
+
+    /**
+     * Private static function reading an int array (or null) written by writeArray.
+     *
+     * @param in The stream
+     * @return The array (might be null)
+     * @throws IOException If the array could not be read
+     */
+    private static int[] readArray(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) return null;
+
+        int[] array = new int[length];
+        for (int i = 0; i < length; i++) array[i] = in.readInt();
+
+        return array;
+    }
+
+    /**
+     * Getter for the fingerprint of the instance the checkpoint belongs to
+     *
+     * @return The fingerprint
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * Getter for the amount of points of the instance the checkpoint belongs to
+     *
+     * @return The amount of points
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the prefixes that have not been searched completely yet
+     *
+     * @return The prefixes given by the points' indexes
+     */
+    public List<int[]> getPrefixes() {
+        return this.prefixes;
+    }
+
+    /**
+     * Getter for the best route found so far
+     *
+     * @return The best route given by the points' indexes (might be null)
+     */
+    public int[] getRoute() {
+        return this.route;
+    }
+
+    /**
+     * Getter for the best route's length
+     *
+     * @return The best route's length (Double.POSITIVE_INFINITY if there is no route)
+     */
+    public double getLength() {
+        return this.length;
+    }
+
+    /**
+     * Getter for the amount of nodes expanded so far
+     *
+     * @return The amount of nodes
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Getter for the amount of prefixes searched completely so far
+     *
+     * @return The amount of finished prefixes
+     */
+    public long getFinishedPrefixes() {
+        return this.finishedPrefixes;
+    }
+}
@@ -0,0 +1,86 @@
+package de.flo.wenigerKrummeTouren.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Class writing checkpoints periodically to a file using its own (daemon) thread,
+ * such that the threads searching are never stalled by writing to disk.
+ * The checkpoints are created by a given supplier, which is called by the writing thread.
+ */
+public class CheckpointWriter implements AutoCloseable {
+
+    /**
+     * The file the checkpoints are written to
+     */
+    private final File file;
+
+    /**
+     * The supplier creating the checkpoints
+     */
+    private final Supplier<Checkpoint> supplier;
+
+    /**
+     * The executor writing the checkpoints periodically
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Public constructor starting to write checkpoints periodically.
+     *
+     * @param file           The file the checkpoints are written to
+     * @param intervalMillis The time between two checkpoints in ms
+     * @param supplier       The supplier creating the checkpoints
+     */
+    public CheckpointWriter(File file, long intervalMillis, Supplier<Checkpoint> supplier) {
+        this.file = file;
+        this.supplier = supplier;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.executor.scheduleWithFixedDelay(this::write, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Public method creating and writing one checkpoint immediately using the calling thread.
+     * Errors are printed, but do not stop the search.
+     */
+    public void writeNow() {
+        write();
+    }
+
+    /**
+     * Private methode creating and writing one checkpoint. Errors are printed,
+     * but do not stop the search.
+     */
+    private synchronized void write() {
+        try {
+            this.supplier.get().write(this.file);
+        } catch (IOException e) {
+            System.out.println("Error occurred - Could not write checkpoint \"" + this.file + "\": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Implementation of the close-methode stopping to write checkpoints
+     * (waiting for a checkpoint that is currently written).
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+
+        try {
+            this.executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package de.flo.wenigerKrummeTouren.distributed;
+
+import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.algorithms.exact.PrefixSearch;
+import de.flo.wenigerKrummeTouren.algorithms.localSearch.LocalSearch;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+import de.flo.wenigerKrummeTouren.util.Point;
+import de.flo.wenigerKrummeTouren.util.Utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the abstract class Solver.
+ * This class solves a given instance of the problem exactly like ExactSolver5, but the prefixes
+ * (subroutes) are searched by worker processes connected over TCP sockets (see Worker).
+ * The coordinator hands out the prefixes, broadcasts every new best route to all workers, such that
+ * they can use it as bound, hands out the prefixes of dead workers again and finally returns the
+ * best route found by any of them. Optionally, worker processes are started on the local machine.
+ */
+public class Coordinator extends Solver {
+
+    /**
+     * The size of the prefixes the search tree is split into
+     */
+    private static final int PREFIX_DEPTH = 3;
+
+    /**
+     * The port the coordinator listens on (0 for any free port)
+     */
+    private final int port;
+
+    /**
+     * The amount of worker processes started on the local machine
+     */
+    private final int localWorkers;
+
+    /**
+     * Lock for all fields below
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The ids of the prefixes that are not assigned to any worker
+     */
+    private final Deque<Integer> open = new ArrayDeque<>();
+
+    /**
+     * The connections to all workers alive
+     */
+    private final List<Connection> connections = new ArrayList<>();
+
+    /**
+     * Array containing if the prefix with a given id has been searched completely
+     */
+    private boolean[] finished;
+
+    /**
+     * The amount of prefixes searched completely
+     */
+    private int finishedCount = 0;
+
+    /**
+     * The amount of nodes expanded by all workers
+     */
+    private long nodes = 0;
+
+    /**
+     * The instance of the current search
+     */
+    private Instance instance;
+
+    /**
+     * The prefixes of the current search, the id of a prefix is its index in this list
+     */
+    private List<int[]> prefixes;
+
+    /**
+     * The best route found by any worker so far
+     */
+    private Incumbent incumbent;
+
+    /**
+     * Public constructor of this class calling the parent's constructor and
+     * taking in the points to find a route for, the port to listen on and the
+     * amount of worker processes to start on the local machine.
+     *
+     * @param points       The points the route is created for
+     * @param port         The port the coordinator listens on (0 for any free port)
+     * @param localWorkers The amount of worker processes started on the local machine
+     */
+    public Coordinator(Point[] points, int port, int localWorkers) {
+        super(points);
+        this.port = port;
+        this.localWorkers = localWorkers;
+    }
+
+    /**
+     * Main function of a coordinator process, solving the problem for the points in a given file
+     * and printing the resulting route.
+     *
+     * @param args Arguments: file, port and optionally the amount of local workers
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: Coordinator <file> <port> [local workers]");
+            return;
+        }
+
+        Point[] points;
+
+        try {
+            points = Utils.toPoints(Files.readAllLines(Paths.get(args[0])));
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Error occurred - Could not read points from \"" + args[0] + "\"!");
+            return;
+        }
+
+        int localWorkers = args.length >= 3 ? Integer.parseInt(args[2]) : 0;
+        Coordinator coordinator = new Coordinator(points, Integer.parseInt(args[1]), localWorkers);
+
+        long milli = System.currentTimeMillis();
+        Point[] result = coordinator.solve();
+        milli = System.currentTimeMillis() - milli;
+
+        if (result == null) {
+            System.out.println("RESULT IS NULL");
+        } else {
+            for (Point point : result) System.out.println(point);
+        }
+
+        System.out.println("Length = " + (result == null ? -1 : Utils.length(result)));
+        System.out.println("Nodes = " + coordinator.getNodes());
+        System.out.println("Time: " + milli + "ms");
+    }
+
+    /**
+     * Implementation of the solve-methode solving the problem by letting the
+     * workers search all valid prefixes as described above.
+     *
+     * @return The best possible route (might be null)
+     */
+    @Override
+    public Point[] solve() {
+        // With no points, the empty route is the best one
+        if (this.getSize() == 0) return new Point[0];
+
+        this.instance = new Instance(this.getPoints());
+        this.incumbent = new Incumbent();
+        this.prefixes = PrefixSearch.createPrefixes(this.instance, Math.min(PREFIX_DEPTH, this.getSize()));
+        this.finished = new boolean[this.prefixes.size()];
+        for (int i = 0; i < this.prefixes.size(); i++) this.open.add(i);
+
+        List<Process> processes = new ArrayList<>();
+
+        try (ServerSocket server = new ServerSocket(this.port)) {
+            System.out.println("Coordinator listening on port " + server.getLocalPort() + " (" + this.prefixes.size() + " prefixes).");
+
+            // Accept workers using an own thread
+            Thread acceptor = new Thread(() -> acceptWorkers(server), "coordinator-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            // Start the local workers (if wanted)
+            for (int i = 0; i < this.localWorkers; i++) {
+                processes.add(startLocalWorker(server.getLocalPort()));
+            }
+
+            // Wait until all prefixes have been searched completely
+            List<Connection> workers;
+
+            synchronized (this.lock) {
+                while (this.finishedCount < this.prefixes.size()) {
+                    this.lock.wait();
+                }
+
+                workers = new ArrayList<>(this.connections);
+            }
+
+            // Tell all workers to stop (without holding the lock, since writing might block)
+            for (Connection connection : workers) connection.finish();
+        } catch (IOException e) {
+            System.out.println("Error occurred - Coordinator stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Process process : processes) process.destroy();
+        }
+
+        return this.instance.toPoints(this.incumbent.getRoute());
+    }
+
+    /**
+     * Private methode accepting workers until the server socket is closed,
+     * handling every worker with its own thread.
+     *
+     * @param server The server socket
+     */
+    private void acceptWorkers(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setSoTimeout(Protocol.HEARTBEAT_TIMEOUT);
+
+                Thread thread = new Thread(new Connection(socket), "coordinator-" + socket.getRemoteSocketAddress());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                // The server socket was closed
+                return;
+            }
+        }
+    }
+
+    /**
+     * Private methode starting a worker process on the local machine using the same
+     * java installation and classpath as this process.
+     *
+     * @param port The port of the coordinator
+     * @return The worker process
+     * @throws IOException If the process could not be started
+     */
+    private Process startLocalWorker(int port) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classpath = System.getProperty("java.class.path");
+
+        // Share the processors of this machine between the local workers
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / this.localWorkers);
+
+        return new ProcessBuilder(java, "-cp", classpath, Worker.class.getName(), "localhost", String.valueOf(port), String.valueOf(threads))
+                .inheritIO()
+                .start();
+    }
+
+    /**
+     * Getter for the amount of nodes expanded by all workers
+     *
+     * @return The amount of nodes
+     */
+    public long getNodes() {
+        synchronized (this.lock) {
+            return this.nodes;
+        }
+    }
+
+    /**
+     * Private class handling the connection to one worker.
+     */
+    private class Connection implements Runnable {
+
+        /**
+         * The socket connected to the worker
+         */
+        private final Socket socket;
+
+        /**
+         * The stream used for sending messages (synchronized on itself)
+         */
+        private DataOutputStream out;
+
+        /**
+         * The ids of the prefixes assigned to the worker and not finished yet
+         */
+        private final Set<Integer> assigned = new HashSet<>();
+
+        /**
+         * The maximal amount of prefixes assigned to the worker at once
+         */
+        private int capacity = 0;
+
+        /**
+         * Constructor taking in the socket connected to the worker.
+         *
+         * @param socket The socket
+         */
+        private Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        /**
+         * Implementation of the run-methode sending the instance to the worker and then
+         * handling all messages from the worker until it finishes or dies.
+         */
+        @Override
+        public void run() {
+            try {
+                this.out = new DataOutputStream(new BufferedOutputStream(this.socket.getOutputStream()));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+
+                // Send the instance and the best route found so far
+                synchronized (this.out) {
+                    this.out.writeByte(Protocol.INSTANCE);
+                    Protocol.writePoints(this.out, getPoints());
+                    this.out.flush();
+                }
+
+                sendRoute(incumbent.getRoute());
+
+                // Wait for the worker to be ready, then assign the first prefixes
+                if (in.readByte() != Protocol.HELLO) throw new IOException("Unexpected message");
+                this.capacity = 2 * in.readInt();
+
+                List<Integer> first;
+
+                synchronized (lock) {
+                    connections.add(this);
+                    first = pickPrefixes();
+                }
+
+                sendPrefixes(first);
+
+                // Handle the worker's messages
+                while (true) {
+                    byte type = in.readByte();
+
+                    if (type == Protocol.RESULT) {
+                        int id = in.readInt();
+                        long expanded = in.readLong();
+
+                        List<Integer> ids;
+
+                        synchronized (lock) {
+                            this.assigned.remove(id);
+                            nodes += expanded;
+
+                            if (!finished[id]) {
+                                finished[id] = true;
+                                finishedCount++;
+                                lock.notifyAll();
+                            }
+
+                            ids = pickPrefixes();
+                        }
+
+                        sendPrefixes(ids);
+                    } else if (type == Protocol.ROUTE) {
+                        in.readDouble(); // The length sent by the worker isn't trusted, it's computed below
+                        int[] route = Protocol.readArray(in);
+
+                        // Ignore routes not visiting every point once or not meeting the turning angle
+                        // constraint (from a buggy or stale worker), such that they never become the bound
+                        if (!instance.isRoute(route) || !LocalSearch.anglesAreValid(instance, route)) continue;
+
+                        // Broadcast the route to all other workers if it's the new best one
+                        if (incumbent.offer(route, instance.length(route))) broadcast(route, this);
+                    } else if (type != Protocol.HEARTBEAT) {
+                        throw new IOException("Unexpected message");
+                    }
+                }
+            } catch (IOException e) {
+                // The worker finished or died, hand out its prefixes to the other workers again
+                Map<Connection, List<Integer>> reassigned = new LinkedHashMap<>();
+
+                synchronized (lock) {
+                    connections.remove(this);
+
+                    for (int id : this.assigned) {
+                        if (!finished[id]) open.addFirst(id);
+                    }
+                    this.assigned.clear();
+
+                    for (Connection connection : connections) reassigned.put(connection, connection.pickPrefixes());
+                }
+
+                for (Map.Entry<Connection, List<Integer>> entry : reassigned.entrySet()) entry.getKey().sendPrefixes(entry.getValue());
+            } finally {
+                try {
+                    this.socket.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        /**
+         * Private methode assigning open prefixes to the worker until its capacity is reached.
+         * Must be called while holding the lock, the prefixes are sent afterwards using sendPrefixes(...)
+         * without holding it, such that a worker that doesn't read its messages can't block the others.
+         *
+         * @return The ids of the assigned prefixes
+         */
+        private List<Integer> pickPrefixes() {
+            List<Integer> ids = new ArrayList<>();
+
+            while (this.assigned.size() < this.capacity && !open.isEmpty()) {
+                int id = open.poll();
+                this.assigned.add(id);
+                ids.add(id);
+            }
+
+            return ids;
+        }
+
+        /**
+         * Private methode sending assigned prefixes to the worker. Must be called without holding the lock.
+         *
+         * @param ids The ids of the prefixes (see pickPrefixes())
+         */
+        private void sendPrefixes(List<Integer> ids) {
+            if (ids.isEmpty()) return;
+
+            try {
+                synchronized (this.out) {
+                    for (int id : ids) {
+                        this.out.writeByte(Protocol.TASK);
+                        this.out.writeInt(id);
+                        Protocol.writeArray(this.out, prefixes.get(id));
+                    }
+
+                    this.out.flush();
+                }
+            } catch (IOException e) {
+                // The worker died, its reading thread will hand out the prefixes again
+            }
+        }
+
+        /**
+         * Private methode sending a route to the worker (nothing is sent if the route is null).
+         *
+         * @param route The route
+         */
+        private void sendRoute(int[] route) {
+            if (route == null) return;
+
+            try {
+                synchronized (this.out) {
+                    this.out.writeByte(Protocol.ROUTE);
+                    this.out.writeDouble(instance.length(route));
+                    Protocol.writeArray(this.out, route);
+                    this.out.flush();
+                }
+            } catch (IOException ignored) {
+                // The worker died, its reading thread will hand out the prefixes again
+            }
+        }
+
+        /**
+         * Private methode telling the worker to stop.
+         */
+        private void finish() {
+            try {
+                synchronized (this.out) {
+                    this.out.writeByte(Protocol.FINISH);
+                    this.out.flush();
+                }
+            } catch (IOException ignored) {
+                // The worker is already gone
+            }
+        }
+    }
+
+    /**
+     * Private methode sending a route to all workers except the one it came from.
+     *
+     * @param route  The route
+     * @param source The connection the route came from
+     */
+    private void broadcast(int[] route, Connection source) {
+        List<Connection> receivers;
+
+        synchronized (this.lock) {
+            receivers = new ArrayList<>(this.connections);
+        }
+
+        for (Connection connection : receivers) {
+            if (connection != source) connection.sendRoute(route);
+        }
+    }
+}
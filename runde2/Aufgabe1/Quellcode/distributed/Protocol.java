@@ -0,0 +1,128 @@
+package de.flo.wenigerKrummeTouren.distributed;
+
+import de.flo.wenigerKrummeTouren.util.Point;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Final class containing the message types and helper functions of the protocol used
+ * between the coordinator and its workers. Every message starts with its type (one byte)
+ * followed by its content written using DataOutputStream.
+ */
+public final class Protocol {
+
+    /**
+     * Coordinator to worker: the points of the instance (dimension, amount, coordinates)
+     */
+    public static final byte INSTANCE = 1;
+
+    /**
+     * Coordinator to worker: a prefix to search (id, prefix)
+     */
+    public static final byte TASK = 2;
+
+    /**
+     * Both directions: a new best route (length, route)
+     */
+    public static final byte ROUTE = 3;
+
+    /**
+     * Coordinator to worker: the search is finished, the worker should stop
+     */
+    public static final byte FINISH = 4;
+
+    /**
+     * Worker to coordinator: the worker is ready (amount of threads)
+     */
+    public static final byte HELLO = 5;
+
+    /**
+     * Worker to coordinator: a prefix was searched completely (id, amount of nodes expanded)
+     */
+    public static final byte RESULT = 6;
+
+    /**
+     * Worker to coordinator: the worker is still alive
+     */
+    public static final byte HEARTBEAT = 7;
+
+    /**
+     * The time between two heartbeats of a worker in ms
+     */
+    public static final int HEARTBEAT_INTERVAL = 1000;
+
+    /**
+     * The time in ms after which a worker that did not send anything is considered dead
+     */
+    public static final int HEARTBEAT_TIMEOUT = 10 * HEARTBEAT_INTERVAL;
+
+    /**
+     * Private constructor, such that no instances of this class can be created.
+     */
+    private Protocol() {
+    }
+
+    /**
+     * Public static function writing the given points to a stream.
+     *
+     * @param out    The stream
+     * @param points The points (all of the same dimension)
+     * @throws IOException If the points could not be written
+     */
+    public static void writePoints(DataOutputStream out, Point[] points) throws IOException {
+        int dimension = points.length == 0 ? 0 : points[0].getDimension();
+        out.writeInt(dimension);
+        out.writeInt(points.length);
+
+        for (Point point : points) {
+            for (int i = 0; i < dimension; i++) out.writeDouble(point.getCoordinate(i));
+        }
+    }
+
+    /**
+     * Public static function reading points written by writePoints.
+     *
+     * @param in The stream
+     * @return The points
+     * @throws IOException If the points could not be read
+     */
+    public static Point[] readPoints(DataInputStream in) throws IOException {
+        int dimension = in.readInt();
+        Point[] points = new Point[in.readInt()];
+
+        for (int k = 0; k < points.length; k++) {
+            double[] coordinates = new double[dimension];
+            for (int i = 0; i < dimension; i++) coordinates[i] = in.readDouble();
+            points[k] = new Point(coordinates, false);
+        }
+
+        return points;
+    }
+
+    /**
+     * Public static function writing an int array (e.g. a route or prefix) to a stream.
+     *
+     * @param out   The stream
+     * @param array The array
+     * @throws IOException If the array could not be written
+     */
+    public static void writeArray(DataOutputStream out, int[] array) throws IOException {
+        out.writeInt(array.length);
+        for (int element : array) out.writeInt(element);
+    }
+
+    /**
+     * Public static function reading an int array written by writeArray.
+     *
+     * @param in The stream
+     * @return The array
+     * @throws IOException If the array could not be read
+     */
+    public static int[] readArray(DataInputStream in) throws IOException {
+        int[] array = new int[in.readInt()];
+        for (int i = 0; i < array.length; i++) array[i] = in.readInt();
+        return array;
+    }
+}
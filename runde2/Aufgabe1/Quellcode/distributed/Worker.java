@@ -0,0 +1,258 @@
+package de.flo.wenigerKrummeTouren.distributed;
+
+import de.flo.wenigerKrummeTouren.algorithms.exact.PrefixSearch;
+import de.flo.wenigerKrummeTouren.util.Incumbent;
+import de.flo.wenigerKrummeTouren.util.Instance;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class representing a worker process of the distributed exact search (see Coordinator).
+ * A worker connects to the coordinator, receives the points and then searches every prefix
+ * it gets using PrefixSearch with several threads. New best routes are sent to the coordinator,
+ * best routes of other workers are received from it and used as bound.
+ */
+public class Worker {
+
+    /**
+     * The host of the coordinator
+     */
+    private final String host;
+
+    /**
+     * The port of the coordinator
+     */
+    private final int port;
+
+    /**
+     * The amount of threads used for searching
+     */
+    private final int threads;
+
+    /**
+     * The stream used for sending messages (synchronized on itself)
+     */
+    private DataOutputStream out;
+
+    /**
+     * The best route known by this worker, found by itself or received from the coordinator
+     */
+    private Incumbent incumbent;
+
+    /**
+     * The length of the last route sent to or received from the coordinator (guarded by this worker,
+     * which is only locked while holding the lock of out or without sending anything)
+     */
+    private double reportedLength = Double.POSITIVE_INFINITY;
+
+    /**
+     * Public constructor taking in the coordinator's host and port and the amount of threads.
+     *
+     * @param host    The host of the coordinator
+     * @param port    The port of the coordinator
+     * @param threads The amount of threads used for searching
+     */
+    public Worker(String host, int port, int threads) {
+        this.host = host;
+        this.port = port;
+        this.threads = threads;
+    }
+
+    /**
+     * Main function of a worker process.
+     *
+     * @param args Arguments: host, port and optionally the amount of threads
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: Worker <host> <port> [threads]");
+            return;
+        }
+
+        int threads = args.length >= 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        try {
+            new Worker(args[0], Integer.parseInt(args[1]), threads).run();
+        } catch (IOException e) {
+            System.out.println("Error occurred - Worker stopped: " + e.getMessage());
+        }
+
+        // Stop the search threads that might still be running
+        System.exit(0);
+    }
+
+    /**
+     * Public method connecting to the coordinator and working until the
+     * coordinator tells the worker to stop or the connection is lost.
+     *
+     * @throws IOException If the connection is lost
+     */
+    public void run() throws IOException {
+        try (Socket socket = new Socket(this.host, this.port)) {
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            // Receive the instance
+            if (in.readByte() != Protocol.INSTANCE) throw new IOException("Unexpected message");
+            Instance instance = new Instance(Protocol.readPoints(in));
+            this.incumbent = new Incumbent();
+
+            // Start the search threads taking the prefixes from a queue
+            BlockingQueue<Task> tasks = new LinkedBlockingQueue<>();
+
+            for (int t = 0; t < this.threads; t++) {
+                Thread thread = new Thread(() -> search(instance, tasks), "worker-" + t);
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            // Send heartbeats periodically, such that the coordinator knows this worker is alive
+            ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "worker-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            heartbeat.scheduleAtFixedRate(() -> send(Protocol.HEARTBEAT), Protocol.HEARTBEAT_INTERVAL, Protocol.HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+
+            // Tell the coordinator that this worker is ready
+            synchronized (this.out) {
+                this.out.writeByte(Protocol.HELLO);
+                this.out.writeInt(this.threads);
+                this.out.flush();
+            }
+
+            // Handle the coordinator's messages
+            try {
+                while (true) {
+                    byte type = in.readByte();
+
+                    if (type == Protocol.TASK) {
+                        int id = in.readInt();
+                        tasks.add(new Task(id, Protocol.readArray(in)));
+                    } else if (type == Protocol.ROUTE) {
+                        double length = in.readDouble();
+                        int[] route = Protocol.readArray(in);
+
+                        synchronized (this) {
+                            this.incumbent.offer(route, length);
+                            this.reportedLength = Math.min(this.reportedLength, length);
+                        }
+                    } else if (type == Protocol.FINISH) {
+                        return;
+                    } else {
+                        throw new IOException("Unexpected message");
+                    }
+                }
+            } finally {
+                heartbeat.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Private methode run by every search thread, searching the prefixes from the queue.
+     * After every prefix, the result and (if there is one) the new best route are sent to the coordinator.
+     *
+     * @param instance The instance
+     * @param tasks    The queue containing the prefixes to search
+     */
+    private void search(Instance instance, BlockingQueue<Task> tasks) {
+        PrefixSearch search = new PrefixSearch(instance, this.incumbent);
+
+        try {
+            while (true) {
+                Task task = tasks.take();
+
+                long nodesBefore = search.getNodes();
+                search.search(task.prefix);
+                long nodes = search.getNodes() - nodesBefore;
+
+                // Send the new best route first, such that the coordinator knows it
+                // before the prefix is marked as searched completely. The route is claimed
+                // and both messages are sent in one critical section, such that no other thread
+                // can send its result between a route being claimed and being sent.
+                try {
+                    synchronized (this.out) {
+                        int[] route = null;
+
+                        synchronized (this) {
+                            if (this.incumbent.getLength() < this.reportedLength) {
+                                route = this.incumbent.getRoute();
+                                this.reportedLength = instance.length(route);
+                            }
+                        }
+
+                        if (route != null) {
+                            this.out.writeByte(Protocol.ROUTE);
+                            this.out.writeDouble(instance.length(route));
+                            Protocol.writeArray(this.out, route);
+                        }
+
+                        this.out.writeByte(Protocol.RESULT);
+                        this.out.writeInt(task.id);
+                        this.out.writeLong(nodes);
+                        this.out.flush();
+                    }
+                } catch (IOException e) {
+                    // The connection is lost, the main thread will stop the worker
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Private methode sending a message without any content to the coordinator.
+     *
+     * @param type The message's type
+     */
+    private void send(byte type) {
+        try {
+            synchronized (this.out) {
+                this.out.writeByte(type);
+                this.out.flush();
+            }
+        } catch (IOException ignored) {
+            // The connection is lost, the main thread will stop the worker
+        }
+    }
+
+    /**
+     * Private class representing a prefix to search and its id.
+     */
+    private static class Task {
+
+        /**
+         * The prefix's id given by the coordinator
+         */
+        private final int id;
+
+        /**
+         * The prefix given by the points' indexes
+         */
+        private final int[] prefix;
+
+        /**
+         * Constructor taking in the prefix and its id.
+         *
+         * @param id     The prefix's id
+         * @param prefix The prefix
+         */
+        private Task(int id, int[] prefix) {
+            this.id = id;
+            this.prefix = prefix;
+        }
+    }
+}
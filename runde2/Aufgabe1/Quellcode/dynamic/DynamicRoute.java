@@ -0,0 +1,471 @@
+package de.flo.wenigerKrummeTouren.dynamic;
+
+import de.flo.wenigerKrummeTouren.Solver;
+import de.flo.wenigerKrummeTouren.algorithms.greedy.GraspSolver;
+import de.flo.wenigerKrummeTouren.util.Point;
+import de.flo.wenigerKrummeTouren.util.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Class maintaining a route through a changing set of points, such that points can be inserted and
+ * removed without solving the whole problem again.
+ * - A new point is inserted where it lengthens the route the least while meeting the turning angle constraint.
+ * - After every change, the points around it are repaired locally by moving them to better positions.
+ * - The whole route is only optimized again in the background (by a given Solver) if the route doesn't
+ * meet the turning angle constraint anymore or after a given amount of changes. If the points changed in
+ * the meantime, its result is rebased onto the current points first: the points removed since are removed
+ * from it and the points inserted since are inserted into it (both with the local repair described above).
+ * The route is stored in a RouteTree, so getting points, positions and lengths takes O(log n) time,
+ * while inserting and repairing takes O(n) time for finding the best positions (walking the tree once
+ * per point, without copying the route).
+ * All methods are thread-safe.
+ */
+public class DynamicRoute implements AutoCloseable {
+
+    /**
+     * The minimal improvement of a move during the repair
+     */
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * The amount of points before and after a change that are repaired
+     */
+    private static final int REPAIR_RADIUS = 2;
+
+    /**
+     * The route
+     */
+    private RouteTree route = new RouteTree();
+
+    /**
+     * The amount of triples of consecutive points in the route not meeting the turning angle constraint
+     */
+    private int invalidAngles = 0;
+
+    /**
+     * The amount of changes of the points so far (used to detect changes during the background optimization)
+     */
+    private long version = 0L;
+
+    /**
+     * The amount of changes since the last background optimization was started
+     */
+    private int changesSinceOptimization = 0;
+
+    /**
+     * If a background optimization is running or waiting to run
+     */
+    private boolean optimizationPending = false;
+
+    /**
+     * Function creating the Solver used for the background optimization
+     */
+    private final Function<Point[], Solver> optimizer;
+
+    /**
+     * The amount of changes after which the route is optimized in the background (0 for only optimizing invalid routes)
+     */
+    private final int optimizeEvery;
+
+    /**
+     * The executor running the background optimization
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Public constructor creating an empty route, optimizing it in the background using
+     * a GraspSolver (100 starts on one thread) after every 100 changes.
+     */
+    public DynamicRoute() {
+        this(points -> new GraspSolver(points, 100, 3, 0L, 1), 100);
+    }
+
+    /**
+     * Public constructor creating an empty route, taking in the Solver used for the
+     * background optimization and how often it is used.
+     *
+     * @param optimizer     Function creating the Solver used for the background optimization
+     * @param optimizeEvery The amount of changes after which the route is optimized in the background
+     *                      (0 for only optimizing if the route doesn't meet the turning angle constraint)
+     */
+    public DynamicRoute(Function<Point[], Solver> optimizer, int optimizeEvery) {
+        this.optimizer = optimizer;
+        this.optimizeEvery = optimizeEvery;
+
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "route-optimizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Public method inserting a point into the route at the position where it lengthens the route the least
+     * while meeting the turning angle constraint (or the least at all if there is no such position),
+     * and repairing the route around it.
+     *
+     * @param point The point
+     * @return If the point was inserted (false if it was already in the route)
+     */
+    public synchronized boolean insert(Point point) {
+        if (this.route.contains(point)) return false;
+
+        insertAndRepair(point);
+        changed();
+
+        return true;
+    }
+
+    /**
+     * Public method removing a point from the route and repairing the route around it.
+     *
+     * @param point The point
+     * @return If the point was removed (false if it was not in the route)
+     */
+    public synchronized boolean remove(Point point) {
+        int position = this.route.indexOf(point);
+        if (position == -1) return false;
+
+        removeAndRepair(position);
+        changed();
+
+        return true;
+    }
+
+    /**
+     * Public method returning the amount of points in the route.
+     *
+     * @return The amount of points
+     */
+    public synchronized int size() {
+        return this.route.size();
+    }
+
+    /**
+     * Public method returning the route's length.
+     *
+     * @return The length
+     */
+    public synchronized double length() {
+        return this.route.length();
+    }
+
+    /**
+     * Public method returning the length of the part of the route from one position to another one (both inclusive).
+     *
+     * @param from The first position
+     * @param to   The last position (at least from)
+     * @return The length
+     * @throws IndexOutOfBoundsException If a position is out of bounds
+     */
+    public synchronized double length(int from, int to) {
+        return this.route.length(from, to);
+    }
+
+    /**
+     * Public method returning the point at a given position in the route.
+     *
+     * @param position The position
+     * @return The point
+     * @throws IndexOutOfBoundsException If the position is out of bounds
+     */
+    public synchronized Point get(int position) {
+        return this.route.get(position);
+    }
+
+    /**
+     * Public method returning the position of a point in the route.
+     *
+     * @param point The point
+     * @return The position (-1 if the point is not in the route)
+     */
+    public synchronized int indexOf(Point point) {
+        return this.route.indexOf(point);
+    }
+
+    /**
+     * Public method returning if the route meets the turning angle constraint.
+     *
+     * @return If the route is valid
+     */
+    public synchronized boolean isValid() {
+        return this.invalidAngles == 0;
+    }
+
+    /**
+     * Public method returning the route's points in order.
+     *
+     * @return The points
+     */
+    public synchronized Point[] toArray() {
+        return this.route.toArray();
+    }
+
+    /**
+     * Implementation of the close-methode stopping the background optimization.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Private methode inserting a point at the best position for it and repairing the route around it.
+     *
+     * @param point The point (not in the route)
+     */
+    private void insertAndRepair(Point point) {
+        insertAt(bestPosition(point, this.route), point);
+        repair(this.route.indexOf(point));
+    }
+
+    /**
+     * Private methode removing the point at a position and repairing the route around it.
+     *
+     * @param position The position
+     */
+    private void removeAndRepair(int position) {
+        removeAt(position);
+        repair(Math.min(position, this.route.size() - 1));
+    }
+
+    /**
+     * Private methode inserting a point at a position, keeping track of the invalid angles.
+     *
+     * @param position The position
+     * @param point    The point
+     */
+    private void insertAt(int position, Point point) {
+        // The angles at the points before and after the new point change
+        this.invalidAngles -= invalidAngles(position - 1, position);
+        this.route.insert(position, point);
+        this.invalidAngles += invalidAngles(position - 1, position + 1);
+    }
+
+    /**
+     * Private methode removing the point at a position, keeping track of the invalid angles.
+     *
+     * @param position The position
+     * @return The removed point
+     */
+    private Point removeAt(int position) {
+        this.invalidAngles -= invalidAngles(position - 1, position + 1);
+        Point point = this.route.remove(position);
+        this.invalidAngles += invalidAngles(position - 1, position);
+        return point;
+    }
+
+    /**
+     * Private methode counting the triples of consecutive points not meeting the turning
+     * angle constraint, whose middle point's position is in a given range.
+     *
+     * @param from The first position (might be out of bounds)
+     * @param to   The last position (might be out of bounds)
+     * @return The amount of invalid triples
+     */
+    private int invalidAngles(int from, int to) {
+        int count = 0;
+
+        for (int i = Math.max(1, from); i <= Math.min(this.route.size() - 2, to); i++) {
+            if (!Utils.turningAngleIsValid(this.route.get(i - 1), this.route.get(i), this.route.get(i + 1))) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Private static function finding the position a point should be inserted at into a route, e.i. the position
+     * where it lengthens the route the least while meeting the turning angle constraint, or the least at all if
+     * there is no such position.
+     *
+     * The route is walked once in order, keeping the two points before and after the current position.
+     *
+     * @param point The point
+     * @param route The route (not containing the point)
+     * @return The position
+     */
+    private static int bestPosition(Point point, RouteTree route) {
+        int n = route.size();
+        if (n == 0) return 0;
+
+        int bestValid = -1, best = -1;
+        double bestValidCost = Double.POSITIVE_INFINITY, bestCost = Double.POSITIVE_INFINITY;
+
+        // The points around the current position: a, before, [point], after, d
+        Iterator<Point> iterator = route.iterator();
+        Point a = null, before = null;
+        Point after = iterator.next();
+        Point d = iterator.hasNext() ? iterator.next() : null;
+
+        for (int position = 0; position <= n; position++) {
+            double cost = (before != null ? before.distance(point) : 0D) + (after != null ? point.distance(after) : 0D)
+                    - (before != null && after != null ? before.distance(after) : 0D);
+
+            if (cost < bestCost) {
+                best = position;
+                bestCost = cost;
+            }
+
+            if (cost < bestValidCost && isValidInsertion(a, before, point, after, d)) {
+                bestValid = position;
+                bestValidCost = cost;
+            }
+
+            // Move on to the next position
+            a = before;
+            before = after;
+            after = d;
+            d = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        return bestValid != -1 ? bestValid : best;
+    }
+
+    /**
+     * Private static function checking if the angles at a point inserted into a route and at its
+     * neighbours meet the turning angle constraint, given the points around it: a, b, [point], c, d.
+     *
+     * @param a     The second point before the position (null if there is none)
+     * @param b     The point before the position (null if there is none)
+     * @param point The point
+     * @param c     The point after the position (null if there is none)
+     * @param d     The second point after the position (null if there is none)
+     * @return If all three angles are valid
+     */
+    private static boolean isValidInsertion(Point a, Point b, Point point, Point c, Point d) {
+        if (a != null && !Utils.turningAngleIsValid(a, b, point)) return false;
+        if (b != null && c != null && !Utils.turningAngleIsValid(b, point, c)) return false;
+        return d == null || Utils.turningAngleIsValid(point, c, d);
+    }
+
+    /**
+     * Private methode repairing the route around a position by moving each point close
+     * to that position to the best position for it, if that reduces the amount of invalid
+     * angles or (with the same amount) the route's length.
+     *
+     * @param position The position
+     */
+    private void repair(int position) {
+        for (int i = position - REPAIR_RADIUS; i <= position + REPAIR_RADIUS; i++) {
+            if (i < 0 || i >= this.route.size() || this.route.size() < 3) continue;
+
+            int invalidBefore = this.invalidAngles;
+            double lengthBefore = this.route.length();
+
+            // Move the point to the best position for it and undo the move if it's not better
+            Point point = removeAt(i);
+            int target = bestPosition(point, this.route);
+            insertAt(target, point);
+
+            boolean better = this.invalidAngles < invalidBefore
+                    || (this.invalidAngles == invalidBefore && this.route.length() < lengthBefore - EPSILON);
+
+            if (!better) {
+                removeAt(target);
+                insertAt(i, point);
+            }
+        }
+    }
+
+    /**
+     * Private methode called after every change, starting the background optimization if needed.
+     */
+    private void changed() {
+        this.version++;
+        this.changesSinceOptimization++;
+        optimizeIfNeeded();
+    }
+
+    /**
+     * Private methode starting the background optimization if the route doesn't meet the turning angle
+     * constraint or changed often enough since the last one, unless one is already running.
+     */
+    private void optimizeIfNeeded() {
+        boolean needed = this.invalidAngles > 0 || (this.optimizeEvery > 0 && this.changesSinceOptimization >= this.optimizeEvery);
+        if (!needed || this.optimizationPending || this.route.size() < 3 || this.executor.isShutdown()) return;
+
+        this.optimizationPending = true;
+        this.changesSinceOptimization = 0;
+
+        Point[] points = this.route.toArray();
+        long startVersion = this.version;
+
+        this.executor.execute(() -> {
+            Point[] result = null;
+
+            try {
+                result = this.optimizer.apply(points).solve();
+            } finally {
+                optimized(result, startVersion);
+            }
+        });
+    }
+
+    /**
+     * Private methode taking the result of a background optimization, rebased onto the current points
+     * if they changed in the meantime, if it's better than the current route.
+     *
+     * @param result       The optimized route (might be null)
+     * @param startVersion The version of the points the optimization started with
+     */
+    private synchronized void optimized(Point[] result, long startVersion) {
+        this.optimizationPending = false;
+
+        if (result != null && Utils.turningAnglesAreValid(result)) {
+            RouteTree current = this.route;
+            int currentInvalid = this.invalidAngles;
+
+            // Rebase the result (if needed) and keep it if it has less invalid angles or (with the same amount)
+            // is shorter, e.i. if the current route is valid, only a valid and shorter result is kept.
+            // Otherwise, restore the current route.
+            this.route = new RouteTree(result);
+            this.invalidAngles = 0;
+            if (startVersion != this.version) rebase(result, current);
+
+            boolean better = this.invalidAngles < currentInvalid
+                    || (this.invalidAngles == currentInvalid && this.route.length() < current.length() - EPSILON);
+
+            if (!better) {
+                this.route = current;
+                this.invalidAngles = currentInvalid;
+            }
+        }
+
+        // If the points changed in the meantime and the route is still invalid, try again
+        if (startVersion != this.version && this.invalidAngles > 0) optimizeIfNeeded();
+    }
+
+    /**
+     * Private methode rebasing the route (a background optimization's result) onto the points of
+     * another route, e.i. removing the points not in the other route anymore and inserting the
+     * points only in the other route, both with the local repair.
+     *
+     * @param result  The background optimization's result (the route's points)
+     * @param current The route with the current points
+     */
+    private void rebase(Point[] result, RouteTree current) {
+        Set<Point> optimized = new HashSet<>(Arrays.asList(result));
+
+        // Remove the points removed since the optimization started
+        for (Point point : result) {
+            if (!current.contains(point)) removeAndRepair(this.route.indexOf(point));
+        }
+
+        // Insert the points inserted since the optimization started (in the current route's order)
+        List<Point> inserted = new ArrayList<>();
+        for (Point point : current) {
+            if (!optimized.contains(point)) inserted.add(point);
+        }
+
+        for (Point point : inserted) insertAndRepair(point);
+    }
+}
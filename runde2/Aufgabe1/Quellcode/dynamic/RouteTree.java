@@ -0,0 +1,464 @@
+package de.flo.wenigerKrummeTouren.dynamic;
+
+import de.flo.wenigerKrummeTouren.util.Point;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Class representing a route as an implicit treap (a randomized balanced binary tree ordered by
+ * the points' positions in the route). Every node knows the size and the length of the subroute
+ * formed by its subtree, such that inserting and removing at a position, getting the point at a
+ * position, getting the position of a point and the length of any part of the route take
+ * O(log n) time (expected). Iterating over the route walks the tree in order without copying it.
+ * The route must not contain the same point twice.
+ * Note that this class is not thread-safe.
+ */
+public class RouteTree implements Iterable<Point> {
+
+    /**
+     * The root of the tree (null if the route is empty)
+     */
+    private Node root = null;
+
+    /**
+     * The nodes by their points
+     */
+    private final Map<Point, Node> nodes = new HashMap<>();
+
+    /**
+     * The random numbers used for the nodes' priorities (with a fixed seed, such that the tree is reproducible)
+     */
+    private final SplittableRandom random = new SplittableRandom(0L);
+
+    /**
+     * Public constructor creating an empty route.
+     */
+    public RouteTree() {
+    }
+
+    /**
+     * Public constructor creating a route from the given points in linear time.
+     *
+     * @param route The route's points in order
+     * @throws IllegalArgumentException If the route contains a point twice
+     */
+    public RouteTree(Point[] route) {
+        // Build the tree from left to right keeping the rightmost path on a stack (Cartesian tree)
+        Node[] stack = new Node[route.length];
+        int top = 0;
+
+        for (Point point : route) {
+            Node node = createNode(point);
+            Node last = null;
+
+            while (top > 0 && stack[top - 1].priority < node.priority) {
+                last = stack[--top];
+                update(last);
+            }
+
+            node.left = last;
+            if (last != null) last.parent = node;
+
+            if (top > 0) {
+                stack[top - 1].right = node;
+                node.parent = stack[top - 1];
+            }
+
+            stack[top++] = node;
+        }
+
+        while (top > 0) update(stack[--top]);
+        this.root = stack.length > 0 ? stack[0] : null;
+        if (this.root != null) this.root.parent = null;
+    }
+
+    /**
+     * Public method inserting a point at a given position (0 for the start, size for the end).
+     *
+     * @param position The position
+     * @param point    The point
+     * @throws IllegalArgumentException  If the point is already in the route
+     * @throws IndexOutOfBoundsException If the position is out of bounds
+     */
+    public void insert(int position, Point point) {
+        if (position < 0 || position > size()) throw new IndexOutOfBoundsException(String.valueOf(position));
+
+        Node node = createNode(point);
+        update(node);
+
+        Node[] parts = split(this.root, position);
+        this.root = merge(merge(parts[0], node), parts[1]);
+        this.root.parent = null;
+    }
+
+    /**
+     * Public method removing the point at a given position.
+     *
+     * @param position The position
+     * @return The removed point
+     * @throws IndexOutOfBoundsException If the position is out of bounds
+     */
+    public Point remove(int position) {
+        if (position < 0 || position >= size()) throw new IndexOutOfBoundsException(String.valueOf(position));
+
+        Node[] left = split(this.root, position);
+        Node[] right = split(left[1], 1);
+
+        this.root = merge(left[0], right[1]);
+        if (this.root != null) this.root.parent = null;
+
+        this.nodes.remove(right[0].point);
+        return right[0].point;
+    }
+
+    /**
+     * Public method returning the point at a given position.
+     *
+     * @param position The position
+     * @return The point
+     * @throws IndexOutOfBoundsException If the position is out of bounds
+     */
+    public Point get(int position) {
+        if (position < 0 || position >= size()) throw new IndexOutOfBoundsException(String.valueOf(position));
+
+        Node node = this.root;
+
+        while (true) {
+            int leftSize = size(node.left);
+
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position == leftSize) {
+                return node.point;
+            } else {
+                position -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Public method returning the position of a point.
+     *
+     * @param point The point
+     * @return The position (-1 if the point is not in the route)
+     */
+    public int indexOf(Point point) {
+        Node node = this.nodes.get(point);
+        if (node == null) return -1;
+
+        // Walk up to the root, counting all nodes to the left
+        int position = size(node.left);
+
+        while (node.parent != null) {
+            if (node.parent.right == node) position += size(node.parent.left) + 1;
+            node = node.parent;
+        }
+
+        return position;
+    }
+
+    /**
+     * Public method returning if a point is in the route.
+     *
+     * @param point The point
+     * @return If the point is in the route
+     */
+    public boolean contains(Point point) {
+        return this.nodes.containsKey(point);
+    }
+
+    /**
+     * Public method returning the amount of points in the route.
+     *
+     * @return The amount of points
+     */
+    public int size() {
+        return size(this.root);
+    }
+
+    /**
+     * Public method returning the route's length.
+     *
+     * @return The length
+     */
+    public double length() {
+        return this.root == null ? 0D : this.root.length;
+    }
+
+    /**
+     * Public method returning the length of the part of the route from one position to another one (both inclusive).
+     *
+     * @param from The first position
+     * @param to   The last position (at least from)
+     * @return The length
+     * @throws IndexOutOfBoundsException If a position is out of bounds
+     */
+    public double length(int from, int to) {
+        if (from < 0 || to >= size() || from > to) throw new IndexOutOfBoundsException(from + ".." + to);
+        return prefixLength(to + 1) - prefixLength(from + 1);
+    }
+
+    /**
+     * Public method returning the route's points in order.
+     *
+     * @return The points
+     */
+    public Point[] toArray() {
+        Point[] route = new Point[size()];
+        fill(this.root, route, 0);
+        return route;
+    }
+
+    /**
+     * Implementation of the iterator-methode returning an iterator over the route's points in order.
+     * The iterator walks from every node to its successor using the parent pointers, so it needs
+     * O(n) time for the whole route and no extra memory. The route must not be changed while iterating.
+     *
+     * @return The iterator
+     */
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<Point>() {
+            /**
+             * The node of the next point (null if there is none)
+             */
+            private Node next = leftmost(RouteTree.this.root);
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public Point next() {
+                if (this.next == null) throw new NoSuchElementException();
+
+                Node node = this.next;
+                this.next = successor(node);
+                return node.point;
+            }
+        };
+    }
+
+    /**
+     * Private methode returning the length of the route's first points.
+     *
+     * @param count The amount of points (at least 1)
+     * @return The length
+     */
+    private double prefixLength(int count) {
+        Node node = this.root;
+        double length = 0D;
+
+        while (true) {
+            int leftSize = size(node.left);
+
+            if (count <= leftSize) {
+                node = node.left;
+                continue;
+            }
+
+            // The left subtree and the current node belong to the prefix
+            if (node.left != null) length += node.left.length + node.left.last.distance(node.point);
+            if (count == leftSize + 1) return length;
+
+            // The prefix continues into the right subtree
+            length += node.point.distance(node.right.first);
+            count -= leftSize + 1;
+            node = node.right;
+        }
+    }
+
+    /**
+     * Private methode creating a node with a random priority and registering it.
+     *
+     * @param point The node's point
+     * @return The node
+     * @throws IllegalArgumentException If the point is already in the route
+     */
+    private Node createNode(Point point) {
+        if (this.nodes.containsKey(point)) throw new IllegalArgumentException("Point " + point + " is already in the route");
+
+        Node node = new Node(point, this.random.nextInt());
+        this.nodes.put(point, node);
+        return node;
+    }
+
+    /**
+     * Private static function splitting a tree into the first points and the rest.
+     *
+     * @param node  The tree's root (might be null)
+     * @param count The amount of first points
+     * @return The roots of both parts (might be null)
+     */
+    private static Node[] split(Node node, int count) {
+        if (node == null) return new Node[2];
+
+        int leftSize = size(node.left);
+
+        if (count <= leftSize) {
+            Node[] parts = split(node.left, count);
+            node.left = parts[1];
+            if (parts[1] != null) parts[1].parent = node;
+            update(node);
+
+            if (parts[0] != null) parts[0].parent = null;
+            node.parent = null;
+            return new Node[]{parts[0], node};
+        } else {
+            Node[] parts = split(node.right, count - leftSize - 1);
+            node.right = parts[0];
+            if (parts[0] != null) parts[0].parent = node;
+            update(node);
+
+            if (parts[1] != null) parts[1].parent = null;
+            node.parent = null;
+            return new Node[]{node, parts[1]};
+        }
+    }
+
+    /**
+     * Private static function merging two trees, the first one's points coming first.
+     *
+     * @param left  The first tree's root (might be null)
+     * @param right The second tree's root (might be null)
+     * @return The merged tree's root
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.right.parent = left;
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.left.parent = right;
+            update(right);
+            return right;
+        }
+    }
+
+    /**
+     * Private static function updating the size, length and first and last point of a node's subtree.
+     *
+     * @param node The node
+     */
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        node.first = node.left != null ? node.left.first : node.point;
+        node.last = node.right != null ? node.right.last : node.point;
+
+        double length = 0D;
+        if (node.left != null) length += node.left.length + node.left.last.distance(node.point);
+        if (node.right != null) length += node.point.distance(node.right.first) + node.right.length;
+        node.length = length;
+    }
+
+    /**
+     * Private static function returning the size of a subtree.
+     *
+     * @param node The subtree's root (might be null)
+     * @return The size
+     */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Private static function returning the first node of a subtree in order.
+     *
+     * @param node The subtree's root (might be null)
+     * @return The first node (null if the subtree is empty)
+     */
+    private static Node leftmost(Node node) {
+        if (node == null) return null;
+
+        while (node.left != null) node = node.left;
+        return node;
+    }
+
+    /**
+     * Private static function returning the node following a given node in order.
+     *
+     * @param node The node
+     * @return The next node (null if the node is the last one)
+     */
+    private static Node successor(Node node) {
+        if (node.right != null) return leftmost(node.right);
+
+        // Go up until the node is in the left subtree of its parent
+        while (node.parent != null && node.parent.right == node) node = node.parent;
+        return node.parent;
+    }
+
+    /**
+     * Private static function writing the points of a subtree into an array in order.
+     *
+     * @param node  The subtree's root (might be null)
+     * @param route The array
+     * @param index The index of the subtree's first point
+     * @return The index after the subtree's last point
+     */
+    private static int fill(Node node, Point[] route, int index) {
+        if (node == null) return index;
+
+        index = fill(node.left, route, index);
+        route[index++] = node.point;
+        return fill(node.right, route, index);
+    }
+
+    /**
+     * Class representing a node of the tree, e.i. a point of the route.
+     */
+    private static final class Node {
+
+        /**
+         * The node's point
+         */
+        private final Point point;
+
+        /**
+         * The node's random priority (a parent's priority is bigger than its children's)
+         */
+        private final int priority;
+
+        /**
+         * The node's children and parent (might be null)
+         */
+        private Node left, right, parent;
+
+        /**
+         * The amount of points in the node's subtree
+         */
+        private int size;
+
+        /**
+         * The length of the subroute formed by the node's subtree
+         */
+        private double length;
+
+        /**
+         * The first and last point of the subroute formed by the node's subtree
+         */
+        private Point first, last;
+
+        /**
+         * Constructor taking in the node's point and priority.
+         *
+         * @param point    The point
+         * @param priority The priority
+         */
+        private Node(Point point, int priority) {
+            this.point = point;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package de.flo.wenigerKrummeTouren.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Final class emitting the statistics of searches as custom JFR (Java Flight Recorder) events:
+ * "de.flo.wenigerKrummeTouren.Improvement" whenever a better route is found and
+ * "de.flo.wenigerKrummeTouren.Progress" whenever SearchMetrics reports the progress.
+ * Since this program is compiled for Java 8, which has no JFR API, the events are defined at runtime
+ * through jdk.jfr.EventFactory using reflection. If the JVM has no JFR, no events are emitted.
+ * The events are only recorded if a recording is running, e.g. using -XX:StartFlightRecording.
+ */
+final class JfrEvents {
+
+    /**
+     * The factory of the improvement events (null if JFR is not available)
+     */
+    private static final Object IMPROVEMENT;
+
+    /**
+     * The factory of the progress events (null if JFR is not available)
+     */
+    private static final Object PROGRESS;
+
+    /**
+     * The methode EventFactory#newEvent
+     */
+    private static final Method NEW_EVENT;
+
+    /**
+     * The methode Event#set(int, Object)
+     */
+    private static final Method SET;
+
+    /**
+     * The methode Event#commit
+     */
+    private static final Method COMMIT;
+
+    static {
+        Object improvement = null, progress = null;
+        Method newEvent = null, set = null, commit = null;
+
+        try {
+            Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+            Method create = factory.getMethod("create", List.class, List.class);
+
+            improvement = create.invoke(null, annotations("Improvement", "Search Improvement"),
+                    values(new Class<?>[]{long.class, double.class}, "elapsedMillis", "length"));
+            progress = create.invoke(null, annotations("Progress", "Search Progress"),
+                    values(new Class<?>[]{long.class, long.class, long.class, long.class, double.class},
+                            "elapsedMillis", "nodes", "prunedByBound", "prunedByAngle", "explored"));
+
+            newEvent = factory.getMethod("newEvent");
+            set = event.getMethod("set", int.class, Object.class);
+            commit = event.getMethod("commit");
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // JFR is not available
+            improvement = null;
+            progress = null;
+        }
+
+        IMPROVEMENT = improvement;
+        PROGRESS = progress;
+        NEW_EVENT = newEvent;
+        SET = set;
+        COMMIT = commit;
+    }
+
+    /**
+     * Private constructor, such that no instances of this class can be created
+     */
+    private JfrEvents() {
+    }
+
+    /**
+     * Static function emitting an improvement event.
+     *
+     * @param improvement The improvement
+     */
+    static void improvement(SearchStatistics.Improvement improvement) {
+        emit(IMPROVEMENT, improvement.getElapsedMillis(), improvement.getLength());
+    }
+
+    /**
+     * Static function emitting a progress event.
+     *
+     * @param statistics The current statistics
+     */
+    static void progress(SearchStatistics statistics) {
+        emit(PROGRESS, statistics.getElapsedMillis(), statistics.getTotalNodes(), statistics.getTotalPrunedByBound(),
+                statistics.getTotalPrunedByAngle(), statistics.getExplored());
+    }
+
+    /**
+     * Private static function creating and committing an event.
+     *
+     * @param factory The event's factory (nothing is emitted if null)
+     * @param values  The event's values
+     */
+    private static void emit(Object factory, Object... values) {
+        if (factory == null) return;
+
+        try {
+            Object event = NEW_EVENT.invoke(factory);
+            for (int i = 0; i < values.length; i++) SET.invoke(event, i, values[i]);
+            COMMIT.invoke(event);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Events are optional, the search must not fail because of them
+        }
+    }
+
+    /**
+     * Private static function creating the annotations (jdk.jfr.AnnotationElement) of an event type.
+     *
+     * @param name  The event's name (without the package)
+     * @param label The event's label
+     * @return The annotations
+     * @throws ReflectiveOperationException If JFR is not available
+     */
+    private static List<Object> annotations(String name, String label) throws ReflectiveOperationException {
+        Class<?> element = Class.forName("jdk.jfr.AnnotationElement");
+        Constructor<?> constructor = element.getConstructor(Class.class, Object.class);
+
+        List<Object> annotations = new ArrayList<>();
+        annotations.add(constructor.newInstance(annotation("jdk.jfr.Name"), "de.flo.wenigerKrummeTouren." + name));
+        annotations.add(constructor.newInstance(annotation("jdk.jfr.Label"), label));
+        annotations.add(constructor.newInstance(annotation("jdk.jfr.Category"), new String[]{"Weniger Krumme Touren"}));
+
+        return annotations;
+    }
+
+    /**
+     * Private static function creating the fields (jdk.jfr.ValueDescriptor) of an event type.
+     *
+     * @param types The fields' types
+     * @param names The fields' names
+     * @return The fields
+     * @throws ReflectiveOperationException If JFR is not available
+     */
+    private static List<Object> values(Class<?>[] types, String... names) throws ReflectiveOperationException {
+        Constructor<?> constructor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class);
+
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) values.add(constructor.newInstance(types[i], names[i]));
+
+        return values;
+    }
+
+    /**
+     * Private static function loading an annotation type by its name.
+     *
+     * @param name The annotation type's name
+     * @return The annotation type
+     * @throws ClassNotFoundException If the annotation type doesn't exist
+     */
+    private static Class<? extends Annotation> annotation(String name) throws ClassNotFoundException {
+        return Class.forName(name).asSubclass(Annotation.class);
+    }
+}
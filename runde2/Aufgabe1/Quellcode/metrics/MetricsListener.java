@@ -0,0 +1,44 @@
+package de.flo.wenigerKrummeTouren.metrics;
+
+import java.io.File;
+
+/**
+ * Interface for listeners of SearchMetrics, e.g. for printing the progress of a search.
+ */
+public interface MetricsListener {
+
+    /**
+     * Method called periodically (by the reporting thread of SearchMetrics) with the current statistics of the search.
+     *
+     * @param statistics The current statistics
+     */
+    default void progress(SearchStatistics statistics) {
+    }
+
+    /**
+     * Method called whenever the search found a better route. Note that this method is
+     * called by the searching thread that found the route, so it should return quickly.
+     *
+     * @param improvement The improvement
+     */
+    default void improved(SearchStatistics.Improvement improvement) {
+    }
+
+    /**
+     * Method called when the search resumes from a checkpoint.
+     *
+     * @param checkpoint The checkpoint file
+     * @param prefixes   The amount of prefixes left to search
+     */
+    default void resumed(File checkpoint, int prefixes) {
+    }
+
+    /**
+     * Method called when a checkpoint file exists, but the search starts from scratch.
+     *
+     * @param checkpoint The checkpoint file
+     * @param unreadable If the file could not be read (otherwise, it belongs to other points)
+     */
+    default void checkpointIgnored(File checkpoint, boolean unreadable) {
+    }
+}
@@ -0,0 +1,282 @@
+package de.flo.wenigerKrummeTouren.metrics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class collecting the statistics of a (possibly parallel) search of the exact solvers:
+ * the nodes expanded and the nodes skipped by the bound and by the turning angle constraint per depth,
+ * all improvements of the best route and an estimate of the fraction of the search tree explored.
+ * Every searching thread counts into its own Counters without any synchronization, such that counting
+ * costs only a few instructions. Searches without metrics skip counting entirely.
+ * Snapshots are created by summing up all counters while they're updated, so they are approximate.
+ * Listeners and JFR events get the improvements immediately and the statistics periodically (see startReporting).
+ * Listeners are also told if the search resumes from a checkpoint or ignores one.
+ */
+public class SearchMetrics implements AutoCloseable {
+
+    /**
+     * The amount of points (the largest depth)
+     */
+    private final int size;
+
+    /**
+     * The time the search started in ms
+     */
+    private final long start;
+
+    /**
+     * The counters of all searching threads
+     */
+    private final List<Counters> counters = new CopyOnWriteArrayList<>();
+
+    /**
+     * The listeners
+     */
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * All improvements of the best route so far
+     */
+    private final List<SearchStatistics.Improvement> improvements = new ArrayList<>();
+
+    /**
+     * The executor reporting the statistics periodically (null if not reporting)
+     */
+    private ScheduledExecutorService reporter = null;
+
+    /**
+     * Public constructor taking in the amount of points of the instance searched. The time
+     * of the search is measured from the creation of the metrics.
+     *
+     * @param size The amount of points
+     */
+    public SearchMetrics(int size) {
+        this.size = size;
+        this.start = System.currentTimeMillis();
+    }
+
+    /**
+     * Public method creating new counters for a searching thread.
+     *
+     * @return The counters
+     */
+    public Counters newCounters() {
+        Counters counters = new Counters(this);
+        this.counters.add(counters);
+        return counters;
+    }
+
+    /**
+     * Public method adding a listener.
+     *
+     * @param listener The listener
+     */
+    public void addListener(MetricsListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Public method starting to report the statistics to the listeners and as JFR events periodically,
+     * using its own (daemon) thread. Does nothing if the reporting already started.
+     *
+     * @param intervalMillis The time between two reports in ms
+     */
+    public synchronized void startReporting(long intervalMillis) {
+        if (this.reporter != null) return;
+
+        this.reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.reporter.scheduleAtFixedRate(this::report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Public method creating a snapshot of the current statistics.
+     *
+     * @return The snapshot
+     */
+    public SearchStatistics snapshot() {
+        long[] nodes = new long[this.size + 1];
+        long[] prunedByBound = new long[this.size + 1];
+        long[] prunedByAngle = new long[this.size + 1];
+        double explored = 0D;
+
+        for (Counters counters : this.counters) {
+            for (int depth = 0; depth <= this.size; depth++) {
+                nodes[depth] += counters.nodes[depth];
+                prunedByBound[depth] += counters.prunedByBound[depth];
+                prunedByAngle[depth] += counters.prunedByAngle[depth];
+            }
+
+            explored += counters.explored;
+        }
+
+        List<SearchStatistics.Improvement> improvements;
+        synchronized (this.improvements) {
+            improvements = new ArrayList<>(this.improvements);
+        }
+
+        return new SearchStatistics(System.currentTimeMillis() - this.start, nodes, prunedByBound, prunedByAngle,
+                Math.min(1D, explored), improvements);
+    }
+
+    /**
+     * Implementation of the close-methode stopping the periodic reporting.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.reporter != null) this.reporter.shutdownNow();
+        this.reporter = null;
+    }
+
+    /**
+     * Public method telling all listeners that the search resumes from a checkpoint.
+     *
+     * @param checkpoint The checkpoint file
+     * @param prefixes   The amount of prefixes left to search
+     */
+    public void resumed(File checkpoint, int prefixes) {
+        for (MetricsListener listener : this.listeners) listener.resumed(checkpoint, prefixes);
+    }
+
+    /**
+     * Public method telling all listeners that a checkpoint file is ignored and the search starts from scratch.
+     *
+     * @param checkpoint The checkpoint file
+     * @param unreadable If the file could not be read (otherwise, it belongs to other points)
+     */
+    public void checkpointIgnored(File checkpoint, boolean unreadable) {
+        for (MetricsListener listener : this.listeners) listener.checkpointIgnored(checkpoint, unreadable);
+    }
+
+    /**
+     * Private methode reporting the current statistics to all listeners and as JFR event.
+     */
+    private void report() {
+        SearchStatistics statistics = snapshot();
+        JfrEvents.progress(statistics);
+
+        for (MetricsListener listener : this.listeners) listener.progress(statistics);
+    }
+
+    /**
+     * Private methode recording an improvement of the best route.
+     *
+     * @param length The new best route's length
+     */
+    private void improved(double length) {
+        SearchStatistics.Improvement improvement = new SearchStatistics.Improvement(System.currentTimeMillis() - this.start, length);
+
+        synchronized (this.improvements) {
+            this.improvements.add(improvement);
+        }
+
+        JfrEvents.improvement(improvement);
+        for (MetricsListener listener : this.listeners) listener.improved(improvement);
+    }
+
+    /**
+     * Class containing the counters of one searching thread. The methods are meant to be called by
+     * that thread only, the values are read by other threads without synchronization.
+     * The weight of a node used for estimating the fraction explored is the product of the reciprocals
+     * of its ancestors' amounts of children (the root has the weight 1).
+     */
+    public static final class Counters {
+
+        /**
+         * The metrics these counters belong to
+         */
+        private final SearchMetrics metrics;
+
+        /**
+         * The amount of nodes expanded per depth
+         */
+        private final long[] nodes;
+
+        /**
+         * The amount of nodes skipped per depth because they were longer than the best route
+         */
+        private final long[] prunedByBound;
+
+        /**
+         * The amount of nodes skipped per depth because they didn't meet the turning angle constraint
+         */
+        private final long[] prunedByAngle;
+
+        /**
+         * The sum of the weights of all subtrees searched completely or skipped
+         */
+        private double explored = 0D;
+
+        /**
+         * Private constructor taking in the metrics these counters belong to.
+         *
+         * @param metrics The metrics
+         */
+        private Counters(SearchMetrics metrics) {
+            this.metrics = metrics;
+            this.nodes = new long[metrics.size + 1];
+            this.prunedByBound = new long[metrics.size + 1];
+            this.prunedByAngle = new long[metrics.size + 1];
+        }
+
+        /**
+         * Public method counting a node that is expanded.
+         *
+         * @param depth The node's depth
+         */
+        public void node(int depth) {
+            this.nodes[depth]++;
+        }
+
+        /**
+         * Public method counting a node that is skipped because it's longer than the best route.
+         *
+         * @param depth  The node's depth
+         * @param weight The node's weight
+         */
+        public void prunedByBound(int depth, double weight) {
+            this.prunedByBound[depth]++;
+            this.explored += weight;
+        }
+
+        /**
+         * Public method counting a node that is skipped because it doesn't meet the turning angle constraint.
+         *
+         * @param depth  The node's depth
+         * @param weight The node's weight
+         */
+        public void prunedByAngle(int depth, double weight) {
+            this.prunedByAngle[depth]++;
+            this.explored += weight;
+        }
+
+        /**
+         * Public method counting a subtree as explored without counting a node, e.g. for a complete route
+         * or for subtrees that were searched before (resuming from a checkpoint).
+         *
+         * @param weight The subtree's weight
+         */
+        public void explored(double weight) {
+            this.explored += weight;
+        }
+
+        /**
+         * Public method recording an improvement of the best route.
+         *
+         * @param length The new best route's length
+         */
+        public void improved(double length) {
+            this.metrics.improved(length);
+        }
+    }
+}
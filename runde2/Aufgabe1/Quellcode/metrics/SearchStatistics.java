@@ -0,0 +1,229 @@
+package de.flo.wenigerKrummeTouren.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Class representing a snapshot of the statistics of a search collected by SearchMetrics.
+ * The depth of a node is the amount of points in its (sub)route.
+ */
+public class SearchStatistics {
+
+    /**
+     * The time in ms since the search started
+     */
+    private final long elapsedMillis;
+
+    /**
+     * The amount of nodes expanded per depth
+     */
+    private final long[] nodes;
+
+    /**
+     * The amount of nodes skipped per depth because they were longer than the best route
+     */
+    private final long[] prunedByBound;
+
+    /**
+     * The amount of nodes skipped per depth because they didn't meet the turning angle constraint
+     */
+    private final long[] prunedByAngle;
+
+    /**
+     * The estimated fraction of the search tree explored (between 0 and 1)
+     */
+    private final double explored;
+
+    /**
+     * All improvements of the best route so far
+     */
+    private final List<Improvement> improvements;
+
+    /**
+     * Public constructor taking in all values of the snapshot.
+     *
+     * @param elapsedMillis The time in ms since the search started
+     * @param nodes         The amount of nodes expanded per depth
+     * @param prunedByBound The amount of nodes skipped per depth because of the bound
+     * @param prunedByAngle The amount of nodes skipped per depth because of the turning angle constraint
+     * @param explored      The estimated fraction of the search tree explored
+     * @param improvements  All improvements of the best route so far
+     */
+    public SearchStatistics(long elapsedMillis, long[] nodes, long[] prunedByBound, long[] prunedByAngle,
+                            double explored, List<Improvement> improvements) {
+        this.elapsedMillis = elapsedMillis;
+        this.nodes = nodes;
+        this.prunedByBound = prunedByBound;
+        this.prunedByAngle = prunedByAngle;
+        this.explored = explored;
+        this.improvements = Collections.unmodifiableList(improvements);
+    }
+
+    /**
+     * Getter for the time in ms since the search started
+     *
+     * @return The time in ms
+     */
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * Getter for the amount of nodes expanded at a given depth
+     *
+     * @param depth The depth
+     * @return The amount of nodes
+     */
+    public long getNodes(int depth) {
+        return this.nodes[depth];
+    }
+
+    /**
+     * Getter for the amount of nodes skipped at a given depth because they were longer than the best route
+     *
+     * @param depth The depth
+     * @return The amount of nodes
+     */
+    public long getPrunedByBound(int depth) {
+        return this.prunedByBound[depth];
+    }
+
+    /**
+     * Getter for the amount of nodes skipped at a given depth because they didn't meet the turning angle constraint
+     *
+     * @param depth The depth
+     * @return The amount of nodes
+     */
+    public long getPrunedByAngle(int depth) {
+        return this.prunedByAngle[depth];
+    }
+
+    /**
+     * Getter for the largest depth (the amount of points)
+     *
+     * @return The largest depth
+     */
+    public int getMaxDepth() {
+        return this.nodes.length - 1;
+    }
+
+    /**
+     * Public method returning the total amount of nodes expanded
+     *
+     * @return The amount of nodes
+     */
+    public long getTotalNodes() {
+        return sum(this.nodes);
+    }
+
+    /**
+     * Public method returning the total amount of nodes skipped because they were longer than the best route
+     *
+     * @return The amount of nodes
+     */
+    public long getTotalPrunedByBound() {
+        return sum(this.prunedByBound);
+    }
+
+    /**
+     * Public method returning the total amount of nodes skipped because they didn't meet the turning angle constraint
+     *
+     * @return The amount of nodes
+     */
+    public long getTotalPrunedByAngle() {
+        return sum(this.prunedByAngle);
+    }
+
+    /**
+     * Getter for the estimated fraction of the search tree explored. Every node is weighted by the
+     * product of the reciprocals of its ancestors' amounts of children, and the weights of all
+     * subtrees searched completely (or skipped) are summed up.
+     *
+     * @return The fraction (between 0 and 1)
+     */
+    public double getExplored() {
+        return this.explored;
+    }
+
+    /**
+     * Getter for all improvements of the best route so far
+     *
+     * @return The improvements in the order they were found
+     */
+    public List<Improvement> getImprovements() {
+        return this.improvements;
+    }
+
+    /**
+     * Implementation of the toString-methode returning the statistics as a progress line.
+     *
+     * @return The progress line
+     */
+    @Override
+    public String toString() {
+        String best = this.improvements.isEmpty() ? "-" : String.format(Locale.ROOT, "%.3f",
+                this.improvements.get(this.improvements.size() - 1).getLength());
+
+        return String.format(Locale.ROOT, "[%6.1fs] nodes=%d pruned(bound)=%d pruned(angle)=%d improvements=%d best=%s explored=%.4f%%",
+                this.elapsedMillis / 1000D, getTotalNodes(), getTotalPrunedByBound(), getTotalPrunedByAngle(),
+                this.improvements.size(), best, this.explored * 100D);
+    }
+
+    /**
+     * Private static function summing up an array
+     *
+     * @param array The array
+     * @return The sum
+     */
+    private static long sum(long[] array) {
+        long sum = 0L;
+        for (long value : array) sum += value;
+        return sum;
+    }
+
+    /**
+     * Class representing an improvement of the best route.
+     */
+    public static class Improvement {
+
+        /**
+         * The time in ms since the search started
+         */
+        private final long elapsedMillis;
+
+        /**
+         * The new best route's length
+         */
+        private final double length;
+
+        /**
+         * Public constructor taking in the time and the new length.
+         *
+         * @param elapsedMillis The time in ms since the search started
+         * @param length        The new best route's length
+         */
+        public Improvement(long elapsedMillis, double length) {
+            this.elapsedMillis = elapsedMillis;
+            this.length = length;
+        }
+
+        /**
+         * Getter for the time in ms since the search started
+         *
+         * @return The time in ms
+         */
+        public long getElapsedMillis() {
+            return this.elapsedMillis;
+        }
+
+        /**
+         * Getter for the new best route's length
+         *
+         * @return The length
+         */
+        public double getLength() {
+            return this.length;
+        }
+    }
+}
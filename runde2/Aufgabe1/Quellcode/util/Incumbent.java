@@ -0,0 +1,93 @@
+package de.flo.wenigerKrummeTouren.util;
+
+/**
+ * Thread-safe class keeping track of the best route found so far (the incumbent), given by
+ * the indexes of its points, and its length. Several threads (or solvers) can share one
+ * instance of this class, such that every one of them can use the best length found
+ * by any of them as a bound.
+ * If two routes have the same length, the lexicographically smaller one (by the
+ * points' indexes) is kept, such that the result does not depend on the order in
+ * which the routes were found.
+ */
+public class Incumbent {
+
+    /**
+     * The best route's length, or Double.POSITIVE_INFINITY if no route was found yet.
+     * Volatile, such that reading the bound does not need any locking.
+     */
+    private volatile double length = Double.POSITIVE_INFINITY;
+
+    /**
+     * The best route found so far given by the points' indexes (null if none was found yet)
+     */
+    private int[] route = null;
+
+    /**
+     * Public method offering a route to this incumbent. The route is only taken if it's
+     * shorter than the best one, or as long as the best one but lexicographically smaller.
+     *
+     * @param route  The route given by the points' indexes (will be copied if taken)
+     * @param length The route's length
+     * @return If the given route is the new best route
+     */
+    public boolean offer(int[] route, double length) {
+        // Quick check without locking
+        if (length > this.length) return false;
+
+        synchronized (this) {
+            if (length > this.length) return false;
+            if (length == this.length && compare(route, this.route) >= 0) return false;
+
+            this.route = route.clone();
+            this.length = length;
+            return true;
+        }
+    }
+
+    /**
+     * Getter for the best route's length, used as the bound by the solvers.
+     *
+     * @return The best route's length or Double.POSITIVE_INFINITY if no route was found yet
+     */
+    public double getLength() {
+        return this.length;
+    }
+
+    /**
+     * Getter for a copy of the best route found so far.
+     *
+     * @return A copy of the best route given by the points' indexes, or null if none was found yet
+     */
+    public synchronized int[] getRoute() {
+        return this.route == null ? null : this.route.clone();
+    }
+
+    /**
+     * Public method returning if a route was found yet.
+     *
+     * @return If a route was found yet
+     */
+    public boolean hasRoute() {
+        return this.length != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Private static function comparing two routes lexicographically.
+     * Null is greater than every route.
+     *
+     * @param a The first route
+     * @param b The second route
+     * @return A negative number, zero or a positive number if the first route is smaller, equal or greater than the second one
+     */
+    private static int compare(int[] a, int[] b) {
+        if (a == b) return 0;
+        if (a == null) return 1;
+        if (b == null) return -1;
+
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+        }
+
+        return Integer.compare(a.length, b.length);
+    }
+}
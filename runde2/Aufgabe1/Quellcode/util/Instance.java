@@ -0,0 +1,282 @@
+package de.flo.wenigerKrummeTouren.util;
+
+/**
+ * Class representing an instance of the problem, e.i. the given points together with
+ * precomputed distances and (for small instances) precomputed turning angle constraints.
+ * In contrast to the Point-class, the points are addressed by their index in the points-array,
+ * such that solvers can work on int-arrays instead of lists and sets of points.
+ * If enabled and the coordinates are integers in disguise (e.g. "200.000000"), they are used as IntegerCoordinates,
+ * such that the turning angle constraints are decided exactly and the distances
+ * are computed from exact squared distances (cached as longs).
+ */
+public class Instance {
+
+    /**
+     * The maximal amount of points for which all turning angle constraints are precomputed.
+     * For 256 points, that are 256^3 bits, e.i. 2 MB.
+     */
+    private static final int MAX_CACHED_ANGLES = 256;
+
+    /**
+     * The given points
+     */
+    private final Point[] points;
+
+    /**
+     * The amount of points
+     */
+    private final int size;
+
+    /**
+     * The distances between all pairs of points as a flat array, e.i. the
+     * distance from the i-th to the j-th point is at index i * size + j.
+     */
+    private final double[] distances;
+
+    /**
+     * Bitset containing if the turning angle constraint is met for the points
+     * with the indexes (i, j, k) at the bit (i * size + j) * size + k, or null
+     * if there are too many points to precompute them.
+     */
+    private final long[] validAngles;
+
+    /**
+     * The points' integer coordinates (null if the points' coordinates are not used as integers)
+     */
+    private final IntegerCoordinates integers;
+
+    /**
+     * The exact squared distances between all pairs of points in scaled integer coordinates
+     * (same layout as distances), or null if the points' coordinates are not used as integers
+     */
+    private final long[] squaredDistances;
+
+    /**
+     * Public constructor taking in the points and precomputing all distances and,
+     * if there are not too many points, all turning angle constraints.
+     * Integer coordinates are not used.
+     *
+     * @param points The points
+     */
+    public Instance(Point[] points) {
+        this(points, false);
+    }
+
+    /**
+     * Public constructor taking in the points and if integer coordinates should be used (if they are
+     * detected), precomputing all distances and, if there are not too many points, all turning angle constraints.
+     * Whether they were used is returned by isIntegral(), as big coordinates with many decimal places
+     * don't qualify (see IntegerCoordinates).
+     *
+     * @param points      The points
+     * @param useIntegers If the coordinates should be used as integers if possible
+     */
+    public Instance(Point[] points, boolean useIntegers) {
+        this.points = points;
+        this.size = points.length;
+        this.integers = useIntegers ? IntegerCoordinates.detect(points) : null;
+
+        // Precompute the distances between all pairs of points (exactly, if the coordinates are integers)
+        int n = this.size;
+        this.distances = new double[n * n];
+        this.squaredDistances = this.integers != null ? new long[n * n] : null;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (this.integers != null) {
+                    this.squaredDistances[i * n + j] = this.integers.squaredDistance(i, j);
+                    this.distances[i * n + j] = Math.sqrt(this.squaredDistances[i * n + j]) / this.integers.getScale();
+                } else {
+                    this.distances[i * n + j] = points[i].distance(points[j]);
+                }
+            }
+        }
+
+        // Precompute the turning angle constraint for all triples of points
+        // if there are not too many of them
+        if (n <= MAX_CACHED_ANGLES) {
+            this.validAngles = new long[(n * n * n + 63) / 64];
+
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    for (int k = 0; k < n; k++) {
+                        if (computeIsValid(i, j, k)) {
+                            int bit = (i * n + j) * n + k;
+                            this.validAngles[bit >>> 6] |= 1L << bit;
+                        }
+                    }
+                }
+            }
+        } else {
+            this.validAngles = null;
+        }
+    }
+
+    /**
+     * Public method returning the distance from the i-th point to the j-th point.
+     *
+     * @param i The first point's index
+     * @param j The second point's index
+     * @return The distance between both points
+     */
+    public double distance(int i, int j) {
+        return this.distances[i * this.size + j];
+    }
+
+    /**
+     * Public method checking weather the turning angle constraint is met by the points
+     * with the indexes p, q and r (in that order).
+     *
+     * @param p The first point's index
+     * @param q The second point's index
+     * @param r The last point's index
+     * @return If the angle between QP and QR is at least 90 degrees
+     */
+    public boolean isValid(int p, int q, int r) {
+        if (this.validAngles == null) return computeIsValid(p, q, r);
+
+        int bit = (p * this.size + q) * this.size + r;
+        return (this.validAngles[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Private methode checking the turning angle constraint for the points with the indexes p, q and r
+     * without the precomputed constraints, exactly if the coordinates are integers.
+     *
+     * @param p The first point's index
+     * @param q The second point's index
+     * @param r The last point's index
+     * @return If the angle between QP and QR is at least 90 degrees
+     */
+    private boolean computeIsValid(int p, int q, int r) {
+        if (this.integers != null) return this.integers.isValid(p, q, r);
+        return Utils.turningAngleIsValid(this.points[p], this.points[q], this.points[r]);
+    }
+
+    /**
+     * Public method returning the exact squared distance from the i-th point to the j-th point
+     * in scaled integer coordinates (see getIntegerCoordinates()).
+     *
+     * @param i The first point's index
+     * @param j The second point's index
+     * @return The squared distance between both points
+     * @throws IllegalStateException If the coordinates are not used as integers
+     */
+    public long squaredDistance(int i, int j) {
+        if (this.squaredDistances == null) throw new IllegalStateException("The coordinates are not used as integers");
+        return this.squaredDistances[i * this.size + j];
+    }
+
+    /**
+     * Public method returning if the coordinates are used as integers, e.i. if the turning angle constraints are exact.
+     *
+     * @return If the coordinates are used as integers
+     */
+    public boolean isIntegral() {
+        return this.integers != null;
+    }
+
+    /**
+     * Public method checking if a route given by the points' indexes visits every point exactly once.
+     * The turning angle constraint is not checked (see LocalSearch.anglesAreValid).
+     *
+     * @param route The route given by the points' indexes (might be null)
+     * @return If the route is a permutation of all points' indexes
+     */
+    public boolean isRoute(int[] route) {
+        if (route == null || route.length != this.size) return false;
+
+        boolean[] visited = new boolean[this.size];
+
+        for (int point : route) {
+            if (point < 0 || point >= this.size || visited[point]) return false;
+            visited[point] = true;
+        }
+
+        return true;
+    }
+
+    /**
+     * Public method computing the length of a route given by the indexes of its points.
+     *
+     * @param route The route given by the points' indexes
+     * @return The route's length
+     */
+    public double length(int[] route) {
+        double length = 0D;
+
+        for (int i = 0; i < route.length - 1; i++) {
+            length += distance(route[i], route[i + 1]);
+        }
+
+        return length;
+    }
+
+    /**
+     * Public method converting a route given by the points' indexes into an array of points.
+     *
+     * @param route The route given by the points' indexes (might be null)
+     * @return The route as an array of points (null if the given route is null)
+     */
+    public Point[] toPoints(int[] route) {
+        if (route == null) return null;
+
+        Point[] result = new Point[route.length];
+        for (int i = 0; i < route.length; i++) result[i] = this.points[route[i]];
+
+        return result;
+    }
+
+    /**
+     * Public method computing a fingerprint of the given points. Used to make sure
+     * data written to disk (e.g. checkpoints) belongs to the same instance.
+     *
+     * @return The instance's fingerprint
+     */
+    public long fingerprint() {
+        long hash = 1125899906842597L;
+
+        for (Point point : this.points) {
+            hash = 31 * hash + point.hashCode();
+        }
+
+        return hash;
+    }
+
+    /**
+     * Getter for the points array
+     *
+     * @return The points array
+     */
+    public Point[] getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Getter for a given point
+     *
+     * @param i The point's index
+     * @return The point at the given index
+     */
+    public Point getPoint(int i) {
+        return this.points[i];
+    }
+
+    /**
+     * Getter for the points' integer coordinates
+     *
+     * @return The integer coordinates (null if the coordinates are not used as integers)
+     */
+    public IntegerCoordinates getIntegerCoordinates() {
+        return this.integers;
+    }
+
+    /**
+     * Getter for size, that is the amount of points given
+     *
+     * @return The amount of points
+     */
+    public int getSize() {
+        return this.size;
+    }
+}
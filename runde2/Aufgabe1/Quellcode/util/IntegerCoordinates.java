@@ -0,0 +1,189 @@
+package de.flo.wenigerKrummeTouren.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Class representing the coordinates of given points as integers (fixed-point numbers), e.i. all
+ * coordinates multiplied by the smallest power of ten making them integers (the scale).
+ * The given inputs have at most six decimal places, so their coordinates are integers in disguise.
+ * The decimal places of a coordinate are taken from its shortest exact representation (the one
+ * Double.toString(...) returns), such that the scaled coordinates are exact and no point is moved.
+ * With integer coordinates, the turning angle constraint is checked by an exact integer dot product
+ * (without any floating-point noise in the "<= 0"-test), and squared distances are exact as well.
+ * The coordinates are only used if all dot products fit into a long, see detect(...). In two dimensions, the
+ * scaled coordinates must be below sqrt(Long.MAX_VALUE / 2) / 2, e.i. about 1.07 * 10^9 in absolute value,
+ * so with six decimal places only coordinates below about 1073 in absolute value qualify
+ * (with three decimal places about 1.07 * 10^6, with none about 1.07 * 10^9).
+ */
+public final class IntegerCoordinates {
+
+    /**
+     * The maximal amount of decimal places detected
+     */
+    private static final int MAX_DECIMAL_PLACES = 9;
+
+    /**
+     * The amount of points
+     */
+    private final int size;
+
+    /**
+     * The points' dimension
+     */
+    private final int dimension;
+
+    /**
+     * The factor all coordinates are multiplied with (a power of ten)
+     */
+    private final long scale;
+
+    /**
+     * The scaled coordinates of all points as a flat array, e.i. the
+     * j-th coordinate of the i-th point is at index i * dimension + j.
+     */
+    private final long[] coordinates;
+
+    /**
+     * Private constructor taking in all fields, use detect(...) to create an instance.
+     *
+     * @param size        The amount of points
+     * @param dimension   The points' dimension
+     * @param scale       The factor all coordinates are multiplied with
+     * @param coordinates The scaled coordinates
+     */
+    private IntegerCoordinates(int size, int dimension, long scale, long[] coordinates) {
+        this.size = size;
+        this.dimension = dimension;
+        this.scale = scale;
+        this.coordinates = coordinates;
+    }
+
+    /**
+     * Public static function detecting the smallest power of ten making all coordinates of the given
+     * points integers and returning the scaled coordinates.
+     * Returns null if there is no such power of ten with at most MAX_DECIMAL_PLACES decimal places or if
+     * the scaled coordinates are too big, such that a dot product of two connecting vectors might overflow.
+     *
+     * @param points The points (all having the same dimension)
+     * @return The integer coordinates (null if the points' coordinates can't be used as integers)
+     */
+    public static IntegerCoordinates detect(Point[] points) {
+        int dimension = points.length == 0 ? 0 : points[0].getDimension();
+        BigDecimal[] decimals = new BigDecimal[points.length * dimension];
+        int places = 0;
+
+        // Find the most decimal places of a coordinate's shortest exact representation
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].getDimension() != dimension) return null;
+
+            for (int j = 0; j < dimension; j++) {
+                double coordinate = points[i].getCoordinate(j);
+                if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) return null;
+
+                decimals[i * dimension + j] = BigDecimal.valueOf(coordinate).stripTrailingZeros();
+                places = Math.max(places, decimals[i * dimension + j].scale());
+            }
+        }
+
+        if (places > MAX_DECIMAL_PLACES) return null;
+
+        // Scale all coordinates exactly, every component of a connecting vector is at most twice the
+        // maximal absolute coordinate, so a dot product is at most dimension * (2 * max)^2
+        double limit = Math.sqrt((double) Long.MAX_VALUE / Math.max(1, dimension)) / 2D;
+        long[] coordinates = new long[decimals.length];
+
+        for (int i = 0; i < decimals.length; i++) {
+            BigDecimal scaled = decimals[i].movePointRight(places);
+            if (scaled.abs().doubleValue() >= limit) return null;
+
+            coordinates[i] = scaled.longValueExact();
+        }
+
+        long scale = 1L;
+        for (int i = 0; i < places; i++) scale *= 10L;
+
+        return new IntegerCoordinates(points.length, dimension, scale, coordinates);
+    }
+
+    /**
+     * Public method computing the exact dot product of the connecting vectors QP and QR
+     * of the points with the indexes p, q and r (in scaled coordinates).
+     *
+     * @param p The first point's index
+     * @param q The second point's index
+     * @param r The last point's index
+     * @return The dot product
+     */
+    public long dotProduct(int p, int q, int r) {
+        int pOffset = p * this.dimension, qOffset = q * this.dimension, rOffset = r * this.dimension;
+        long product = 0L;
+
+        for (int j = 0; j < this.dimension; j++) {
+            long center = this.coordinates[qOffset + j];
+            product += (this.coordinates[pOffset + j] - center) * (this.coordinates[rOffset + j] - center);
+        }
+
+        return product;
+    }
+
+    /**
+     * Public method checking weather the turning angle constraint is met by the points
+     * with the indexes p, q and r (in that order) exactly.
+     *
+     * @param p The first point's index
+     * @param q The second point's index
+     * @param r The last point's index
+     * @return If the angle between QP and QR is at least 90 degrees
+     */
+    public boolean isValid(int p, int q, int r) {
+        return dotProduct(p, q, r) <= 0L;
+    }
+
+    /**
+     * Public method computing the exact squared distance between the i-th and the j-th point (in scaled coordinates).
+     *
+     * @param i The first point's index
+     * @param j The second point's index
+     * @return The squared distance
+     */
+    public long squaredDistance(int i, int j) {
+        int iOffset = i * this.dimension, jOffset = j * this.dimension;
+        long distance = 0L;
+
+        for (int k = 0; k < this.dimension; k++) {
+            long difference = this.coordinates[iOffset + k] - this.coordinates[jOffset + k];
+            distance += difference * difference;
+        }
+
+        return distance;
+    }
+
+    /**
+     * Public method computing the distance between the i-th and the j-th point (in the original coordinates).
+     *
+     * @param i The first point's index
+     * @param j The second point's index
+     * @return The distance
+     */
+    public double distance(int i, int j) {
+        return Math.sqrt(squaredDistance(i, j)) / this.scale;
+    }
+
+    /**
+     * Getter for the factor all coordinates are multiplied with
+     *
+     * @return The scale (a power of ten)
+     */
+    public long getScale() {
+        return this.scale;
+    }
+
+    /**
+     * Getter for size, that is the amount of points
+     *
+     * @return The amount of points
+     */
+    public int getSize() {
+        return this.size;
+    }
+}
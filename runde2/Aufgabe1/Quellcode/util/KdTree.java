@@ -0,0 +1,205 @@
+package de.flo.wenigerKrummeTouren.util;
+
+import java.util.Arrays;
+
+/**
+ * Class representing a k-d tree over given points (of any dimension), used for finding
+ * the nearest points of a point without comparing it to all points.
+ * The tree is stored in an array: the subtree of a range of that array has its root in the
+ * middle of the range, the points left of it in the left half and the others in the right half,
+ * split by the coordinate given by the depth.
+ * After its creation, the tree is immutable, so it can be queried by several threads at once.
+ */
+public class KdTree {
+
+    /**
+     * The points
+     */
+    private final Point[] points;
+
+    /**
+     * The points' indexes in the order of the tree
+     */
+    private final int[] tree;
+
+    /**
+     * The dimension of the points
+     */
+    private final int dimension;
+
+    /**
+     * Public constructor creating the tree over the given points.
+     *
+     * @param points The points (all having the same dimension)
+     */
+    public KdTree(Point[] points) {
+        this.points = points;
+        this.dimension = points.length == 0 ? 0 : points[0].getDimension();
+        this.tree = new int[points.length];
+
+        for (int i = 0; i < points.length; i++) this.tree[i] = i;
+        build(0, points.length, 0);
+    }
+
+    /**
+     * Public method finding the nearest points of the point with a given index (not including itself),
+     * ordered by their distance (equal distances ordered by index).
+     *
+     * @param index     The point's index
+     * @param k         The amount of nearest points
+     * @param neighbors The array the nearest points' indexes are written to (at least k entries)
+     * @return The amount of nearest points found (k, or less if there are not enough points)
+     */
+    public int nearest(int index, int k, int[] neighbors) {
+        double[] distances = new double[k];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+
+        int[] count = new int[1];
+        search(0, this.tree.length, 0, index, k, neighbors, distances, count);
+        return count[0];
+    }
+
+    /**
+     * Private methode building the subtree of a range recursively.
+     *
+     * @param from  The range's first index (inclusive)
+     * @param to    The range's last index (exclusive)
+     * @param depth The subtree's depth
+     */
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) return;
+
+        int axis = depth % this.dimension;
+        int middle = (from + to) >>> 1;
+
+        select(from, to, middle, axis);
+
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    /**
+     * Private methode rearranging a range, such that the given index contains the point that would be
+     * there if the range was sorted by a coordinate, all points before have a smaller or equal and all
+     * points after a bigger or equal coordinate (quickselect).
+     *
+     * @param from   The range's first index (inclusive)
+     * @param to     The range's last index (exclusive)
+     * @param target The index
+     * @param axis   The coordinate
+     */
+    private void select(int from, int to, int target, int axis) {
+        int left = from, right = to - 1;
+
+        while (left < right) {
+            double pivot = coordinate(this.tree[(left + right) >>> 1], axis);
+            int i = left, j = right;
+
+            while (i <= j) {
+                while (coordinate(this.tree[i], axis) < pivot) i++;
+                while (coordinate(this.tree[j], axis) > pivot) j--;
+
+                if (i <= j) {
+                    int temp = this.tree[i];
+                    this.tree[i] = this.tree[j];
+                    this.tree[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Private methode searching the subtree of a range for the nearest points recursively,
+     * skipping subtrees that can't contain any point nearer than the k-th nearest one found so far.
+     *
+     * @param from      The range's first index (inclusive)
+     * @param to        The range's last index (exclusive)
+     * @param depth     The subtree's depth
+     * @param index     The index of the point whose nearest points are searched
+     * @param k         The amount of nearest points
+     * @param neighbors The nearest points found so far ordered by distance
+     * @param distances The distances of the nearest points found so far
+     * @param count     Array containing the amount of nearest points found so far
+     */
+    private void search(int from, int to, int depth, int index, int k, int[] neighbors, double[] distances, int[] count) {
+        if (from >= to) return;
+
+        int middle = (from + to) >>> 1;
+        int current = this.tree[middle];
+
+        if (current != index) offer(current, this.points[index].distance(this.points[current]), k, neighbors, distances, count);
+        if (to - from == 1) return;
+
+        // Search the half containing the point first, then the other one if it might contain nearer points
+        int axis = depth % this.dimension;
+        double difference = coordinate(index, axis) - coordinate(current, axis);
+
+        if (difference < 0) {
+            search(from, middle, depth + 1, index, k, neighbors, distances, count);
+            if (-difference <= distances[k - 1]) search(middle + 1, to, depth + 1, index, k, neighbors, distances, count);
+        } else {
+            search(middle + 1, to, depth + 1, index, k, neighbors, distances, count);
+            if (difference <= distances[k - 1]) search(from, middle, depth + 1, index, k, neighbors, distances, count);
+        }
+    }
+
+    /**
+     * Private static function inserting a point into the nearest points found so far
+     * if it's nearer than the k-th one (or as near, but with a smaller index).
+     *
+     * @param point     The point's index
+     * @param distance  The point's distance
+     * @param k         The amount of nearest points
+     * @param neighbors The nearest points found so far ordered by distance
+     * @param distances The distances of the nearest points found so far
+     * @param count     Array containing the amount of nearest points found so far
+     */
+    private static void offer(int point, double distance, int k, int[] neighbors, double[] distances, int[] count) {
+        if (count[0] == k && !isBefore(distance, point, distances[k - 1], neighbors[k - 1])) return;
+
+        int position = count[0] < k ? count[0]++ : k - 1;
+
+        while (position > 0 && isBefore(distance, point, distances[position - 1], neighbors[position - 1])) {
+            neighbors[position] = neighbors[position - 1];
+            distances[position] = distances[position - 1];
+            position--;
+        }
+
+        neighbors[position] = point;
+        distances[position] = distance;
+    }
+
+    /**
+     * Private static function comparing two points by their distance and index.
+     *
+     * @param distance      The first point's distance
+     * @param point         The first point's index
+     * @param otherDistance The second point's distance
+     * @param other         The second point's index
+     * @return If the first point comes before the second one
+     */
+    private static boolean isBefore(double distance, int point, double otherDistance, int other) {
+        return distance < otherDistance || (distance == otherDistance && point < other);
+    }
+
+    /**
+     * Private methode returning a coordinate of the point with a given index.
+     *
+     * @param index The point's index
+     * @param axis  The coordinate
+     * @return The coordinate
+     */
+    private double coordinate(int index, int axis) {
+        return this.points[index].getCoordinate(axis);
+    }
+}
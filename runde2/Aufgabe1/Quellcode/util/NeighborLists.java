@@ -0,0 +1,133 @@
+package de.flo.wenigerKrummeTouren.util;
+
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Class containing for every point its k nearest points (candidates) ordered by their distance,
+ * stored in one array (the candidates of point i are at the indexes i * k to i * k + k - 1).
+ * Since good next points of a route are almost always among the nearest ones, solvers can look at
+ * those candidates first and only look at all points if none of them is suitable.
+ * Note that if a candidate is suitable, the first suitable one is the nearest suitable point of all,
+ * but other suitable points might have the same distance (a tie), see nearest(...).
+ * The lists are created in parallel using a k-d tree.
+ */
+public class NeighborLists {
+
+    /**
+     * The default amount of candidates per point
+     */
+    public static final int DEFAULT_K = 16;
+
+    /**
+     * The points
+     */
+    private final Point[] points;
+
+    /**
+     * The amount of points
+     */
+    private final int size;
+
+    /**
+     * The amount of candidates per point
+     */
+    private final int k;
+
+    /**
+     * The candidates' indexes of all points
+     */
+    private final int[] neighbors;
+
+    /**
+     * Public constructor creating the lists for the given points with the default amount of candidates.
+     *
+     * @param points The points
+     */
+    public NeighborLists(Point[] points) {
+        this(points, DEFAULT_K);
+    }
+
+    /**
+     * Public constructor creating the lists for the given points.
+     *
+     * @param points The points (all having the same dimension)
+     * @param k      The amount of candidates per point (at most the amount of points minus one are used)
+     */
+    public NeighborLists(Point[] points, int k) {
+        this.points = points;
+        this.size = points.length;
+        this.k = Math.max(0, Math.min(k, points.length - 1));
+        this.neighbors = new int[this.size * this.k];
+
+        if (this.k == 0) return;
+
+        KdTree tree = new KdTree(points);
+
+        IntStream.range(0, this.size).parallel().forEach(i -> {
+            int[] nearest = new int[this.k];
+            tree.nearest(i, this.k, nearest);
+            System.arraycopy(nearest, 0, this.neighbors, i * this.k, this.k);
+        });
+    }
+
+    /**
+     * Public method returning the nearest suitable candidate of a point, if it's the nearest suitable point of all
+     * and there's no tie. With a tie, e.i. if a later suitable candidate has the same distance or all later candidates
+     * have the same distance (so there might be more such points after them), the solvers look at all points
+     * instead, such that they break the tie the same way as without candidates.
+     *
+     * @param i        The point's index
+     * @param suitable The condition a candidate (given by its index) has to meet
+     * @return The candidate's index, or -1 if no candidate is suitable or there is a tie
+     */
+    public int nearest(int i, IntPredicate suitable) {
+        for (int j = 0; j < this.k; j++) {
+            int candidate = get(i, j);
+            if (!suitable.test(candidate)) continue;
+
+            double distance = this.points[i].distance(this.points[candidate]);
+
+            // Check the following candidates with the same distance for a tie
+            for (int l = j + 1; l < this.k; l++) {
+                int other = get(i, l);
+                if (this.points[i].distance(this.points[other]) != distance) return candidate;
+                if (suitable.test(other)) return -1;
+            }
+
+            // All following candidates have the same distance
+            return -1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Getter for the amount of candidates per point
+     *
+     * @return The amount of candidates
+     */
+    public int getK() {
+        return this.k;
+    }
+
+    /**
+     * Getter for the amount of points
+     *
+     * @return The amount of points
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Public method returning a candidate of a point.
+     *
+     * @param i The point's index
+     * @param j The candidate's rank (0 for the nearest point)
+     * @return The candidate's index
+     */
+    public int get(int i, int j) {
+        return this.neighbors[i * this.k + j];
+    }
+}
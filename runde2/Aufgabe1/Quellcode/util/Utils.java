@@ -28,6 +28,23 @@ public final class Utils {
         return str.split(" ");
     }
 
+    /**
+     * Public static function converting lines containing the points' coordinates separated
+     * by spaces (one point per line) into an array of points. Empty lines are ignored.
+     *
+     * @param lines The lines
+     * @return The points
+     * @throws NumberFormatException If a coordinate is not a number
+     */
+    public static Point[] toPoints(List<String> lines) {
+        return lines.stream()
+                .filter(line -> !line.trim().isEmpty())
+                .map(Utils::splitBySpace)
+                .map(array -> Arrays.stream(array).mapToDouble(Double::parseDouble).toArray())
+                .map(array -> new Point(array, false))
+                .toArray(Point[]::new);
+    }
+
     /**
      * Public static function converting a generic array into a HashSet.
      *
@@ -0,0 +1,274 @@
+package de.flo.pancakeSort;
+
+import de.flo.pancakeSort.algorithms.dynamicProgramming.EndgameDatabase;
+import de.flo.pancakeSort.algorithms.heuristic.IDAStarPancakeSort;
+import de.flo.pancakeSort.util.IntArray;
+import de.flo.pancakeSort.util.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class solves the MWO-Problem for many stacks at once on a pool of worker threads.
+ * Every stack is solved by an IDAStarPancakeSort, all of them sharing one (thread-safe) EndgameDatabase,
+ * such that the small sub-stacks are looked up instead of being searched. Moreover, the results are kept
+ * in a map shared by all workers, such that a stack that was solved before is only looked up.
+ * The stacks can be given as a list or as input files in the format of the "Eingabe.txt" files (the amount
+ * of pancakes in the first line, followed by one pancake per line), either one file or all files whose
+ * names start with "Eingabe" in a directory (and its subdirectories). The result of every input file is
+ * written into a file in the same directory in the format of the "Ausgabe.txt" files (the 0-based indexes
+ * of the WUE-Operations separated by spaces), whose name starts with "Ausgabe" instead.
+ */
+public class BatchSolver {
+
+    /**
+     * The prefix of the input files' names
+     */
+    private static final String INPUT_PREFIX = "Eingabe";
+
+    /**
+     * The prefix of the output files' names
+     */
+    private static final String OUTPUT_PREFIX = "Ausgabe";
+
+    /**
+     * The endgame database shared by all workers (null if none is used)
+     */
+    private final EndgameDatabase database;
+
+    /**
+     * The amount of worker threads
+     */
+    private final int parallelism;
+
+    /**
+     * Map from the stacks solved so far to their series of WUE-Operations, shared by all workers
+     */
+    private final Map<IntArray, int[]> results = new ConcurrentHashMap<>();
+
+    /**
+     * Public constructor taking in the endgame database shared by all workers and the amount of worker threads.
+     *
+     * @param database    The endgame database (null if none is used)
+     * @param parallelism The amount of worker threads (at least 1)
+     * @throws IllegalArgumentException If the amount of worker threads is less than 1
+     */
+    public BatchSolver(EndgameDatabase database, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException();
+        this.database = database;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Public methode solving the MWO-Problem for one stack, looking it up if it was solved before.
+     * This methode is thread-safe.
+     *
+     * @param array The stack (a permutation)
+     * @return The indexes (0-based) for the WUE-Operations of one smallest series
+     */
+    public int[] solve(int[] array) {
+        IntArray key = new IntArray(array.clone());
+        int[] result = this.results.get(key);
+
+        // Two workers might solve the same stack at the same time, which gives the same result
+        if (result == null) {
+            result = new IDAStarPancakeSort(key.getArray(), this.database).solve();
+            this.results.putIfAbsent(key, result);
+        }
+
+        return result.clone();
+    }
+
+    /**
+     * Public methode solving the MWO-Problem for all given stacks concurrently on the worker threads.
+     *
+     * @param stacks The stacks (permutations)
+     * @return The series of WUE-Operations of the stacks (in the same order)
+     * @throws InterruptedException If the thread is interrupted while waiting for the workers
+     */
+    public List<int[]> solveAll(List<int[]> stacks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int[] stack : stacks) futures.add(executor.submit(() -> solve(stack)));
+
+            List<int[]> results = new ArrayList<>();
+            for (Future<int[]> future : futures) results.add(get(future));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Public methode solving the stacks of an input file or all input files in a directory (and its
+     * subdirectories) concurrently on the worker threads, writing every result into its output file.
+     * Input files that don't contain a valid stack are skipped.
+     *
+     * @param input The input file or directory
+     * @return Map from the input files (in the order of their paths) to the series of
+     * WUE-Operations written into their output files (null if the file wasn't valid)
+     * @throws IOException          If the directory can't be read or an output file can't be written
+     * @throws InterruptedException If the thread is interrupted while waiting for the workers
+     */
+    public Map<File, int[]> solveFiles(File input) throws IOException, InterruptedException {
+        List<File> files = findInputFiles(input);
+        ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (File file : files) futures.add(executor.submit(() -> solveFile(file)));
+
+            Map<File, int[]> results = new LinkedHashMap<>();
+
+            for (int i = 0; i < files.size(); i++) {
+                try {
+                    results.put(files.get(i), get(futures.get(i)));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Private methode solving the stack of an input file and writing the result into its output file.
+     *
+     * @param file The input file
+     * @return The series of WUE-Operations (null if the file doesn't contain a valid stack)
+     * @throws UncheckedIOException If the output file can't be written
+     */
+    private int[] solveFile(File file) {
+        int[] array;
+
+        try {
+            array = readStack(file);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+
+        int[] result = solve(array);
+
+        try {
+            writeResult(getOutputFile(file), result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Public static function returning the input files given a file or directory, e.i. the file itself or
+     * all files in the directory (and its subdirectories) whose names start with INPUT_PREFIX, ordered by their paths.
+     *
+     * @param input The input file or directory
+     * @return The input files
+     * @throws IOException If the directory can't be read
+     */
+    public static List<File> findInputFiles(File input) throws IOException {
+        if (!input.isDirectory()) return Arrays.asList(input);
+
+        try (Stream<Path> paths = Files.walk(input.toPath())) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().startsWith(INPUT_PREFIX))
+                    .sorted()
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Public static function reading the stack of an input file, e.i. every line contains only one or
+     * more digits, the first one the amount of pancakes, and the pancakes form a permutation.
+     *
+     * @param file The input file
+     * @return The stack
+     * @throws IOException              If the file can't be read
+     * @throws IllegalArgumentException If the file doesn't have the correct format
+     */
+    public static int[] readStack(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+
+        if (lines.isEmpty() || !lines.stream().allMatch(line -> line.matches("\\d+"))) {
+            throw new IllegalArgumentException("File " + file + " did not have correct format");
+        }
+
+        // Convert the lines into an int array (without the first line)
+        int[] array = lines.subList(1, lines.size()).stream().mapToInt(Integer::parseInt).toArray();
+
+        if (array.length != Integer.parseInt(lines.get(0)) || !Utils.isPermutation(array)) {
+            throw new IllegalArgumentException("File " + file + " did not contain a permutation");
+        }
+
+        return array;
+    }
+
+    /**
+     * Public static function returning the output file of an input file, e.i. the file in the same directory
+     * whose name starts with OUTPUT_PREFIX instead of INPUT_PREFIX (or is prefixed with it).
+     *
+     * @param file The input file
+     * @return The output file
+     */
+    public static File getOutputFile(File file) {
+        String name = file.getName();
+        name = name.startsWith(INPUT_PREFIX) ? OUTPUT_PREFIX + name.substring(INPUT_PREFIX.length()) : OUTPUT_PREFIX + "-" + name;
+
+        return new File(file.getAbsoluteFile().getParentFile(), name);
+    }
+
+    /**
+     * Public static function writing a series of WUE-Operations into an output file,
+     * e.i. the 0-based indexes separated by spaces.
+     *
+     * @param file   The output file
+     * @param result The series of WUE-Operations
+     * @throws IOException If the file can't be written
+     */
+    public static void writeResult(File file, int[] result) throws IOException {
+        String content = Arrays.stream(result).mapToObj(Integer::toString).collect(Collectors.joining(" "));
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Private static function waiting for a worker's result, rethrowing its exception.
+     *
+     * @param future The worker's result
+     * @return The result
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    private static int[] get(Future<int[]> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package de.flo.pancakeSort;
 
+import de.flo.pancakeSort.algorithms.dynamicProgramming.DistributedPZSolver;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.EndgameDatabase;
 import de.flo.pancakeSort.algorithms.dynamicProgramming.PZSolverDP2;
-import de.flo.pancakeSort.algorithms.dynamicProgramming.PZSolverDP3;
-import de.flo.pancakeSort.algorithms.dynamicProgramming.PancakeSortDP;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.PZSolverDP4;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.PZWorker;
+import de.flo.pancakeSort.algorithms.heuristic.IDAStarPancakeSort;
 import de.flo.pancakeSort.util.Pair;
 import de.flo.pancakeSort.util.Utils;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -18,6 +24,33 @@ import java.util.Scanner;
  */
 public final class Main {
 
+    /**
+     * The biggest n for which P(n) is computed with the dp-tables on the heap. P(13) already takes several
+     * minutes, so bigger n store the dp-tables in LAYER_DIRECTORY, where they're checkpointed, such that
+     * a stopped run continues where it was stopped (see PZSolverDP4). Both are about equally fast.
+     */
+    private static final int MAX_N_ON_HEAP = 12;
+
+    /**
+     * The directory the dp-tables (and the checkpoints) are stored in for bigger n
+     */
+    private static final File LAYER_DIRECTORY = new File("pwue-layers");
+
+    /**
+     * The directory the endgame database is stored in
+     */
+    private static final File ENDGAME_DIRECTORY = new File("pwue-endgame");
+
+    /**
+     * The biggest stacks contained in the endgame database (10! bytes are about 3.6 MB)
+     */
+    private static final int ENDGAME_SIZE = 10;
+
+    /**
+     * The endgame database (null if it's not opened yet or couldn't be opened)
+     */
+    private static EndgameDatabase database;
+
     /**
      * Private constructor, sucht that no instances of this class can be created
      */
@@ -30,13 +63,27 @@ public final class Main {
      * @param args Arguments
      */
     public static void main(String[] args) {
+        // Run a coordinator or a worker of the distributed P(n) computation if requested:
+        // "coordinator <n> <port> <directory>" or "worker <host> <port> <directory> [<threads>]"
+        if (args.length >= 4 && (args[0].equals("coordinator") || args[0].equals("worker"))) {
+            runDistributed(args);
+            return;
+        }
+
+        // If a file or directory is given as an argument, solve its stacks in a batch and stop
+        if (args.length > 0) {
+            runBatchSolver(args[0]);
+            return;
+        }
+
         // Define a scanner for the console that will be used for all user inputs
         Scanner scanner = new Scanner(System.in);
         boolean run = true; // Run while-loop as long as run is true
 
         while (run) {
-            // Get an integer input by the user: 0 for stopping the program, 1 for running a Pancake Sorter, 2 for computing a P(n)
-            int program = getInputInt(scanner, "Enter the program you want to use (0 -> Stop programm; 1 -> WUE-Operations-Folge; 2 -> P(n)):");
+            // Get an integer input by the user: 0 for stopping the program, 1 for running a Pancake Sorter,
+            // 2 for computing a P(n), 3 for running a Pancake Sorter on all stacks of a file or directory, 4 for computing P(1), ... , P(n)
+            int program = getInputInt(scanner, "Enter the program you want to use (0 -> Stop programm; 1 -> WUE-Operations-Folge; 2 -> P(n); 3 -> Batch; 4 -> P(1..n)):");
 
             switch (program) {
                 // If the given program is equal to 0, stop the program
@@ -55,7 +102,17 @@ public final class Main {
                     runPWUENumber(scanner);
                     break;
                 }
-                // If the inputted integer is neither 0, 1 nor 2, print an error message and continue the loop
+                // If the given integer 3, run a Pancake Sorter on all stacks of a file or directory
+                case 3: {
+                    runBatchSolver(getInput(scanner, "Please enter a filename or directory containing the stacks (Eingabe*.txt): "));
+                    break;
+                }
+                // If the given integer 4, compute P(1), ... , P(n)
+                case 4: {
+                    runPWUESweep(scanner);
+                    break;
+                }
+                // If the inputted integer is neither 0, 1, 2, 3 nor 4, print an error message and continue the loop
                 default: {
                     System.out.println("Not a correct number! Please try again.");
                     break;
@@ -151,11 +208,61 @@ public final class Main {
         }
 
         // Now, actually start solving the problem for the given stack using a PancakeSort implementation by
-        // calling the run methode with the PancakeSort instance.
-        PancakeSort solver = new PancakeSortDP(array);
+        // calling the run methode with the PancakeSort instance. IDA* is used, since it needs (almost) no memory
+        // and its lower bounds cut off most of the search, such that even stacks of 30 to 35 pancakes are solved.
+        // As soon as the stack is small enough, the rest is looked up in the endgame database.
+        PancakeSort solver = new IDAStarPancakeSort(array, getDatabase());
         run(solver, array);
     }
 
+    /**
+     * Private static function solving the stacks of an input file or all input files in a directory
+     * (and its subdirectories) concurrently using a BatchSolver, writing every result into the
+     * corresponding "Ausgabe" file and printing it.
+     *
+     * @param path The filename or directory
+     */
+    private static void runBatchSolver(String path) {
+        File input = new File(path);
+
+        if (!input.exists()) {
+            System.out.println("Error occurred - Filename \"" + path + "\" did not exist! Please try again.");
+            return;
+        }
+
+        System.out.println("--------------------");
+        System.out.println("Starting..."); // Print that the program will now start solving
+
+        // Solve all stacks with one worker per processor, sharing the endgame database, and stop the time in ms
+        BatchSolver solver = new BatchSolver(getDatabase(), Runtime.getRuntime().availableProcessors());
+        Map<File, int[]> results;
+
+        long milli = System.currentTimeMillis();
+        try {
+            results = solver.solveFiles(input);
+        } catch (IOException e) {
+            System.out.println("Error occurred - " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        milli = System.currentTimeMillis() - milli;
+
+        // Print the result of every file (or an error message if it didn't contain a valid stack)
+        for (Map.Entry<File, int[]> entry : results.entrySet()) {
+            if (entry.getValue() == null) {
+                System.out.println(entry.getKey() + ": Error occurred - File dit not have correct format!");
+            } else {
+                System.out.printf("%s: %s (%d)%n", entry.getKey(), Arrays.toString(entry.getValue()), entry.getValue().length);
+            }
+        }
+
+        System.out.printf("Stacks: %d%n", results.size());
+        System.out.printf("Time: %dms%n", milli);
+        System.out.println("--------------------");
+    }
+
     /**
      * Private static function solving the MWO-Problem using a Pancake Solver, e.i.,
      * computing the min. amount of WUE-Operations for the given stack and also given
@@ -209,13 +316,19 @@ public final class Main {
         }
 
         // Use a different PZSolver for different n.
-        // If n is less than or equal to 15, use the PZSolverDP3 that used
-        // an optimized hashing function working for n <= 15.
+        // If n is less than or equal to 12, use the PZSolverDP4 storing the dp-tables densely on the heap.
+        // If n is less than or equal to 16, use the PZSolverDP4 storing the dp-tables densely in
+        // memory-mapped files (in the directory LAYER_DIRECTORY), since those runs take minutes to days
+        // and are checkpointed there (and from 14 on, the dp-tables don't fit on the heap anymore).
+        // Both use the bound P(n) <= P(n-1) + 1 for the final search and read the first layers from the endgame database.
         // Otherwise, use PZSolver2 using the default hashing of IntArray
         PZSolver solver;
+        int parallelism = Runtime.getRuntime().availableProcessors();
 
-        if (n <= 15) {
-            solver = new PZSolverDP3(n);
+        if (n <= MAX_N_ON_HEAP) {
+            solver = new PZSolverDP4(n, null, parallelism, true, getDatabase());
+        } else if (n <= PZSolverDP4.MAX_MAPPED_N) {
+            solver = new PZSolverDP4(n, LAYER_DIRECTORY, parallelism, true, getDatabase());
         } else {
             solver = new PZSolverDP2(n);
         }
@@ -224,6 +337,71 @@ public final class Main {
         run(solver, n);
     }
 
+    /**
+     * Private static function computing P(1), P(2), ... , P(n) in one run using the PZSolverDP4,
+     * printing every P(N) as soon as its layer is complete. For bigger n, the finished layers are kept
+     * in LAYER_DIRECTORY, such that a later run (for the same or a bigger n) starts with them.
+     *
+     * @param scanner The scanner scanning the console that is used for all user inputs
+     */
+    private static void runPWUESweep(Scanner scanner) {
+        // Get an integer input (the value n) from the user using the given scanner
+        int n = getInputInt(scanner, "Please enter n, such that P(1), ... , P(n) can be computed:");
+
+        // Make sure 1 <= n <= MAX_MAPPED_N
+        if (n <= 0 || n > PZSolverDP4.MAX_MAPPED_N) {
+            System.out.println("Error occurred - n has to be between 1 and " + PZSolverDP4.MAX_MAPPED_N + "!");
+            return;
+        }
+
+        File directory = n <= MAX_N_ON_HEAP ? null : LAYER_DIRECTORY;
+        PZSolverDP4 solver = new PZSolverDP4(n, directory, Runtime.getRuntime().availableProcessors(), true, getDatabase());
+
+        System.out.println("--------------------");
+        System.out.println("Starting..."); // Print that the program will now start solving
+
+        // Print every P(N) and the corresponding example as well as the time needed so far in ms
+        long milli = System.currentTimeMillis();
+        solver.sweep(result -> System.out.printf("P(%d) = %d, Example: %s, Time: %dms%n", result.second().length,
+                result.first(), Arrays.toString(result.second()), System.currentTimeMillis() - milli));
+
+        System.out.println("--------------------");
+    }
+
+    /**
+     * Private static function running a coordinator (computing P(n) with the DistributedPZSolver)
+     * or a worker (see PZWorker) of the distributed P(n) computation given the program's arguments.
+     * The coordinator and the workers have to use the same directory (e.g. on the same host).
+     *
+     * @param args The arguments: "coordinator <n> <port> <directory>" or "worker <host> <port> <directory> [<threads>]"
+     */
+    private static void runDistributed(String[] args) {
+        try {
+            int port = Integer.parseInt(args[2]);
+            File directory = new File(args[3]);
+
+            if (args[0].equals("coordinator")) {
+                int n = Integer.parseInt(args[1]);
+
+                // Make sure 1 <= n <= MAX_N
+                if (n <= 0 || n > DistributedPZSolver.MAX_N) {
+                    System.out.println("Error occurred - n has to be between 1 and " + DistributedPZSolver.MAX_N + "!");
+                    return;
+                }
+
+                System.out.println("Waiting for workers on port " + port + "...");
+                run(new DistributedPZSolver(n, port, directory), n);
+            } else {
+                int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+                new PZWorker(directory, threads).run(args[1], port);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Error occurred - Not an integer: " + e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error occurred - " + e.getMessage());
+        }
+    }
+
     /**
      * Private static function solving the PWZ-Problem using a PZ Solver, e.i.,
      * computing P(n) for a given n using a given solver.
@@ -252,6 +430,25 @@ public final class Main {
         System.out.println("--------------------");
     }
 
+    /**
+     * Private static function returning the endgame database, opening it the first time it's needed.
+     * Its files are only built if they don't exist yet (e.i. on the first run), afterwards they're just mapped.
+     * If the database can't be opened, an error message is printed and the solvers run without it.
+     *
+     * @return The endgame database (null if it couldn't be opened)
+     */
+    private static EndgameDatabase getDatabase() {
+        if (database == null) {
+            try {
+                database = EndgameDatabase.open(ENDGAME_DIRECTORY, ENDGAME_SIZE);
+            } catch (IOException e) {
+                System.out.println("Error occurred - Endgame database could not be opened: " + e.getMessage());
+            }
+        }
+
+        return database;
+    }
+
     /**
      * Private static function printing a given message into the console and
      * returning a one-line console input from the user
@@ -4,9 +4,6 @@ import de.flo.pancakeSort.PZSolver;
 import de.flo.pancakeSort.util.Pair;
 import de.flo.pancakeSort.util.Utils;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Implementation of the abstract class PZSolver that can find
  * P(n) for a given natural number n and a corresponding example stack
@@ -15,9 +12,16 @@ import java.util.List;
  * This algorithm works by computing A(S) for each possible permutation of the
  * given size n using Heap's Algorithm and is a concrete implementation of "Algorithmus-10" in the documentation
  * using "Algorithmus-15" for getting A(S).
+ * Every WUE-Operation is applied only once when going deeper into the recursion, into a buffer
+ * created in advance for every depth, such that checking a series of indexes needs no copying or new arrays.
  */
 public class PZSolver3 extends PZSolver {
 
+    /**
+     * For every depth d, the stack after applying the first d WUE-Operations of the current list of indexes
+     */
+    private final int[][] buffers;
+
     /**
      * Public constructor only taking in the value of n, such that P(n) can be computed.
      *
@@ -25,6 +29,9 @@ public class PZSolver3 extends PZSolver {
      */
     public PZSolver3(int n) {
         super(n);
+
+        this.buffers = new int[n][];
+        for (int d = 0; d < n; d++) this.buffers[d] = new int[n - d];
     }
 
     /**
@@ -84,16 +91,16 @@ public class PZSolver3 extends PZSolver {
      * @return The value of A(S)
      */
     private int getA(int[] permutation) {
+        // Copy the given stack into the buffer of the depth 0
+        System.arraycopy(permutation, 0, this.buffers[0], 0, permutation.length);
+
         // Go through all possible sizes of index series.
         // Note that the size (permutation.length - 1 = n-1) always creates a sorted stack.
         for (int m = 0; m < permutation.length - 1; m++) {
-            // Initialize the current list of indexes
-            List<Integer> list = new ArrayList<>();
-
             // Recursively test out every possible list of indexes of the current size m.
             // If the methode returns true, a list of the current size m was found, such
             // that m can be returned.
-            if (solveRecursively(list, m, permutation)) {
+            if (solveRecursively(0, m)) {
                 return m;
             }
         }
@@ -105,46 +112,34 @@ public class PZSolver3 extends PZSolver {
 
     /**
      * Private methode for recursively trying out every possible list of indexes of a given size m
-     * used for the WUE-Operation and return weather any list of this size can sort a given stack (permutation)
-     * when used as a series of WUE-Operations
+     * used for the WUE-Operation and return weather any list of this size can sort the stack in the
+     * buffer of the depth 0 when used as a series of WUE-Operations
      *
-     * @param list        The current list of indexes
-     * @param m           The wanted size for the list of indexes
-     * @param permutation The
+     * @param depth The amount of indexes in the current list so far
+     * @param m     The wanted size for the list of indexes
      * @return true, if a list of indexes of the given size m, converting
      * the given stack into a sorted one, exists. False otherwise.
      */
-    private boolean solveRecursively(List<Integer> list, int m, int[] permutation) {
-        // If the current list of indexes has reached the wanted size,
-        // check if converts the given stack into a sorted one by
-        // applying the normal WUE-Operation.
-        if (list.size() == m) {
-            // Copy the given stack (permutation)
-            int[] result = permutation.clone();
-
-            // Apply the WUE-Operations given by the current list of indexes
-            for (int index : list) {
-                result = Utils.improvedWUEOperation(result, index);
-            }
+    private boolean solveRecursively(int depth, int m) {
+        // The stack after applying the current list of indexes so far
+        int[] current = this.buffers[depth];
 
-            // Return weather the current list of indexes could sort the stack (permutation)
-            return Utils.isSortedPermutation(result);
-        }
+        // If the current list of indexes has reached the wanted size,
+        // return weather the resulting stack is sorted
+        if (depth == m) return Utils.isSortedPermutation(current);
 
-        // Iterate through all possible indexes (0 to n - list.size() - 1)
-        for (int index = 0; index < n - list.size(); index++) {
-            // Add the current index to the list of indexes
-            list.add((Integer) index);
+        // Iterate through all possible indexes (0 to n - depth - 1)
+        for (int index = 0; index < current.length; index++) {
+            // Apply the WUE-Operation of the current index into the buffer of the next depth
+            Utils.improvedWUEOperation(current, index, this.buffers[depth + 1]);
 
             // Recursively use this methode to create lists of indexes
             // starting with the current one (or check the current one)
-            if (solveRecursively(list, m, permutation)) {
+            if (solveRecursively(depth + 1, m)) {
                 return true;
             }
-
-            // Remove the last element of the list
-            list.remove(list.size() - 1);
         }
+
         return false;
     }
-}
\ No newline at end of file
+}
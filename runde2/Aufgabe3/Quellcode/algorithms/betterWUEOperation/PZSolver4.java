@@ -1,6 +1,7 @@
 package de.flo.pancakeSort.algorithms.betterWUEOperation;
 
 import de.flo.pancakeSort.PZSolver;
+import de.flo.pancakeSort.util.PackedStack;
 import de.flo.pancakeSort.util.Pair;
 import de.flo.pancakeSort.util.Utils;
 
@@ -11,7 +12,8 @@ import de.flo.pancakeSort.util.Utils;
  * converted into a sorted stack.
  * This algorithm works by computing A(S) for each possible permutation of the
  * given size n using Heap's Algorithm and is a concrete implementation of "Algorithmus-10" in the documentation
- * using "Algorithmus-16" for getting A(S).
+ * using "Algorithmus-16" for getting A(S). For n <= 16, the permutations are packed into longs
+ * (see PackedStack), such that the WUE-Operations don't create any arrays.
  */
 public class PZSolver4 extends PZSolver {
 
@@ -54,7 +56,7 @@ public class PZSolver4 extends PZSolver {
                 i = 1;
 
                 // Check the current permutation S by computing its value A(S)
-                int currentNumber = getA(list);
+                int currentNumber = this.n <= PackedStack.MAX_SIZE ? getA(PackedStack.pack(list), this.n) : getA(list);
 
                 // If the smallest amount of WUE-Operations needed to sort the
                 // current permutation (currentNumber) is greater than the
@@ -103,4 +105,35 @@ public class PZSolver4 extends PZSolver {
         // Return the value of A(S)
         return min;
     }
-}
\ No newline at end of file
+
+    /**
+     * Recursive private methode for finding A(S) for a given packed stack S, like getA(int[]).
+     *
+     * @param permutation The given (packed) stack S
+     * @param size        The stack's size
+     * @return The value of A(S)
+     */
+    private int getA(long permutation, int size) {
+        // Check if the permutation is sorted
+        if (PackedStack.isSorted(permutation, size)) return 0;
+
+        // Keep track of the smallest value for A(S) found recursively
+        int min = -1;
+
+        // Iterate through all possible indexes for WUE-Operations on the current stack
+        for (int i = 0; i < size; i++) {
+            // Apply the improved WUE-Operation on the given stack using the current index
+            // and solve the problem recursively.
+            int currentNumber = getA(PackedStack.improvedWUEOperation(permutation, size, i), size - 1) + 1;
+
+            // If the smallest A(S) value min is still -1 or the current one is smaller
+            // than min, update min to be the current value currentNum.
+            if (min == -1 || currentNumber < min) {
+                min = currentNumber;
+            }
+        }
+
+        // Return the value of A(S)
+        return min;
+    }
+}
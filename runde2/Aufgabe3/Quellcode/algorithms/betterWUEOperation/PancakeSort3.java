@@ -3,8 +3,7 @@ package de.flo.pancakeSort.algorithms.betterWUEOperation;
 import de.flo.pancakeSort.PancakeSort;
 import de.flo.pancakeSort.util.Utils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Implementation of the abstract class PancakeSort that can find
@@ -13,6 +12,8 @@ import java.util.List;
  * and testing each possible list of indexes util finding one that converts
  * the given stack into a sorted one by applying the corresponding
  * WUE-Operations to the indexes. Now, using the better WUE-Operations.
+ * Every WUE-Operation is applied only once when going deeper into the recursion, into a buffer
+ * created in advance for every depth, such that checking a series of indexes needs no copying or new arrays.
  * This algorithmen is a concrete implementation of "Algorithmus-13" in the documentation.
  */
 public class PancakeSort3 extends PancakeSort {
@@ -21,7 +22,17 @@ public class PancakeSort3 extends PancakeSort {
      * Field for the best list of indexes. Set to a concrete value as soon as
      * a list of indexes is found that converts the given stack into a sorted one.
      */
-    private List<Integer> bestList = null;
+    private int[] bestList = null;
+
+    /**
+     * For every depth d, the stack after applying the first d WUE-Operations of the current list
+     */
+    private int[][] buffers;
+
+    /**
+     * The current list of indexes
+     */
+    private int[] list;
 
     /**
      * Public constructor taking in the needed stack.
@@ -42,21 +53,24 @@ public class PancakeSort3 extends PancakeSort {
         // The size of the given stack (array)
         int size = this.getArray().length;
 
+        // Create the buffers for all depths, the first one containing the given stack
+        this.buffers = new int[size][];
+        for (int d = 0; d < size; d++) this.buffers[d] = new int[size - d];
+        if (size > 0) System.arraycopy(this.getArray(), 0, this.buffers[0], 0, size);
+        this.list = new int[size];
+
         // Go through all possible sizes of index series.
         // Note that the size (size = n-1) always creates a sorted stack.
         for (int m = 0; m < size; m++) {
-            // Initialize the current list of indexes
-            List<Integer> list = new ArrayList<>();
-
             // Recursively test out every possible list of indexes of the current size m.
             // If the methode returns true, a list of the current size m was found (bestList).
-            if (solveRecursively(list, m, size)) {
+            if (solveRecursively(0, m)) {
                 break;
             }
         }
 
-        // Return the best list (of indexes) as an int array
-        return Utils.toArray(this.bestList);
+        // Return the best list (of indexes)
+        return this.bestList;
     }
 
     /**
@@ -65,29 +79,21 @@ public class PancakeSort3 extends PancakeSort {
      * this size can sort the given stack (permutation) when used as a series of WUE-Operations.
      * Now, using the improved WUE-Operations and a slightly easier check.
      *
-     * @param list The current list of indexes
-     * @param m    The wanted size for the list of indexes
-     * @param n    The size of the given stack
+     * @param depth The amount of indexes in the current list so far
+     * @param m     The wanted size for the list of indexes
      * @return true, if a list of indexes of the given size m, converting
-     * the given stack into a sorted one, exists. false otherwise.
+     * the given stack into a sorted one, exists. False otherwise.
      */
-    private boolean solveRecursively(List<Integer> list, int m, int n) {
-        // If the current list of indexes has reached the wanted size,
-        // check if converts the given stack into a sorted one by
-        // applying the normal WUE-Operation.
-        if (list.size() == m) {
-            // Copy the given stack (array)
-            int[] result = this.getArray().clone();
-
-            // Apply the WUE-Operations given by the current list of indexes
-            for (int index : list) {
-                result = Utils.improvedWUEOperation(result, index);
-            }
+    private boolean solveRecursively(int depth, int m) {
+        // The stack after applying the current list of indexes so far
+        int[] current = this.buffers[depth];
 
-            // Check if the resulting stack is sorted.
-            // If so, set the bestList field to the current list and return true.
-            if (Utils.isSortedPermutation(result)) {
-                this.bestList = new ArrayList<>(list);
+        // If the current list of indexes has reached the wanted size,
+        // check if the resulting stack is sorted.
+        // If so, set the bestList field to the current list and return true.
+        if (depth == m) {
+            if (Utils.isSortedPermutation(current)) {
+                this.bestList = Arrays.copyOf(this.list, m);
                 return true;
             }
 
@@ -95,21 +101,19 @@ public class PancakeSort3 extends PancakeSort {
             return false;
         }
 
-        // Iterate through all possible indexes (0 to n - list.size() - 1)
-        for (int index = 0; index < n - list.size(); index++) {
-            // Add the current index to the list of indexes
-            list.add((Integer) index);
+        // Iterate through all possible indexes (0 to n - depth - 1)
+        for (int index = 0; index < current.length; index++) {
+            // Apply the WUE-Operation of the current index into the buffer of the next depth
+            Utils.improvedWUEOperation(current, index, this.buffers[depth + 1]);
+            this.list[depth] = index;
 
             // Recursively use this methode to create lists of indexes
             // starting with the current one (or check the current one)
-            if (solveRecursively(list, m, n)) {
+            if (solveRecursively(depth + 1, m)) {
                 return true;
             }
-
-            // Remove the last element of the list
-            list.remove(list.size() - 1);
         }
 
         return false;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package de.flo.pancakeSort.algorithms.betterWUEOperation;
 
 import de.flo.pancakeSort.PancakeSort;
+import de.flo.pancakeSort.util.PackedStack;
 import de.flo.pancakeSort.util.Utils;
 
 import java.util.ArrayList;
@@ -11,7 +12,8 @@ import java.util.List;
  * one smallest series of WUE-Operations to convert the given stack
  * into a sorted one by recursively solving the subproblems of the
  * problem after applying the improved(!) WUE-Operation for all possible
- * indexes.
+ * indexes. Stacks of up to 16 pancakes are packed into longs (see PackedStack),
+ * such that the WUE-Operations don't create any arrays.
  * This algorithmen is a concrete implementation of "Algorithmus-14" in the documentation.
  */
 public class PancakeSort4 extends PancakeSort {
@@ -33,7 +35,9 @@ public class PancakeSort4 extends PancakeSort {
      */
     @Override
     public int[] solve() {
-        return Utils.toArray(solve(this.getArray()));
+        int[] array = this.getArray();
+        if (array.length <= PackedStack.MAX_SIZE) return Utils.toArray(solve(PackedStack.pack(array), array.length));
+        return Utils.toArray(solve(array));
     }
 
     /**
@@ -71,4 +75,40 @@ public class PancakeSort4 extends PancakeSort {
         // Finally, return the best list (of indexes).
         return bestList;
     }
-}
\ No newline at end of file
+
+    /**
+     * Recursive private methode for finding the smallest list of indexes converting the
+     * given packed stack into a sorted one, like solve(int[]).
+     *
+     * @param stack The current (packed) stack
+     * @param size  The stack's size
+     * @return The smallest possible list of 0-based indexes that can convert the given
+     * stack in a sorted one using WUE-Operations.
+     */
+    private List<Integer> solve(long stack, int size) {
+        // Check if the given stack is sorted. If so, return an empty list.
+        if (PackedStack.isSorted(stack, size)) return new ArrayList<>();
+
+        // Keep track of the best list (of indexes for the WUE-Operations) using this list
+        List<Integer> bestList = null;
+
+        // Iterate through all possible indexes for WUE-Operations on the current stack
+        for (int index = 0; index < size; index++) {
+            // Apply the improved WUE-Operation on the given stack using the current index
+            // and solve the problem recursively.
+            List<Integer> recursiveResult = solve(PackedStack.improvedWUEOperation(stack, size, index), size - 1);
+
+            // If the best list is still null or the current list (recursiveResult.size() + 1!)
+            // is smaller than the best list, update the best list to the current one
+            if (bestList == null || recursiveResult.size() + 1 < bestList.size()) {
+                // Create the current list by first adding the current index and then adding the recursive result.
+                bestList = new ArrayList<>();
+                bestList.add(index);
+                bestList.addAll(recursiveResult);
+            }
+        }
+
+        // Finally, return the best list (of indexes).
+        return bestList;
+    }
+}
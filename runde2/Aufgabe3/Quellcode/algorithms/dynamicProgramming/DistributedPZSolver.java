@@ -0,0 +1,385 @@
+package de.flo.pancakeSort.algorithms.dynamicProgramming;
+
+import de.flo.pancakeSort.PZSolver;
+import de.flo.pancakeSort.util.MappedNibbleArray;
+import de.flo.pancakeSort.util.Pair;
+import de.flo.pancakeSort.util.Permutations;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the abstract class PZSolver that can find
+ * P(n) for a given natural number n and a corresponding example stack
+ * of the given size that needs at least P(n) WUE-Operations to be
+ * converted into a sorted stack.
+ * This algorithm works like PZSolverDP4 with the layers stored in memory-mapped files, but the layers and
+ * the final search are computed by worker processes (see PZWorker) instead of threads. This solver is the
+ * coordinator: it listens on a port, and every connected worker gets tasks (ranges of blocks of ranks of
+ * the permutations of a size) one after another. For a layer, the worker reads the previous layer from
+ * its file and writes its range of the next layer into the next layer's file (both in a directory shared by
+ * all workers), then it sends the biggest A(S) of the range and the rank of the first permutation with that
+ * value back. Workers can connect at any time, and the ranges of a worker that fails (e.i. its connection
+ * is closed or it doesn't answer within TASK_TIMEOUT ms) are given to the other workers again.
+ * The results of the ranges are merged in the order of the ranges, such that the smallest rank wins a tie.
+ * The final search uses the bound P(n) <= P(n-1) + 1: as soon as a range reaches it, the search is stopped.
+ */
+public class DistributedPZSolver extends PZSolver {
+
+    /**
+     * The biggest n supported, since A(S) has to fit into 4 bits
+     */
+    public static final int MAX_N = PZSolverDP4.MAX_MAPPED_N;
+
+    /**
+     * Command stopping a worker
+     */
+    static final int STOP = 0;
+
+    /**
+     * Command computing a range of a layer
+     */
+    static final int LAYER = 1;
+
+    /**
+     * Command searching a range for the worst permutation (without storing the values)
+     */
+    static final int SEARCH = 2;
+
+    /**
+     * The amount of blocks of a task (about a million permutations)
+     */
+    private static final int TASK_BLOCKS = 1 << 6;
+
+    /**
+     * The time in ms a worker has to answer a task, otherwise it's treated as failed
+     */
+    private static final int TASK_TIMEOUT = 10 * 60 * 1000;
+
+    /**
+     * The port the coordinator listens on
+     */
+    private final int port;
+
+    /**
+     * The directory shared by the coordinator and all workers containing the layers
+     */
+    private final File directory;
+
+    /**
+     * The tasks that are not assigned to a worker yet
+     */
+    private final BlockingDeque<Task> tasks = new LinkedBlockingDeque<>();
+
+    /**
+     * If the computation is still running (otherwise, the workers are stopped)
+     */
+    private volatile boolean running;
+
+    /**
+     * Public constructor taking in the value of n, such that P(n) can be computed,
+     * the port to listen on and the directory shared with the workers.
+     *
+     * @param n         The value n, such that P(n) can be computed.
+     * @param port      The port the workers connect to
+     * @param directory The directory the layers are stored in (shared with the workers)
+     * @throws IllegalArgumentException If n is less than 1 or bigger than MAX_N
+     */
+    public DistributedPZSolver(int n, int port, File directory) {
+        super(n);
+        if (n < 1 || n > MAX_N) throw new IllegalArgumentException();
+        this.port = port;
+        this.directory = directory;
+    }
+
+    /**
+     * Implementation of the solve-methode solving the PWZ-Problem as described above.
+     * This methode blocks until the workers have computed all layers.
+     *
+     * @return A pair containing P(n) and a corresponding example stack
+     * @throws UncheckedIOException If a layer's file can't be created or the port can't be listened on
+     */
+    @Override
+    public Pair<Integer, int[]> solve() {
+        // The only permutation of the size 1 needs no WUE-Operations
+        if (this.n == 1) return new Pair<>(0, new int[]{1});
+
+        this.running = true;
+
+        try (ServerSocket server = new ServerSocket(this.port)) {
+            Thread acceptor = new Thread(() -> accept(server), "coordinator");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            try {
+                // Start with the size 1 (the only permutation needs no WUE-Operations)
+                Files.createDirectories(this.directory.toPath());
+                MappedNibbleArray.create(getLayerFile(this.directory, 1), 1).force();
+                int max = 0;
+
+                // Go bottom up, letting the workers compute the next layer using the last one
+                for (int N = 2; N < this.n; N++) {
+                    MappedNibbleArray.create(getLayerFile(this.directory, N), Permutations.factorial(N));
+                    max = (int) runPhase(LAYER, N, Integer.MAX_VALUE)[0];
+
+                    Files.deleteIfExists(getLayerFile(this.directory, N - 1).toPath());
+                }
+
+                // Find the worst permutation of the size n using the bound P(n) <= P(n-1) + 1
+                long[] worst = runPhase(SEARCH, this.n, max + 1);
+                Files.deleteIfExists(getLayerFile(this.directory, this.n - 1).toPath());
+
+                // Return the worst permutation and its length in a pair.
+                return new Pair<>((int) worst[0], Permutations.unrank(worst[1], this.n));
+            } finally {
+                this.running = false;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Private methode splitting all blocks of the permutations of a size into tasks and waiting until the
+     * workers have computed all of them (or one reached the target). The results are merged in the order of
+     * the tasks, such that the smallest rank wins a tie.
+     *
+     * @param command The command of the tasks (LAYER or SEARCH)
+     * @param size    The size of the permutations
+     * @param target  The value for which the computation can stop
+     * @return The biggest value and the rank of the first permutation with that value
+     * @throws InterruptedException If the thread is interrupted while waiting for the workers
+     */
+    private long[] runPhase(int command, int size, int target) throws InterruptedException {
+        long blocks = PZSolverDP4.blocks(size);
+        int count = (int) ((blocks + TASK_BLOCKS - 1) / TASK_BLOCKS);
+        Phase phase = new Phase(count, target);
+
+        for (int i = 0; i < count; i++) {
+            this.tasks.add(new Task(phase, i, command, size, (long) i * TASK_BLOCKS, Math.min((long) (i + 1) * TASK_BLOCKS, blocks)));
+        }
+
+        phase.await();
+
+        // The tasks not assigned yet aren't needed anymore if the target was reached
+        this.tasks.clear();
+        return phase.merge();
+    }
+
+    /**
+     * Private methode accepting workers until the server is closed,
+     * starting a thread giving tasks to every worker.
+     *
+     * @param server The server socket
+     */
+    private void accept(ServerSocket server) {
+        while (this.running) {
+            try {
+                Socket socket = server.accept();
+
+                Thread thread = new Thread(() -> serve(socket), "worker-" + socket.getRemoteSocketAddress());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                // The server was closed
+                return;
+            }
+        }
+    }
+
+    /**
+     * Private methode giving tasks to a connected worker one after another and collecting its results.
+     * If the worker fails, its current task is put back, such that another worker computes it.
+     *
+     * @param socket The worker's socket
+     */
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             DataInputStream in = new DataInputStream(connection.getInputStream());
+             DataOutputStream out = new DataOutputStream(connection.getOutputStream())) {
+            connection.setSoTimeout(TASK_TIMEOUT);
+
+            while (this.running) {
+                Task task = this.tasks.poll(100, TimeUnit.MILLISECONDS);
+                if (task == null || task.phase.isDone()) continue;
+
+                try {
+                    out.writeInt(task.command);
+                    out.writeInt(task.size);
+                    out.writeLong(task.from);
+                    out.writeLong(task.to);
+                    out.writeInt(task.phase.target);
+                    out.flush();
+
+                    long max = in.readLong();
+                    long rank = in.readLong();
+                    task.phase.complete(task.index, new long[]{max, rank});
+                } catch (IOException e) {
+                    // Give the task to another worker
+                    this.tasks.addFirst(task);
+                    return;
+                }
+            }
+
+            out.writeInt(STOP);
+            out.flush();
+        } catch (IOException | InterruptedException e) {
+            // The worker can't be reached anymore or the coordinator stopped
+        }
+    }
+
+    /**
+     * Static function returning the file of the layer of the size n in the shared directory.
+     *
+     * @param directory The shared directory
+     * @param n         The size of the permutations
+     * @return The file
+     */
+    static File getLayerFile(File directory, int n) {
+        return new File(directory, "distributed-layer-" + n + ".nibbles");
+    }
+
+    /**
+     * Class representing the computation of all tasks of a layer or the final search.
+     */
+    private static final class Phase {
+
+        /**
+         * The results of the tasks (null if not computed yet)
+         */
+        private final long[][] results;
+
+        /**
+         * The value for which the computation can stop
+         */
+        private final int target;
+
+        /**
+         * The amount of tasks not computed yet
+         */
+        private int remaining;
+
+        /**
+         * If a task reached the target
+         */
+        private boolean reached;
+
+        /**
+         * Constructor taking in the amount of tasks and the target.
+         *
+         * @param count  The amount of tasks
+         * @param target The value for which the computation can stop
+         */
+        private Phase(int count, int target) {
+            this.results = new long[count][];
+            this.target = target;
+            this.remaining = count;
+        }
+
+        /**
+         * Synchronized methode storing the result of a task (if it wasn't computed before).
+         *
+         * @param index  The task's index
+         * @param result The biggest value of the task's range and the corresponding rank
+         */
+        private synchronized void complete(int index, long[] result) {
+            if (this.results[index] != null) return;
+
+            this.results[index] = result;
+            this.remaining--;
+            if (result[0] >= this.target) this.reached = true;
+
+            notifyAll();
+        }
+
+        /**
+         * Synchronized methode checking if all tasks are computed or one reached the target.
+         *
+         * @return If the phase is done
+         */
+        private synchronized boolean isDone() {
+            return this.remaining == 0 || this.reached;
+        }
+
+        /**
+         * Synchronized methode waiting until the phase is done.
+         *
+         * @throws InterruptedException If the thread is interrupted while waiting
+         */
+        private synchronized void await() throws InterruptedException {
+            while (!isDone()) wait();
+        }
+
+        /**
+         * Synchronized methode merging the results of the computed tasks in their order.
+         *
+         * @return The biggest value and the rank of the first permutation with that value
+         */
+        private synchronized long[] merge() {
+            long[] worst = {-1, -1};
+
+            for (long[] result : this.results) {
+                if (result != null && result[0] > worst[0]) worst = result;
+            }
+
+            return worst;
+        }
+    }
+
+    /**
+     * Class representing a task, e.i. a range of blocks of a layer or the final search.
+     */
+    private static final class Task {
+
+        /**
+         * The phase the task belongs to
+         */
+        private final Phase phase;
+
+        /**
+         * The task's index in its phase
+         */
+        private final int index;
+
+        /**
+         * The command (LAYER or SEARCH) and the size of the permutations
+         */
+        private final int command, size;
+
+        /**
+         * The first block (inclusive) and the last block (exclusive)
+         */
+        private final long from, to;
+
+        /**
+         * Constructor taking in all values of the task.
+         *
+         * @param phase   The phase the task belongs to
+         * @param index   The task's index in its phase
+         * @param command The command (LAYER or SEARCH)
+         * @param size    The size of the permutations
+         * @param from    The first block (inclusive)
+         * @param to      The last block (exclusive)
+         */
+        private Task(Phase phase, int index, int command, int size, long from, long to) {
+            this.phase = phase;
+            this.index = index;
+            this.command = command;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
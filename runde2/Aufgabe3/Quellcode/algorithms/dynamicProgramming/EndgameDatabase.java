@@ -0,0 +1,336 @@
+package de.flo.pancakeSort.algorithms.dynamicProgramming;
+
+import de.flo.pancakeSort.util.NibbleTable;
+import de.flo.pancakeSort.util.Permutations;
+import de.flo.pancakeSort.util.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class is an endgame database containing A(S) and the index of the first WUE-Operation of one
+ * smallest series for all permutations S of the sizes 1, 2, ... , k. For every size, the results are stored
+ * in a binary file (one byte per permutation indexed by its rank, see Permutations) containing the amount of
+ * WUE-Operations (upper 4 bits) and the 0-based index of the first one (lower 4 bits), like PancakeSortDP.
+ * The files are built once bottom up (like PZSolverDP4, every size only depends on the previous one) and
+ * memory-mapped afterwards, such that opening the database again only maps the existing files.
+ * A file is written under a temporary name and renamed when it's complete, such that an interrupted build
+ * never leaves a broken file behind.
+ * The search solvers use the database as an endgame table: as soon as a stack has at most k pancakes,
+ * the amount of WUE-Operations still needed and the next WUE-Operation are looked up.
+ * Reading the database is thread-safe.
+ */
+public class EndgameDatabase {
+
+    /**
+     * The biggest size supported, since a file has to fit into one MappedByteBuffer (12! bytes are about 480 MB)
+     */
+    public static final int MAX_SIZE = 12;
+
+    /**
+     * The amount of permutations in a block computed by one task
+     */
+    private static final int BLOCK_SIZE = 1 << 14;
+
+    /**
+     * The mapped files of the sizes 1, 2, ... , k (the first element is not used)
+     */
+    private final MappedByteBuffer[] tables;
+
+    /**
+     * Private constructor taking in the mapped files, use open(...) to create an instance.
+     *
+     * @param tables The mapped files of the sizes 1, 2, ... , k
+     */
+    private EndgameDatabase(MappedByteBuffer[] tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Public static function opening the database of all sizes up to the given one in the given directory
+     * using as many threads as processors for building missing files.
+     *
+     * @param directory The directory containing the files
+     * @param maxSize   The biggest size k
+     * @return The database
+     * @throws IOException              If a file can't be created, written or mapped
+     * @throws IllegalArgumentException If the size is less than 1 or bigger than MAX_SIZE
+     */
+    public static EndgameDatabase open(File directory, int maxSize) throws IOException {
+        return open(directory, maxSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Public static function opening the database of all sizes up to the given one in the given directory.
+     * The files that don't exist yet (or have the wrong length) are built using the given amount of threads.
+     *
+     * @param directory   The directory containing the files
+     * @param maxSize     The biggest size k
+     * @param parallelism The amount of threads building the missing files (at least 1)
+     * @return The database
+     * @throws IOException              If a file can't be created, written or mapped
+     * @throws IllegalArgumentException If the size is less than 1 or bigger than MAX_SIZE
+     *                                  or the amount of threads is less than 1
+     */
+    public static EndgameDatabase open(File directory, int maxSize, int parallelism) throws IOException {
+        if (maxSize < 1 || maxSize > MAX_SIZE || parallelism < 1) throw new IllegalArgumentException();
+
+        Files.createDirectories(directory.toPath());
+        MappedByteBuffer[] tables = new MappedByteBuffer[maxSize + 1];
+        ForkJoinPool pool = null;
+
+        try {
+            for (int size = 1; size <= maxSize; size++) {
+                File file = getFile(directory, size);
+
+                // Build the file if it's missing, using the file of the previous size
+                if (file.length() != Permutations.factorial(size)) {
+                    if (pool == null) pool = new ForkJoinPool(parallelism);
+                    build(pool, file, size, tables[size - 1]);
+                }
+
+                tables[size] = map(file, size, false);
+            }
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+
+        return new EndgameDatabase(tables);
+    }
+
+    /**
+     * Public getter for the biggest size k contained in the database.
+     *
+     * @return The biggest size
+     */
+    public int getMaxSize() {
+        return this.tables.length - 1;
+    }
+
+    /**
+     * Public getter for the result of a permutation given its rank and size.
+     *
+     * @param rank The permutation's rank
+     * @param size The permutation's size (0 <= size <= k)
+     * @return The amount of WUE-Operations needed (upper 4 bits) and the 0-based index of
+     * the first one (lower 4 bits), e.i. 0 if the permutation is sorted
+     */
+    public int getEntry(long rank, int size) {
+        if (size == 0) return 0;
+        return this.tables[size].get((int) rank) & 0xFF;
+    }
+
+    /**
+     * Public getter for the result of a given permutation.
+     *
+     * @param permutation The permutation (of size <= k)
+     * @return The amount of WUE-Operations needed (upper 4 bits) and the 0-based index of
+     * the first one (lower 4 bits), e.i. 0 if the permutation is sorted
+     */
+    public int getEntry(int[] permutation) {
+        return getEntry(Permutations.rank(permutation), permutation.length);
+    }
+
+    /**
+     * Public getter for the biggest amount of WUE-Operations needed by a permutation of the given size,
+     * e.i. P(size), and the smallest rank of a permutation needing that many, going through all permutations.
+     *
+     * @param size The size (1 <= size <= k)
+     * @return P(size) and the rank of the first permutation S with A(S) = P(size)
+     */
+    public long[] getWorst(int size) {
+        MappedByteBuffer table = this.tables[size];
+        long[] worst = {0, 0};
+
+        for (int i = 0; i < table.limit(); i++) {
+            int distance = (table.get(i) & 0xFF) >>> 4;
+
+            if (distance > worst[0]) {
+                worst[0] = distance;
+                worst[1] = i;
+            }
+        }
+
+        return worst;
+    }
+
+    /**
+     * Public getter for a read-only view of the amounts of WUE-Operations of all permutations of
+     * the given size indexed by their rank, which can be used as a dp-table of PZSolverDP4.
+     *
+     * @param size The size (1 <= size <= k)
+     * @return The amounts of WUE-Operations
+     */
+    public NibbleTable getLayer(int size) {
+        MappedByteBuffer table = this.tables[size];
+
+        return new NibbleTable() {
+            @Override
+            public int get(long index) {
+                return (table.get((int) index) & 0xFF) >>> 4;
+            }
+
+            @Override
+            public long getSize() {
+                return table.limit();
+            }
+        };
+    }
+
+    /**
+     * Private static function returning the file of a given size in a given directory.
+     *
+     * @param directory The directory
+     * @param size      The size
+     * @return The file
+     */
+    private static File getFile(File directory, int size) {
+        return new File(directory, "endgame-" + size + ".bytes");
+    }
+
+    /**
+     * Private static function mapping the file of a given size.
+     *
+     * @param file     The file
+     * @param size     The size
+     * @param writable If the file is mapped for writing (its length is set then)
+     * @return The mapped file
+     * @throws IOException If the file can't be mapped
+     */
+    private static MappedByteBuffer map(File file, int size, boolean writable) throws IOException {
+        long bytes = Permutations.factorial(size);
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, writable ? "rw" : "r")) {
+            if (writable) randomAccessFile.setLength(bytes);
+
+            // The mapping stays valid after the channel is closed
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            return randomAccessFile.getChannel().map(mode, 0, bytes);
+        }
+    }
+
+    /**
+     * Private static function building the file of a given size in parallel using the mapped file of the
+     * previous size. The file is written under a temporary name and renamed afterwards.
+     *
+     * @param pool     The pool computing the blocks
+     * @param file     The file
+     * @param size     The size
+     * @param previous The mapped file of the size size-1 (null for the size 1)
+     * @throws IOException If the file can't be written or renamed
+     */
+    private static void build(ForkJoinPool pool, File file, int size, MappedByteBuffer previous) throws IOException {
+        File temporary = new File(file.getPath() + ".tmp");
+        MappedByteBuffer table = map(temporary, size, true);
+
+        long blocks = (Permutations.factorial(size) + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        pool.invoke(new BuildTask(size, previous, table, 0, blocks));
+        table.force();
+
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Private static function computing the results of all permutations of a given size in a block of ranks
+     * using the results of the previous size. The permutations are gone through in lexicographic order,
+     * starting by unranking the block's first one. Like PancakeSortDP, the first index
+     * with the smallest amount of WUE-Operations is stored.
+     *
+     * @param size     The size
+     * @param previous The mapped file of the size size-1
+     * @param table    The mapped file the results are written to
+     * @param block    The block of ranks
+     */
+    private static void computeBlock(int size, MappedByteBuffer previous, MappedByteBuffer table, long block) {
+        long from = block * BLOCK_SIZE;
+        long to = Math.min(from + BLOCK_SIZE, Permutations.factorial(size));
+
+        int[] list = Permutations.unrank(from, size);
+        int[] buffer = new int[size - 1];
+
+        for (long rank = from; rank < to; rank++) {
+            // The first (sorted) permutation has the rank 0 and needs no WUE-Operations
+            int best = 0, bestIndex = 0;
+
+            for (int i = 0; rank != 0 && i < size; i++) {
+                // Apply the improved WUE-Operation and look the result up by ranking it
+                Utils.improvedWUEOperation(list, i, buffer);
+                int current = (previous.get((int) Permutations.rank(buffer)) >>> 4 & 0xF) + 1;
+
+                if (best == 0 || current < best) {
+                    best = current;
+                    bestIndex = i;
+
+                    // No permutation needs less than one WUE-Operation except the sorted one
+                    if (best == 1) break;
+                }
+            }
+
+            table.put((int) rank, (byte) (best << 4 | bestIndex));
+            Permutations.nextPermutation(list);
+        }
+    }
+
+    /**
+     * Class representing the task of building a range of blocks, which is split into two tasks
+     * computed in parallel unless it consists of only one block.
+     */
+    private static final class BuildTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The size of the permutations
+         */
+        private final int size;
+
+        /**
+         * The mapped file of the previous size and the mapped file the results are written to
+         */
+        private final MappedByteBuffer previous, table;
+
+        /**
+         * The first block (inclusive) and the last block (exclusive)
+         */
+        private final long from, to;
+
+        /**
+         * Constructor taking in the size, the mapped files and the range of blocks.
+         *
+         * @param size     The size of the permutations
+         * @param previous The mapped file of the previous size
+         * @param table    The mapped file the results are written to
+         * @param from     The first block (inclusive)
+         * @param to       The last block (exclusive)
+         */
+        private BuildTask(int size, MappedByteBuffer previous, MappedByteBuffer table, long from, long to) {
+            this.size = size;
+            this.previous = previous;
+            this.table = table;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Implementation of the compute-methode building the blocks.
+         */
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                computeBlock(this.size, this.previous, this.table, this.from);
+                return;
+            }
+
+            long middle = (this.from + this.to) >>> 1;
+            invokeAll(new BuildTask(this.size, this.previous, this.table, this.from, middle),
+                    new BuildTask(this.size, this.previous, this.table, middle, this.to));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package de.flo.pancakeSort.algorithms.dynamicProgramming;
 
 import de.flo.pancakeSort.PZSolver;
+import de.flo.pancakeSort.util.PackedStack;
 import de.flo.pancakeSort.util.Pair;
 import de.flo.pancakeSort.util.Utils;
 
@@ -16,7 +17,8 @@ import java.util.Map;
  * given size n using Heap's Algorithm and will use a bottom up Dynamic Programming
  * approach to compute values of A(S). E.i., first compute all permutations of
  * size 1, 2, 3, ... n-1. To then compute the permutations of size n and get the maximum
- * A(S). This algorithmen uses a custom-made hashing function for n <= 15 and is a
+ * A(S). This algorithmen packs the permutations into longs for n <= 16 (see PackedStack), which are used as
+ * keys of the dp-tables, such that the WUE-Operations don't create any arrays. It is a
  * concrete implementation of "Algorithmus-19".
  */
 public class PZSolverDP3 extends PZSolver {
@@ -42,7 +44,7 @@ public class PZSolverDP3 extends PZSolver {
         Map<Long, Integer> dp = new HashMap<>();
 
         // Start with the size 1
-        dp.put(hash(new int[]{1}), 0);
+        dp.put(PackedStack.pack(new int[]{1}), 0);
 
         // Go bottom up, computing the next dp-table using the last one,
         // up to the dp-table for the S' of size n-1.
@@ -70,7 +72,7 @@ public class PZSolverDP3 extends PZSolver {
                 i = 1;
 
                 // Check current permutation S by computing its value A(S) using the dp-table
-                int currentNumber = getOperationNumber(list, dp);
+                int currentNumber = getOperationNumber(PackedStack.pack(list), this.n, dp);
 
                 // If the smallest amount of WUE-Operations needed to sort the
                 // current permutation (currentNumber) is greater than the
@@ -89,34 +91,6 @@ public class PZSolverDP3 extends PZSolver {
         return new Pair<>(worstOperations, worstPermutation);
     }
 
-    /**
-     * Custom hash function computing the hash value for a given permutation of a size n <= 16.
-     *
-     * @param list The given permutation
-     * @return The permutation's hash value
-     */
-    private long hash(int[] list) {
-        int n = list.length;
-
-        // Make sure the permutation's size is smaller than 16.
-        if (n >= 16) throw new IllegalArgumentException();
-
-        // Compute the hash by seeing the given permutation as a number
-        // with base n and convert it to a decimal number.
-        // E.i., computing \sum_{i=0}^{n-1} n^i * A[i] for a permutation A.
-        long hash = 0;
-        long mul = 1;
-        long base = n;
-
-        for (int i : list) {
-            hash += mul * i;
-            mul *= base;
-        }
-
-        // Return the computed hash.
-        return hash;
-    }
-
     /**
      * Private methode computing the next dp-table, that will contain all A(S) for permutations
      * S of the size n, using the dp-table containing the results A(S') of all stacks of the size n-1
@@ -133,8 +107,7 @@ public class PZSolverDP3 extends PZSolver {
         int[] list = getStartPermutation(n);
 
         // Put the first (sorted) permutation into the next dp-table
-        int[] firstPermutation = list.clone();
-        nextDP.put(hash(firstPermutation), 0);
+        nextDP.put(PackedStack.pack(list), 0);
 
         // Use Heap's Algorithmus to iterate through all permutations of the numbers 1, 2, ... , n.
         int[] c = new int[n];
@@ -146,13 +119,13 @@ public class PZSolverDP3 extends PZSolver {
                 c[i]++;
                 i = 1;
 
-                // Check current permutation S by first copying it
+                // Check current permutation S by first packing it
                 // and then computing its value A(S) using the dp-table
-                int[] currentPermutation = list.clone();
-                int currentNum = getOperationNumber(currentPermutation, dp);
+                long currentPermutation = PackedStack.pack(list);
+                int currentNum = getOperationNumber(currentPermutation, n, dp);
 
                 // Next put the result into the next dp-table
-                nextDP.put(hash(currentPermutation), currentNum);
+                nextDP.put(currentPermutation, currentNum);
             } else {
                 c[i] = 0;
                 i += 1;
@@ -166,20 +139,21 @@ public class PZSolverDP3 extends PZSolver {
      * Private methode for computing A(S) for a given permutation S of size n using the values
      * of a dp-table containing the A(S') results for permutations of size n-1
      *
-     * @param permutation The given permutation S
+     * @param permutation The given (packed) permutation S
+     * @param n           The size of the permutation
      * @param dp          The dp-table containing the A(S') results for permutations of size n-1
      * @return The value A(S) for the given permutation S
      */
-    private int getOperationNumber(int[] permutation, Map<Long, Integer> dp) {
+    private int getOperationNumber(long permutation, int n, Map<Long, Integer> dp) {
         // Keep track of the best number of operations
         int min = -1;
 
         // Iterate through all possible indexes for WUE-Operations on the current stack
-        for (int i = 0; i < permutation.length; i++) {
-            // Apply the improved WUE-Operation on the given array (stack) using the current index,
-            // receiving a new permutation S' and get A(S') using the dp-table by hashing S' manually
-            int[] currentPermutation = Utils.improvedWUEOperation(permutation, i);
-            int currentNumber = dp.get(hash(currentPermutation)) + 1;
+        for (int i = 0; i < n; i++) {
+            // Apply the improved WUE-Operation on the given (packed) stack using the current index,
+            // receiving a new permutation S' and get A(S') using the dp-table
+            long currentPermutation = PackedStack.improvedWUEOperation(permutation, n, i);
+            int currentNumber = dp.get(currentPermutation) + 1;
 
             // If min is still -1 or the current result (currentNumber) is smaller
             // than min, update min to the currentNumber
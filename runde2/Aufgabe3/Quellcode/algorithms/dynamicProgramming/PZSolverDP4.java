@@ -0,0 +1,833 @@
+package de.flo.pancakeSort.algorithms.dynamicProgramming;
+
+import de.flo.pancakeSort.PZSolver;
+import de.flo.pancakeSort.util.MappedNibbleArray;
+import de.flo.pancakeSort.util.NibbleArray;
+import de.flo.pancakeSort.util.NibbleTable;
+import de.flo.pancakeSort.util.Pair;
+import de.flo.pancakeSort.util.Permutations;
+import de.flo.pancakeSort.util.Utils;
+import de.flo.pancakeSort.util.WritableNibbleTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * Implementation of the abstract class PZSolver that can find
+ * P(n) for a given natural number n and a corresponding example stack
+ * of the given size that needs at least P(n) WUE-Operations to be
+ * converted into a sorted stack.
+ * This algorithm works like PZSolverDP3 ("Algorithmus-19"), computing A(S) for all permutations
+ * of the sizes 1, 2, ... n-1 bottom up, but instead of HashMaps, every dp-table (layer) is a dense
+ * NibbleArray indexed by the permutations' ranks (see Permutations), e.i. half a byte per permutation.
+ * The permutations of a size are gone through in lexicographic order, such that a permutation's rank
+ * is just its index, and the results of the WUE-Operations are looked up by computing their ranks.
+ * No arrays are created per permutation. This way, P(13) needs about 250 MB (the layer of size 12).
+ * Optionally, the layers are stored in memory-mapped files in a given directory (see MappedNibbleArray)
+ * instead of on the heap, such that the heap usage stays constant for any n. The next layer is written
+ * sequentially, while the previous one is read randomly. For P(14), the layer of size 13 needs about 3 GB.
+ * A layer's file is deleted as soon as it's not needed anymore.
+ * Since every permutation's value only depends on the previous layer, every layer and the final
+ * search for the worst permutation are split into blocks of ranks, that are computed in parallel
+ * by a ForkJoinPool. Every block starts by unranking its first permutation, and the worst permutations
+ * of the blocks are merged (the one with the smallest rank wins a tie, like going through them in order).
+ * In the final search, a permutation's A(S) is only computed until it's clear that it can't be worse than
+ * the worst permutation found so far, since every WUE-Operation gives an upper bound for A(S).
+ * In the bounded mode, the final search uses that one WUE-Operation turns a stack of size n into one of
+ * size n-1, such that P(n) <= P(n-1) + 1. Moreover, a permutation S can only need P(n-1) + 1 WUE-Operations
+ * if removing its top pancake leaves a worst stack S' of size n-1, e.i. S is S' with one pancake put on top.
+ * Those permutations are visited first, and the search stops as soon as one of them reaches the bound.
+ * If none does and one of them needs P(n-1) WUE-Operations, P(n) = P(n-1). Only otherwise, all permutations
+ * are gone through, stopping as soon as one needs P(n-1) WUE-Operations.
+ * Optionally, an EndgameDatabase is used: the layers of the sizes it contains are read from it
+ * instead of being computed, since it's indexed by the ranks as well.
+ * Since P(N) is known as soon as the layer of the size N is complete, P(1), P(2), ... , P(n) can be computed
+ * in one run (see sweep), optionally keeping the finished layers in the directory for later runs.
+ * If the layers are stored in files, long runs can be continued after they were stopped: every finished
+ * layer is written to its file together with a result file, and while a layer (or the final search) is
+ * computed, a progress file containing the finished blocks and the worst permutation so far is written
+ * at least every CHECKPOINT_INTERVAL ms. A stopped run continues with the last finished layer and
+ * the blocks after the last checkpoint. Result and progress files are written under a temporary name and
+ * renamed afterwards, and only after the layer's changes are written, such that they never describe
+ * a layer that isn't written yet.
+ */
+public class PZSolverDP4 extends PZSolver {
+
+    /**
+     * The biggest n supported with the layers on the heap, since the layer of size n-1 has to fit into a NibbleArray
+     */
+    public static final int MAX_N = 14;
+
+    /**
+     * The biggest n supported with the layers in files, since A(S) has to fit into 4 bits
+     */
+    public static final int MAX_MAPPED_N = 16;
+
+    /**
+     * The amount of permutations in a block computed by one task. This has to be a multiple of 16,
+     * such that no two tasks set values in the same long of a NibbleArray (or byte of a MappedNibbleArray).
+     */
+    static final int BLOCK_SIZE = 1 << 14;
+
+    /**
+     * The amount of blocks computed between two possible checkpoints (about 16 million permutations)
+     */
+    private static final int CHECKPOINT_BLOCKS = 1 << 10;
+
+    /**
+     * The minimum time between two checkpoints in ms
+     */
+    private static final long CHECKPOINT_INTERVAL = 60_000;
+
+    /**
+     * The directory the layers are stored in (null if they are stored on the heap)
+     */
+    private final File directory;
+
+    /**
+     * The amount of threads computing the layers
+     */
+    private final int parallelism;
+
+    /**
+     * If the final search uses the bound P(n) <= P(n-1) + 1 (see above)
+     */
+    private final boolean bounded;
+
+    /**
+     * The endgame database the first layers are read from (null if none is used)
+     */
+    private final EndgameDatabase database;
+
+    /**
+     * Public constructor only taking in the value of n, such that P(n) can be computed.
+     * The layers are stored on the heap.
+     *
+     * @param n The value n, such that P(n) can be computed.
+     * @throws IllegalArgumentException If n is less than 1 or bigger than MAX_N
+     */
+    public PZSolverDP4(int n) {
+        this(n, null);
+    }
+
+    /**
+     * Public constructor taking in the value of n, such that P(n) can be computed,
+     * and the directory the layers are stored in as memory-mapped files.
+     *
+     * @param n         The value n, such that P(n) can be computed.
+     * @param directory The directory (null for storing the layers on the heap)
+     * @throws IllegalArgumentException If n is less than 1 or bigger than MAX_N (MAX_MAPPED_N with a directory)
+     */
+    public PZSolverDP4(int n, File directory) {
+        this(n, directory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Public constructor taking in the value of n, such that P(n) can be computed, the directory
+     * the layers are stored in as memory-mapped files and the amount of threads computing the layers.
+     *
+     * @param n           The value n, such that P(n) can be computed.
+     * @param directory   The directory (null for storing the layers on the heap)
+     * @param parallelism The amount of threads (at least 1)
+     * @throws IllegalArgumentException If n is less than 1 or bigger than MAX_N (MAX_MAPPED_N with a directory)
+     *                                  or the amount of threads is less than 1
+     */
+    public PZSolverDP4(int n, File directory, int parallelism) {
+        this(n, directory, parallelism, false);
+    }
+
+    /**
+     * Public constructor taking in the value of n, such that P(n) can be computed, the directory
+     * the layers are stored in as memory-mapped files, the amount of threads computing the layers
+     * and if the final search should use the bound P(n) <= P(n-1) + 1.
+     *
+     * @param n           The value n, such that P(n) can be computed.
+     * @param directory   The directory (null for storing the layers on the heap)
+     * @param parallelism The amount of threads (at least 1)
+     * @param bounded     If the final search uses the bound (see above)
+     * @throws IllegalArgumentException If n is less than 1 or bigger than MAX_N (MAX_MAPPED_N with a directory)
+     *                                  or the amount of threads is less than 1
+     */
+    public PZSolverDP4(int n, File directory, int parallelism, boolean bounded) {
+        this(n, directory, parallelism, bounded, null);
+    }
+
+    /**
+     * Public constructor taking in the value of n, such that P(n) can be computed, the directory
+     * the layers are stored in as memory-mapped files, the amount of threads computing the layers,
+     * if the final search should use the bound P(n) <= P(n-1) + 1 and an endgame database.
+     *
+     * @param n           The value n, such that P(n) can be computed.
+     * @param directory   The directory (null for storing the layers on the heap)
+     * @param parallelism The amount of threads (at least 1)
+     * @param bounded     If the final search uses the bound (see above)
+     * @param database    The endgame database the first layers are read from (null if none is used)
+     * @throws IllegalArgumentException If n is less than 1 or bigger than MAX_N (MAX_MAPPED_N with a directory)
+     *                                  or the amount of threads is less than 1
+     */
+    public PZSolverDP4(int n, File directory, int parallelism, boolean bounded, EndgameDatabase database) {
+        super(n);
+        if (n < 1 || n > (directory == null ? MAX_N : MAX_MAPPED_N) || parallelism < 1) throw new IllegalArgumentException();
+        this.directory = directory;
+        this.parallelism = parallelism;
+        this.bounded = bounded;
+        this.database = database;
+    }
+
+    /**
+     * Implementation of the solve-methode solving the PWZ-Problem as described above.
+     *
+     * @return A pair containing P(n) and a corresponding example stack
+     * @throws UncheckedIOException If a layer's file can't be created, mapped or written
+     */
+    @Override
+    public Pair<Integer, int[]> solve() {
+        return run(null);
+    }
+
+    /**
+     * Public methode computing P(1), P(2), ... , P(n) in one run, since all layers of the sizes 1 to n-1 are
+     * computed anyway: P(N) and the first permutation with that value are known as soon as the layer of the
+     * size N is complete, and they are passed to the given listener right away. If the layers are stored
+     * in files, the finished layers are kept (together with their results), such that a later run for a
+     * bigger n (with the same directory) starts with the biggest kept layer instead of computing it again.
+     *
+     * @param listener The listener getting P(N) and an example stack (of the size N) for N = 1, 2, ... , n
+     *                 in this order (null if none)
+     * @return P(N) and an example stack for N = 1, 2, ... , n
+     * @throws UncheckedIOException If a layer's file can't be created, mapped or written
+     */
+    public List<Pair<Integer, int[]>> sweep(Consumer<Pair<Integer, int[]>> listener) {
+        List<Pair<Integer, int[]>> results = new ArrayList<>();
+
+        run(result -> {
+            results.add(result);
+            if (listener != null) listener.accept(result);
+        });
+
+        return results;
+    }
+
+    /**
+     * Private methode computing the layers bottom up and finding the worst permutation of the size n.
+     * The first layer is the biggest one up to the size n-1 contained in the endgame database or kept in
+     * the directory (with the results of all smaller sizes). If a listener is given, P(N) is passed to it
+     * for every size N and the computed layers are kept in the directory, otherwise they are deleted as soon
+     * as they're not needed anymore (layers that were in the directory before are never deleted).
+     * If the directory contains a checkpoint of the layer after the first one, its computation is continued.
+     *
+     * @param listener The listener getting P(N) and an example stack for every size N (null if none)
+     * @return A pair containing P(n) and a corresponding example stack
+     * @throws UncheckedIOException If a layer's file can't be created, mapped or written
+     */
+    private Pair<Integer, int[]> run(Consumer<Pair<Integer, int[]>> listener) {
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        boolean keep = listener != null;
+
+        try {
+            // The worst permutations of the sizes 1 to start (the only permutation of the size 1 needs no WUE-Operations)
+            long[][] worst = new long[this.n + 1][];
+            worst[1] = new long[]{0, 0};
+
+            // Start with the biggest size up to n-1 contained in the endgame database and the directory
+            int start = 1;
+            NibbleTable dp = null;
+
+            if (this.database != null) {
+                start = Math.max(1, Math.min(this.database.getMaxSize(), this.n - 1));
+                for (int N = 2; N <= start; N++) worst[N] = this.database.getWorst(N);
+                dp = this.database.getLayer(start);
+            }
+
+            int kept = findKeptLayer(worst);
+
+            if (kept > start) {
+                start = kept;
+                dp = openKeptLayer(kept);
+            }
+
+            // Layers of the directory or the endgame database are not deleted
+            boolean delete = dp == null;
+            if (dp == null) dp = createLayer(1);
+
+            // Only the sizes below n, P(n) is passed after the search
+            for (int N = 1; N <= Math.min(start, this.n - 1); N++) emit(listener, worst[N], N);
+
+            // Go bottom up, computing the next dp-table using the last one,
+            // up to the dp-table for the S' of size n-1, keeping track of P(N).
+            for (int N = start + 1; N < this.n; N++) {
+                int size = N;
+                NibbleTable lastDP = dp;
+                WritableNibbleTable nextDP = N == start + 1 && hasCheckpoint(N) ? openLayer(N) : createLayer(N);
+                worst[N] = invokeInChunks(pool, blocks(N), -1, Integer.MAX_VALUE, getProgressFile("layer-" + N), nextDP,
+                        atLeast -> block -> computeBlock(size, lastDP, nextDP, block, -1, Integer.MAX_VALUE, null));
+
+                if (this.directory != null) keepLayer(nextDP, N, worst[N]);
+                if (delete) deleteLayer(dp);
+
+                dp = nextDP;
+                delete = !keep;
+                emit(listener, worst[N], N);
+            }
+
+            // Find the worst permutation of the size n and the amount of WUE-Operations needed to solve it
+            long[] result = this.bounded && this.n > 1 ? searchBounded(pool, dp, (int) worst[this.n - 1][0]) : search(pool, dp, -1, Integer.MAX_VALUE);
+            deleteProgress("search-" + this.n);
+            if (delete) deleteLayer(dp);
+
+            // Return the worst permutation and its length in a pair.
+            Pair<Integer, int[]> pair = new Pair<>((int) result[0], Permutations.unrank(result[1], this.n));
+            if (listener != null) listener.accept(pair);
+            return pair;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Private static function passing P(N) and the permutation with the given rank to a listener.
+     *
+     * @param listener The listener (null if none)
+     * @param worst    P(N) and the rank of the permutation
+     * @param N        The size
+     */
+    private static void emit(Consumer<Pair<Integer, int[]>> listener, long[] worst, int N) {
+        if (listener != null) listener.accept(new Pair<>((int) worst[0], Permutations.unrank(worst[1], N)));
+    }
+
+    /**
+     * Private methode going through all permutations of the size n in parallel, keeping track of the worst
+     * permutation (the smallest rank wins a tie) and the amount of WUE-Operations needed to solve it
+     * (without storing the values). Only permutations worse than a given value are of interest and the
+     * search stops as soon as one reaches a given target.
+     *
+     * @param pool    The pool computing the blocks
+     * @param dp      The dp-table containing the results A(S') of all stacks of the size n-1
+     * @param atLeast The value a permutation has to be worse than
+     * @param target  The value for which the search can stop
+     * @return The biggest A(S) and the rank of the permutation S (-1 if no permutation was worse than atLeast)
+     */
+    private long[] search(ForkJoinPool pool, NibbleTable dp, int atLeast, int target) {
+        // The smallest block in which the target was reached, blocks after it don't need to be computed
+        AtomicLong found = new AtomicLong(Long.MAX_VALUE);
+
+        // Only permutations worse than the worst one of the previous chunks are of interest
+        return invokeInChunks(pool, blocks(this.n), atLeast, target, getProgressFile("search-" + this.n), null,
+                worst -> block -> block > found.get()
+                        ? new long[]{-1, -1}
+                        : computeBlock(this.n, dp, null, block, worst, target, found));
+    }
+
+    /**
+     * Private methode computing the blocks of all permutations of a size in chunks of CHECKPOINT_BLOCKS blocks
+     * one after another (the blocks of a chunk in parallel), keeping track of the worst permutation (the
+     * smallest rank wins a tie), until the worst one reaches the given target. If a progress file is given,
+     * a checkpoint is written after a chunk if the last one is at least CHECKPOINT_INTERVAL ms ago:
+     * the layer's changes are written to its file first, then the progress file containing the amount
+     * of finished blocks and the worst permutation so far is written atomically. If the progress file
+     * already exists (for the same atLeast), the computation is continued after its finished blocks.
+     *
+     * @param pool     The pool computing the blocks
+     * @param blocks   The amount of blocks
+     * @param atLeast  The value a permutation has to be worse than
+     * @param target   The value for which the computation can stop
+     * @param progress The progress file (null if no checkpoints are written)
+     * @param layer    The layer the blocks are written into (null if none)
+     * @param function Function returning the function computing a block given the worst value so far
+     * @return The biggest value and the rank of the first permutation with that value
+     * (-1 if no permutation was worse than atLeast)
+     * @throws UncheckedIOException If a checkpoint can't be written
+     */
+    private long[] invokeInChunks(ForkJoinPool pool, long blocks, int atLeast, int target, File progress, NibbleTable layer, IntFunction<LongFunction<long[]>> function) {
+        long next = 0;
+        long[] worst = {atLeast, -1};
+
+        // Continue after the last checkpoint
+        long[] checkpoint = readProgress(progress, atLeast);
+
+        if (checkpoint != null) {
+            next = checkpoint[0];
+            worst = new long[]{checkpoint[1], checkpoint[2]};
+        }
+
+        long time = System.currentTimeMillis();
+
+        while (next < blocks && worst[0] < target) {
+            long to = Math.min(next + CHECKPOINT_BLOCKS, blocks);
+            long[] chunkWorst = pool.invoke(new BlockTask(function.apply((int) worst[0]), next, to));
+
+            // The worst permutation of the previous chunks comes first, so it wins a tie
+            if (chunkWorst[0] > worst[0]) worst = chunkWorst;
+            next = to;
+
+            if (progress != null && next < blocks && System.currentTimeMillis() - time >= CHECKPOINT_INTERVAL) {
+                if (layer instanceof MappedNibbleArray) ((MappedNibbleArray) layer).force();
+                write(progress, atLeast + " " + next + " " + worst[0] + " " + worst[1]);
+                time = System.currentTimeMillis();
+            }
+        }
+
+        return worst;
+    }
+
+    /**
+     * Private methode finding the worst permutation of the size n using the bound P(n) <= P(n-1) + 1.
+     * First, all permutations S' of the size n-1 with A(S') = P(n-1) are gone through in parallel, trying
+     * every pancake on top of them, stopping as soon as one reaches the bound. Only if none of them needs
+     * P(n-1) WUE-Operations, all permutations are gone through (see above).
+     *
+     * @param pool The pool computing the blocks
+     * @param dp   The dp-table containing the results A(S') of all stacks of the size n-1
+     * @param max  P(n-1)
+     * @return P(n) and the rank of a permutation S with A(S) = P(n)
+     */
+    private long[] searchBounded(ForkJoinPool pool, NibbleTable dp, int max) {
+        AtomicLong found = new AtomicLong(Long.MAX_VALUE);
+
+        long[] worst = pool.invoke(new BlockTask(block -> block > found.get()
+                ? new long[]{-1, -1}
+                : computeCandidates(this.n, dp, max, block, found), 0, blocks(this.n - 1)));
+
+        // If a candidate needs P(n-1) + 1 or P(n-1) WUE-Operations (P(n) >= P(n-1) is not assumed), it's a worst one
+        if (worst[0] >= max) return worst;
+
+        long[] rest = search(pool, dp, (int) worst[0], max);
+        return rest[0] > worst[0] ? rest : worst;
+    }
+
+    /**
+     * Static function returning the amount of blocks the permutations of the size n are split into.
+     *
+     * @param n The size of the permutations
+     * @return The amount of blocks
+     */
+    static long blocks(int n) {
+        return (Permutations.factorial(n) + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    /**
+     * Private methode creating an empty dp-table for all permutations of the size n,
+     * either on the heap or in a memory-mapped file in the directory.
+     *
+     * @param n The size of the permutations
+     * @return The dp-table (filled with zeros)
+     * @throws UncheckedIOException If the file can't be created or mapped
+     */
+    private WritableNibbleTable createLayer(int n) {
+        if (this.directory == null) return new NibbleArray(Permutations.factorial(n));
+
+        try {
+            // The layer isn't complete anymore, so its result and progress files are deleted first
+            Files.createDirectories(this.directory.toPath());
+            Files.deleteIfExists(getResultFile(n).toPath());
+            Files.deleteIfExists(getProgressFile("layer-" + n).toPath());
+            return MappedNibbleArray.create(getLayerFile(n), Permutations.factorial(n));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private methode finding the biggest size up to n-1 whose layer is kept in the directory, such that
+     * the results of all sizes up to it are known (from the endgame database or the directory).
+     * The results read from the directory are put into the given array.
+     *
+     * @param worst The worst permutations of the sizes (null if not known yet)
+     * @return The biggest size with a kept layer (0 if there is none or no directory)
+     * @throws UncheckedIOException If a result file can't be read
+     */
+    private int findKeptLayer(long[][] worst) {
+        if (this.directory == null) return 0;
+        int kept = 0;
+
+        for (int N = 2; N < this.n; N++) {
+            if (worst[N] == null) worst[N] = readResult(N);
+            if (worst[N] == null) break;
+
+            if (getLayerFile(N).length() == (Permutations.factorial(N) + 1) / 2) kept = N;
+        }
+
+        return kept;
+    }
+
+    /**
+     * Private methode mapping the kept layer of the size n read-only.
+     *
+     * @param n The size of the permutations
+     * @return The dp-table
+     * @throws UncheckedIOException If the file can't be mapped
+     */
+    private NibbleTable openKeptLayer(int n) {
+        try {
+            return MappedNibbleArray.open(getLayerFile(n), Permutations.factorial(n), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private methode keeping a finished layer in the directory, e.i. writing all changes to its file and
+     * then writing the result file containing P(n) and the rank of the worst permutation. The result file
+     * is written under a temporary name and renamed afterwards, such that it only exists if the layer is complete.
+     *
+     * @param dp    The finished dp-table (stored in a file)
+     * @param n     The size of the permutations
+     * @param worst P(n) and the rank of the worst permutation
+     * @throws UncheckedIOException If the file can't be written
+     */
+    private void keepLayer(NibbleTable dp, int n, long[] worst) {
+        ((MappedNibbleArray) dp).force();
+        write(getResultFile(n), worst[0] + " " + worst[1]);
+        deleteProgress("layer-" + n);
+    }
+
+    /**
+     * Private methode checking if the directory contains a checkpoint of the layer of the size n.
+     *
+     * @param n The size of the permutations
+     * @return If there is a progress file and the layer's file
+     */
+    private boolean hasCheckpoint(int n) {
+        File progress = getProgressFile("layer-" + n);
+        return progress != null && progress.isFile() && getLayerFile(n).length() == (Permutations.factorial(n) + 1) / 2;
+    }
+
+    /**
+     * Private methode mapping the (unfinished) layer of the size n in the directory for continuing its computation.
+     *
+     * @param n The size of the permutations
+     * @return The dp-table
+     * @throws UncheckedIOException If the file can't be mapped
+     */
+    private WritableNibbleTable openLayer(int n) {
+        try {
+            return MappedNibbleArray.open(getLayerFile(n), Permutations.factorial(n), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private methode returning a progress file in the directory.
+     *
+     * @param name The name of the computation (e.g. "layer-12" or "search-13")
+     * @return The progress file (null if there is no directory)
+     */
+    private File getProgressFile(String name) {
+        return this.directory == null ? null : new File(this.directory, name + ".progress");
+    }
+
+    /**
+     * Private methode deleting a progress file in the directory (if there is one).
+     *
+     * @param name The name of the computation
+     * @throws UncheckedIOException If the file can't be deleted
+     */
+    private void deleteProgress(String name) {
+        File progress = getProgressFile(name);
+        if (progress == null) return;
+
+        try {
+            Files.deleteIfExists(progress.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private static function reading a progress file written for the given atLeast.
+     *
+     * @param progress The progress file (null if none)
+     * @param atLeast  The value a permutation has to be worse than
+     * @return The amount of finished blocks, the worst value so far and its rank
+     * (null if there is no progress file or it was written for another atLeast)
+     * @throws UncheckedIOException If the file can't be read
+     */
+    private static long[] readProgress(File progress, int atLeast) {
+        long[] values = read(progress);
+        if (values == null || values[0] != atLeast) return null;
+
+        return new long[]{values[1], values[2], values[3]};
+    }
+
+    /**
+     * Private methode reading the result file of a kept layer.
+     *
+     * @param n The size of the permutations
+     * @return P(n) and the rank of the worst permutation (null if the file doesn't exist)
+     * @throws UncheckedIOException If the file can't be read
+     */
+    private long[] readResult(int n) {
+        return read(getResultFile(n));
+    }
+
+    /**
+     * Private methode returning the file of the layer of the size n in the directory.
+     *
+     * @param n The size of the permutations
+     * @return The file
+     */
+    private File getLayerFile(int n) {
+        return new File(this.directory, "layer-" + n + ".nibbles");
+    }
+
+    /**
+     * Private methode returning the result file of the layer of the size n in the directory.
+     *
+     * @param n The size of the permutations
+     * @return The file
+     */
+    private File getResultFile(int n) {
+        return new File(this.directory, "layer-" + n + ".result");
+    }
+
+    /**
+     * Private static function reading the numbers (separated by spaces) of a file.
+     *
+     * @param file The file (null if none)
+     * @return The numbers (null if the file doesn't exist)
+     * @throws UncheckedIOException If the file can't be read
+     */
+    private static long[] read(File file) {
+        if (file == null || !file.isFile()) return null;
+
+        try {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+            return Arrays.stream(content.split(" ")).mapToLong(Long::parseLong).toArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private static function writing a string into a file under a temporary name and renaming
+     * it afterwards, such that a crash never leaves an incomplete file behind.
+     *
+     * @param file    The file
+     * @param content The string
+     * @throws UncheckedIOException If the file can't be written or renamed
+     */
+    private static void write(File file, String content) {
+        File temporary = new File(file.getPath() + ".tmp");
+
+        try {
+            Files.write(temporary.toPath(), content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Private methode deleting a dp-table's file if it's stored in a memory-mapped file.
+     *
+     * @param dp The dp-table
+     * @throws UncheckedIOException If the file can't be deleted
+     */
+    private void deleteLayer(NibbleTable dp) {
+        if (!(dp instanceof MappedNibbleArray)) return;
+
+        try {
+            Files.deleteIfExists(((MappedNibbleArray) dp).getFile().toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Static function computing A(S) for all permutations S of the size n in a block of ranks,
+     * using the dp-table containing the results A(S') of all stacks of the size n-1, and either putting
+     * them into the next dp-table or just keeping track of the worst permutation. In the latter case,
+     * A(S) is only computed as long as S can still be worse than the worst permutation so far.
+     *
+     * @param n       The size of the permutations
+     * @param dp      The dp-table containing the results A(S') of all stacks of the size n-1
+     * @param nextDP  The next dp-table the results are put into (null if they should not be stored)
+     * @param block   The block
+     * @param atLeast The value a permutation has to be worse than
+     * @param target  The value for which the block is stopped (and found is updated)
+     * @param found   The smallest block in which the target was reached (null if the target can't be reached)
+     * @return The biggest A(S) in the block and the smallest rank of a permutation S with that value
+     * (-1 if no permutation was worse than atLeast)
+     */
+    static long[] computeBlock(int n, NibbleTable dp, WritableNibbleTable nextDP, long block, int atLeast, int target, AtomicLong found) {
+        long from = block * BLOCK_SIZE;
+        long to = Math.min(from + BLOCK_SIZE, Permutations.factorial(n));
+
+        // Scratch buffers only used by this task
+        int[] list = Permutations.unrank(from, n);
+        int[] buffer = new int[n - 1];
+
+        long[] worst = {atLeast, -1};
+
+        for (long rank = from; rank < to; rank++) {
+            // The first (sorted) permutation has the rank 0 and needs no WUE-Operations.
+            // If the values are not stored, permutations that can't be worse than the worst one are cut off.
+            int currentNumber = rank == 0 ? 0 : getOperationNumber(list, dp, buffer, nextDP == null ? (int) worst[0] : 0);
+
+            if (nextDP != null) nextDP.set(rank, currentNumber);
+
+            if (currentNumber > worst[0]) {
+                worst[0] = currentNumber;
+                worst[1] = rank;
+
+                if (currentNumber >= target) {
+                    found.accumulateAndGet(block, Math::min);
+                    break;
+                }
+            }
+
+            Permutations.nextPermutation(list);
+        }
+
+        return worst;
+    }
+
+    /**
+     * Private static function going through the permutations S' of the size n-1 in a block of ranks with
+     * A(S') = P(n-1) and computing A(S) for every permutation S of the size n that is S' with one pancake
+     * put on top (e.i. every S with S' as result of the WUE-Operation at the index 0), keeping track of
+     * the worst one. The block is stopped as soon as a permutation needs P(n-1) + 1 WUE-Operations.
+     *
+     * @param n     The size of the permutations S
+     * @param dp    The dp-table containing the results A(S') of all stacks of the size n-1
+     * @param max   P(n-1)
+     * @param block The block of ranks of the size n-1
+     * @param found The smallest block in which P(n-1) + 1 was reached
+     * @return The biggest A(S) and the rank of the first permutation S with that value
+     */
+    private static long[] computeCandidates(int n, NibbleTable dp, int max, long block, AtomicLong found) {
+        long from = block * BLOCK_SIZE;
+        long to = Math.min(from + BLOCK_SIZE, Permutations.factorial(n - 1));
+
+        // Scratch buffers only used by this task
+        int[] previous = new int[n - 1];
+        int[] stack = new int[n];
+        int[] buffer = new int[n - 1];
+
+        long[] worst = {-1, -1};
+
+        for (long rank = from; rank < to; rank++) {
+            if (dp.get(rank) != max) continue;
+            Permutations.unrank(rank, previous);
+
+            for (int pancake = 1; pancake <= n; pancake++) {
+                // Put the pancake on top, increasing all pancakes that are not smaller
+                stack[0] = pancake;
+                for (int i = 0; i < n - 1; i++) stack[i + 1] = previous[i] >= pancake ? previous[i] + 1 : previous[i];
+
+                int currentNumber = Utils.isSortedPermutation(stack) ? 0 : getOperationNumber(stack, dp, buffer, (int) worst[0]);
+
+                if (currentNumber > worst[0]) {
+                    worst[0] = currentNumber;
+                    worst[1] = Permutations.rank(stack);
+
+                    if (currentNumber > max) {
+                        found.accumulateAndGet(block, Math::min);
+                        return worst;
+                    }
+                }
+            }
+        }
+
+        return worst;
+    }
+
+    /**
+     * Private static function computing A(S) for a given permutation S (not sorted) of size n using the values
+     * of a dp-table containing the A(S') results for permutations of size n-1. Since every WUE-Operation gives
+     * an upper bound for A(S), the computation is stopped as soon as A(S) can't be bigger than a given limit.
+     *
+     * @param permutation The given permutation S
+     * @param dp          The dp-table containing the A(S') results for permutations of size n-1
+     * @param buffer      Array used for the results of the WUE-Operations (n-1 elements)
+     * @param limit       The limit (0 for computing A(S) exactly)
+     * @return The value A(S) for the given permutation S (or an upper bound of it not bigger than the limit)
+     */
+    private static int getOperationNumber(int[] permutation, NibbleTable dp, int[] buffer, int limit) {
+        int min = -1;
+
+        for (int i = 0; i < permutation.length; i++) {
+            // Apply the improved WUE-Operation and get A(S') using the dp-table by ranking S'
+            Utils.improvedWUEOperation(permutation, i, buffer);
+            int currentNumber = dp.get(Permutations.rank(buffer)) + 1;
+
+            if (min == -1 || currentNumber < min) {
+                min = currentNumber;
+
+                // No permutation needs less than one WUE-Operation except the sorted one,
+                // and permutations not needing more than the limit are not of interest
+                if (min == 1 || min <= limit) break;
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * Class representing the task of computing a range of blocks, which is split into two tasks
+     * computed in parallel unless it consists of only one block.
+     */
+    static final class BlockTask extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The function computing a block and returning the biggest value in it and the corresponding rank
+         */
+        private final LongFunction<long[]> function;
+
+        /**
+         * The first block (inclusive) and the last block (exclusive)
+         */
+        private final long from, to;
+
+        /**
+         * Constructor taking in the function computing a block and the range of blocks.
+         *
+         * @param function The function computing a block
+         * @param from     The first block (inclusive)
+         * @param to       The last block (exclusive)
+         */
+        BlockTask(LongFunction<long[]> function, long from, long to) {
+            this.function = function;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Implementation of the compute-methode computing the blocks and returning the biggest value
+         * and the rank of the first permutation with that value.
+         *
+         * @return The biggest value and the corresponding rank
+         */
+        @Override
+        protected long[] compute() {
+            if (this.to - this.from == 1) return this.function.apply(this.from);
+
+            long middle = (this.from + this.to) >>> 1;
+            BlockTask left = new BlockTask(this.function, this.from, middle);
+            BlockTask right = new BlockTask(this.function, middle, this.to);
+
+            left.fork();
+            long[] rightWorst = right.compute();
+            long[] leftWorst = left.join();
+
+            // The left worst permutation comes first, so it wins a tie
+            return rightWorst[0] > leftWorst[0] ? rightWorst : leftWorst;
+        }
+    }
+}
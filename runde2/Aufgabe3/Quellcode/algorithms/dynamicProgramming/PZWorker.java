@@ -0,0 +1,138 @@
+package de.flo.pancakeSort.algorithms.dynamicProgramming;
+
+import de.flo.pancakeSort.util.MappedNibbleArray;
+import de.flo.pancakeSort.util.NibbleTable;
+import de.flo.pancakeSort.util.Permutations;
+import de.flo.pancakeSort.util.WritableNibbleTable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is a worker process of the DistributedPZSolver. It connects to the coordinator and computes
+ * the tasks it gets (ranges of blocks of a layer or the final search) with a ForkJoinPool like PZSolverDP4,
+ * reading the previous layer from its memory-mapped file in the shared directory and writing its range of
+ * the next layer into the next layer's file. Before a result is sent back, the written range is forced
+ * to the file, such that the coordinator only merges ranges that are stored.
+ */
+public class PZWorker {
+
+    /**
+     * The directory shared by the coordinator and all workers containing the layers
+     */
+    private final File directory;
+
+    /**
+     * The amount of threads computing a task
+     */
+    private final int parallelism;
+
+    /**
+     * The size of the permutations of the mapped layers (0 if none are mapped)
+     */
+    private int mappedSize;
+
+    /**
+     * The mapped previous layer and the mapped next layer (null for the final search)
+     */
+    private MappedNibbleArray dp, nextDP;
+
+    /**
+     * Public constructor taking in the directory shared with the coordinator and the amount of threads.
+     *
+     * @param directory   The directory the layers are stored in (shared with the coordinator)
+     * @param parallelism The amount of threads computing a task (at least 1)
+     * @throws IllegalArgumentException If the amount of threads is less than 1
+     */
+    public PZWorker(File directory, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException();
+        this.directory = directory;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Public methode connecting to the coordinator and computing its tasks until it stops
+     * this worker or closes the connection.
+     *
+     * @param host The coordinator's host
+     * @param port The coordinator's port
+     * @throws IOException If the coordinator can't be reached or a layer's file can't be mapped
+     */
+    public void run(String host, int port) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        this.mappedSize = 0;
+
+        try (Socket socket = new Socket(host, port);
+             DataInputStream in = new DataInputStream(socket.getInputStream());
+             DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+
+            while (true) {
+                int command;
+
+                try {
+                    command = in.readInt();
+                } catch (EOFException | SocketException e) {
+                    // The coordinator closed the connection (or stopped without closing it)
+                    return;
+                }
+
+                if (command == DistributedPZSolver.STOP) return;
+
+                int size = in.readInt();
+                long from = in.readLong();
+                long to = in.readLong();
+                int target = in.readInt();
+
+                long[] worst = compute(pool, command, size, from, to, target);
+                out.writeLong(worst[0]);
+                out.writeLong(worst[1]);
+                out.flush();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Private methode computing a task, mapping the needed layers first.
+     *
+     * @param pool    The pool computing the blocks
+     * @param command The command (LAYER or SEARCH)
+     * @param size    The size of the permutations
+     * @param from    The first block (inclusive)
+     * @param to      The last block (exclusive)
+     * @param target  The value for which the computation can stop
+     * @return The biggest value in the range and the rank of the first permutation with that value
+     * @throws IOException If a layer's file can't be mapped
+     */
+    private long[] compute(ForkJoinPool pool, int command, int size, long from, long to, int target) throws IOException {
+        boolean layer = command == DistributedPZSolver.LAYER;
+
+        // Map the layers again if the size or the command changed
+        if (size != this.mappedSize || layer != (this.nextDP != null)) {
+            this.dp = MappedNibbleArray.open(DistributedPZSolver.getLayerFile(this.directory, size - 1), Permutations.factorial(size - 1), false);
+            this.nextDP = layer ? MappedNibbleArray.open(DistributedPZSolver.getLayerFile(this.directory, size), Permutations.factorial(size), true) : null;
+            this.mappedSize = size;
+        }
+
+        NibbleTable dp = this.dp;
+        WritableNibbleTable nextDP = this.nextDP;
+
+        // The smallest block in which the target was reached, blocks after it don't need to be computed
+        AtomicLong found = new AtomicLong(Long.MAX_VALUE);
+
+        long[] worst = pool.invoke(new PZSolverDP4.BlockTask(block -> block > found.get()
+                ? new long[]{-1, -1}
+                : PZSolverDP4.computeBlock(size, dp, nextDP, block, -1, target, found), from, to));
+
+        if (this.nextDP != null) this.nextDP.force();
+        return worst;
+    }
+}
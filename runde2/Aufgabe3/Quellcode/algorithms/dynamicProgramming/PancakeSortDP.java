@@ -1,13 +1,8 @@
 package de.flo.pancakeSort.algorithms.dynamicProgramming;
 
 import de.flo.pancakeSort.PancakeSort;
-import de.flo.pancakeSort.util.IntArray;
-import de.flo.pancakeSort.util.Utils;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import de.flo.pancakeSort.util.LongByteMap;
+import de.flo.pancakeSort.util.PackedStack;
 
 /**
  * Implementation of the abstract class PancakeSort that can find
@@ -17,28 +12,79 @@ import java.util.Map;
  * indexes using dynamic programming to not(!) compute any subproblem twice.
  *
  * This algorithmen is a concrete implementation of "Algorithmus-17" in the documentation.
+ * For every solved stack, only the amount of WUE-Operations needed and the index of the first one are stored
+ * in one byte (4 bits each), keyed by the packed stack (see PackedStack) in a LongByteMap.
+ * The stacks are packed into longs, such that the WUE-Operations don't create any arrays.
+ * The series of WUE-Operations is rebuilt by going through the first indexes starting with the given stack.
+ * The amount of stored stacks is limited, such that the memory stays bounded for big stacks. If a stack's
+ * result was replaced, it's computed again.
+ * Optionally, an EndgameDatabase is used: the results of stacks it contains are looked up instead of being
+ * computed (and stored in the map).
  */
 public class PancakeSortDP extends PancakeSort {
 
     /**
-     * HashMap mapping from the int-array wrapper class IntArray
-     * to lists of integer. This hashmap contains the results of the
-     * solveRecursively-methode, such that subproblems that have already been solved are
-     * returned instantly.
+     * The biggest stack supported, since the amount of WUE-Operations and the index have to fit into 4 bits each
+     */
+    public static final int MAX_SIZE = 16;
+
+    /**
+     * The default maximum amount of stored stacks (about 36 MB)
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 22;
+
+    /**
+     * Map from the packed stacks to the amount of WUE-Operations
+     * needed (upper 4 bits) and the index of the first one (lower 4 bits).
+     * This map contains the results of the solveRecursively-methode, such that
+     * subproblems that have already been solved are returned instantly.
+     */
+    private final LongByteMap dp;
+
+    /**
+     * The endgame database containing the results of small stacks (null if none is used)
      */
-    private final Map<IntArray, List<Integer>> dp;
+    private final EndgameDatabase database;
 
     /**
      * Public constructor of this class calling the parent's constructor and taking in
      * a stack as an int array.
      *
      * @param array The stack represented by an int array
+     * @throws IllegalArgumentException If the stack has more than MAX_SIZE pancakes
      */
     public PancakeSortDP(int[] array) {
+        this(array, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and taking in
+     * a stack as an int array and the maximum amount of stored stacks.
+     *
+     * @param array      The stack represented by an int array
+     * @param maxEntries The maximum amount of stored stacks
+     * @throws IllegalArgumentException If the stack has more than MAX_SIZE pancakes or maxEntries is not positive
+     */
+    public PancakeSortDP(int[] array, int maxEntries) {
+        this(array, maxEntries, null);
+    }
+
+    /**
+     * Public constructor of this class calling the parent's constructor and taking in
+     * a stack as an int array, the maximum amount of stored stacks and an endgame database.
+     *
+     * @param array      The stack represented by an int array
+     * @param maxEntries The maximum amount of stored stacks
+     * @param database   The endgame database containing the results of small stacks (null if none is used)
+     * @throws IllegalArgumentException If the stack has more than MAX_SIZE pancakes or maxEntries is not positive
+     */
+    public PancakeSortDP(int[] array, int maxEntries, EndgameDatabase database) {
         super(array);
+        if (array.length > MAX_SIZE) throw new IllegalArgumentException("Stacks of size " + array.length + " are not supported");
 
-        // Initialize the Map used for dynamic programming with an empty HashMap
-        this.dp = new HashMap<>();
+        // Initialize the map used for dynamic programming with an empty map
+        this.dp = new LongByteMap(maxEntries);
+        this.database = database;
     }
 
     /**
@@ -48,49 +94,68 @@ public class PancakeSortDP extends PancakeSort {
      */
     @Override
     public int[] solve() {
-        // Convert the given int array into an instance of the wrapper class IntArray
-        IntArray arr = new IntArray(this.getArray());
-        return Utils.toArray(solveRecursively(arr));
+        long stack = PackedStack.pack(this.getArray());
+        int size = this.getArray().length;
+
+        int entry = solveRecursively(stack, size);
+        int[] result = new int[entry >>> 4];
+
+        // Go through the first indexes, computing the stacks' results again if they were replaced
+        for (int i = 0; i < result.length; i++) {
+            result[i] = entry & 0xF;
+            stack = PackedStack.improvedWUEOperation(stack, size--, result[i]);
+
+            entry = this.dp.get(stack);
+            if (entry == -1) entry = solveRecursively(stack, size);
+        }
+
+        return result;
     }
 
     /**
-     * Recursive private methode for finding the smallest list of indexes converting the
-     * given stack (array) into a sorted one using dynamic programming.
+     * Recursive private methode for finding the smallest amount of WUE-Operations converting the
+     * given stack into a sorted one and the index of the first one using dynamic programming.
      *
-     * @param array The current stack
-     * @return The smallest possible list of 0-based indexes that can convert the given
-     * stack in a sorted one using WUE-Operations.
+     * @param stack The current (packed) stack
+     * @param size  The stack's size
+     * @return The smallest amount of WUE-Operations (upper 4 bits) and the 0-based index
+     * of the first one (lower 4 bits), e.i. 0 if the stack is sorted
      */
-    private List<Integer> solveRecursively(IntArray array) {
-        // Check if the given array (stack) is sorted. If so, return an empty list.
-        if (Utils.isSortedPermutation(array.getArray())) return new ArrayList<>();
+    private int solveRecursively(long stack, int size) {
+        // Check if the given stack is sorted. If so, no WUE-Operations are needed.
+        if (PackedStack.isSorted(stack, size)) return 0;
 
-        // Check if the current array has already been computed (e.i., is
+        // Look small stacks up in the endgame database (if there is one)
+        if (this.database != null && size <= this.database.getMaxSize()) {
+            return this.database.getEntry(PackedStack.rank(stack, size), size);
+        }
+
+        // Check if the current stack has already been computed (e.i., is
         // contained in dp). If so, return the computed value.
-        if (this.dp.containsKey(array)) return this.dp.get(array);
+        int entry = this.dp.get(stack);
+        if (entry != -1) return entry;
 
-        // Keep track of the best list (of indexes for the WUE-Operations) using this list
-        List<Integer> bestList = null;
+        int best = -1, bestIndex = -1;
 
         // Iterate through all possible indexes for WUE-Operations on the current stack
-        for (int i = 0; i < array.getLength(); i++) {
-            // Apply the improved WUE-Operation on the given array (stack) using the current index
+        for (int i = 0; i < size; i++) {
+            // Apply the improved WUE-Operation on the given stack using the current index
             // and solve the problem recursively.
-            IntArray currentArray = Utils.improvedWUEOperation(array, i);
-            List<Integer> recursiveResult = solveRecursively(currentArray);
-
-            // If the best list is still null or the current list (recursiveResult.size() + 1!)
-            // is smaller than the best list, update the best list to the current one
-            if (bestList == null || recursiveResult.size() + 1 < bestList.size()) {
-                // Create the current list by first adding the current index and then adding the recursive result.
-                bestList = new ArrayList<>();
-                bestList.add(i);
-                bestList.addAll(recursiveResult);
+            int current = (solveRecursively(PackedStack.improvedWUEOperation(stack, size, i), size - 1) >>> 4) + 1;
+
+            // If the best amount is still -1 or the current amount is smaller, update the best one
+            if (best == -1 || current < best) {
+                best = current;
+                bestIndex = i;
+
+                // No stack that is not sorted needs less than one WUE-Operation
+                if (best == 1) break;
             }
         }
 
-        // Finally, put the best list (of indexes) into the dp HashMap for the given array and return it.
-        this.dp.put(array, bestList);
-        return bestList;
+        // Finally, put the result into the dp map for the given stack and return it.
+        entry = best << 4 | bestIndex;
+        this.dp.put(stack, (byte) entry);
+        return entry;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,440 @@
+package de.flo.pancakeSort.algorithms.heuristic;
+
+import de.flo.pancakeSort.PancakeSort;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.EndgameDatabase;
+import de.flo.pancakeSort.util.Permutations;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of the abstract class PancakeSort that can find
+ * one smallest series of WUE-Operations to convert the given stack
+ * into a sorted one using IDA*, e.i. iterative deepening (like PancakeSort3)
+ * where a branch is cut off as soon as the amount of WUE-Operations so far plus
+ * a lower bound of the amount of WUE-Operations still needed is bigger than the current limit.
+ * The lower bound (heuristic) counts the gaps of the stack, e.i. the neighbouring pancakes (including a
+ * plate below the stack, that is one bigger than the biggest pancake) whose sizes are not consecutive
+ * (after the improved WUE-Operations renumbered them). A stack is sorted iff it has no gaps. Two neighbouring
+ * pancakes stay neighbours until one of them is eaten, so one improved WUE-Operation removes at most the two
+ * gaps next to the eaten pancake and one gap whose pancakes become consecutive by the renumbering, while the
+ * pancakes getting neighbours by the flip can't be a gap before. Therefore, at least ceil(gaps / 3) WUE-Operations
+ * are needed. Moreover, every gap (x, y) can only disappear if x, y or all pancakes between them are eaten,
+ * so at least one pancake of every interval [x, y] has to be eaten, which gives the second lower bound
+ * of the minimum amount of pancakes hitting all those intervals (computed greedily).
+ * Since every WUE-Operation eats one pancake, the minimum amount of pancakes that have to be eaten, such that
+ * every gap disappears this way, is a much stronger lower bound. It's more expensive, so it is only checked
+ * against the remaining amount of WUE-Operations when a stack is visited, by trying to keep enough pancakes.
+ * The stack is stored in one array (bottom first), and the WUE-Operations are applied and undone in place.
+ * The WUE-Operations of a stack are tried in the order of their resulting stacks' (cheap) lower bounds.
+ * Optionally, an EndgameDatabase is used: as soon as the stack is small enough to be contained in it, the
+ * exact amount of WUE-Operations still needed is looked up (which is also used as the lower bound), and
+ * the rest of the series is built by following the database's first WUE-Operations.
+ */
+public class IDAStarPancakeSort extends PancakeSort {
+
+    /**
+     * Value returned by the search if a sorted stack was found
+     */
+    private static final int FOUND = -1;
+
+    /**
+     * The current stack, bottom first, e.i. the pancake on top is stack[size-1]
+     */
+    private final int[] stack;
+
+    /**
+     * The current amount of pancakes
+     */
+    private int size;
+
+    /**
+     * The indexes (0-based) of the WUE-Operations of the current branch
+     */
+    private final int[] path;
+
+    /**
+     * For every depth, the indexes of the WUE-Operations in the order they're tried
+     */
+    private final int[][] moves;
+
+    /**
+     * For every depth, the lower bounds of the stacks resulting from the WUE-Operations
+     */
+    private final int[][] bounds;
+
+    /**
+     * For every value, the biggest left end of a gap interval ending at it (used by the heuristic)
+     */
+    private final int[] leftEnds;
+
+    /**
+     * For every pancake, the (up to two) bigger pancakes it forms a gap with (0 if none)
+     */
+    private final int[] upper1, upper2;
+
+    /**
+     * The bottom pancake of the stack the upper pancakes are computed for
+     */
+    private int bottom;
+
+    /**
+     * The endgame database containing the results of small stacks (null if none is used)
+     */
+    private final EndgameDatabase database;
+
+    /**
+     * The pancakes eaten by the WUE-Operations followed in the endgame database (needed for undoing them)
+     */
+    private final int[] eaten;
+
+    /**
+     * Public constructor taking in the needed stack.
+     *
+     * @param array The stack given as an int array
+     */
+    public IDAStarPancakeSort(int[] array) {
+        this(array, null);
+    }
+
+    /**
+     * Public constructor taking in the needed stack and an endgame database.
+     *
+     * @param array    The stack given as an int array
+     * @param database The endgame database containing the results of small stacks (null if none is used)
+     */
+    public IDAStarPancakeSort(int[] array, EndgameDatabase database) {
+        super(array);
+        this.database = database;
+
+        int n = array.length;
+        this.stack = new int[n];
+        this.path = new int[n];
+        this.eaten = new int[n];
+        this.moves = new int[n][n];
+        this.bounds = new int[n][n];
+        this.leftEnds = new int[n + 2];
+        this.upper1 = new int[n + 2];
+        this.upper2 = new int[n + 2];
+    }
+
+    /**
+     * Implementation of the solve-methode solving the MWO-Problem as described above.
+     *
+     * @return An int array containing the indexes (0-based) for the WUE-Operations
+     */
+    @Override
+    public int[] solve() {
+        int[] array = this.getArray();
+
+        // Copy the stack (bottom first) into the buffer
+        this.size = array.length;
+        for (int i = 0; i < this.size; i++) this.stack[i] = array[this.size - 1 - i];
+
+        // Increase the limit to the smallest exceeding bound until a sorted stack is found
+        int limit = bound();
+
+        while (true) {
+            int result = search(0, limit);
+            if (result == FOUND) return Arrays.copyOf(this.path, limit);
+            limit = result;
+        }
+    }
+
+    /**
+     * Private methode searching for a series of WUE-Operations of at most the given amount
+     * converting the current stack into a sorted one.
+     *
+     * @param depth The amount of WUE-Operations applied so far
+     * @param limit The maximum amount of WUE-Operations
+     * @return FOUND if a series was found (stored in path), otherwise the smallest
+     * amount of WUE-Operations plus lower bound exceeding the limit
+     */
+    private int search(int depth, int limit) {
+        if (isSorted()) return FOUND;
+
+        // Small stacks are solved by the endgame database
+        if (isInDatabase()) return lookUp(depth, limit);
+
+        // Check the stronger (but more expensive) lower bound only against the remaining amount
+        if (!isCoverable(limit - depth)) return limit + 1;
+
+        // Compute the lower bounds of all resulting stacks and sort the WUE-Operations by them
+        int[] moves = this.moves[depth];
+        int[] bounds = this.bounds[depth];
+        int count = this.size;
+
+        for (int i = 0; i < count; i++) {
+            int removed = apply(i);
+            int bound = bound();
+            undo(i, removed);
+
+            // Insertion sort, such that the WUE-Operations with smaller bounds come first
+            int j = i;
+            for (; j > 0 && bounds[j - 1] > bound; j--) {
+                bounds[j] = bounds[j - 1];
+                moves[j] = moves[j - 1];
+            }
+            bounds[j] = bound;
+            moves[j] = i;
+        }
+
+        int min = Integer.MAX_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            int f = depth + 1 + bounds[i];
+
+            // All following WUE-Operations exceed the limit as well
+            if (f > limit) {
+                min = Math.min(min, f);
+                break;
+            }
+
+            int removed = apply(moves[i]);
+            int result = search(depth + 1, limit);
+            undo(moves[i], removed);
+
+            if (result == FOUND) {
+                this.path[depth] = moves[i];
+                return FOUND;
+            }
+
+            min = Math.min(min, result);
+        }
+
+        return min;
+    }
+
+    /**
+     * Private methode solving the current stack using the endgame database.
+     * If the exact amount of WUE-Operations still needed doesn't exceed the limit, the database's first
+     * WUE-Operations are followed (and undone afterwards), such that the rest of the series is stored in path.
+     *
+     * @param depth The amount of WUE-Operations applied so far
+     * @param limit The maximum amount of WUE-Operations
+     * @return FOUND if the stack can be solved within the limit, otherwise the exact amount of WUE-Operations
+     */
+    private int lookUp(int depth, int limit) {
+        int entry = this.database.getEntry(rank(), this.size);
+        int distance = entry >>> 4;
+        if (depth + distance > limit) return depth + distance;
+
+        for (int i = 0; i < distance; i++) {
+            if (i > 0) entry = this.database.getEntry(rank(), this.size);
+            this.path[depth + i] = entry & 0xF;
+            this.eaten[i] = apply(entry & 0xF);
+        }
+
+        for (int i = distance - 1; i >= 0; i--) undo(this.path[depth + i], this.eaten[i]);
+        return FOUND;
+    }
+
+    /**
+     * Private methode checking if the current stack is contained in the endgame database (if there is one).
+     *
+     * @return If the current stack is contained in the endgame database
+     */
+    private boolean isInDatabase() {
+        return this.database != null && this.size <= this.database.getMaxSize();
+    }
+
+    /**
+     * Private methode computing the rank of the current stack (top first, see Permutations).
+     *
+     * @return The current stack's rank
+     */
+    private long rank() {
+        long rank = 0;
+        int seen = 0;
+
+        for (int i = 0; i < this.size; i++) {
+            int value = this.stack[this.size - 1 - i] - 1;
+
+            // The amount of smaller pancakes that are not seen yet, e.i. that come after the current one
+            int smaller = value - Integer.bitCount(seen & ((1 << value) - 1));
+            rank += smaller * Permutations.factorial(this.size - 1 - i);
+            seen |= 1 << value;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Private methode applying the improved WUE-Operation with the given (0-based) index on the current
+     * stack in place, e.i. flipping the pancakes from the top down to the index and eating the top one,
+     * then renumbering the remaining pancakes.
+     *
+     * @param index The index for the WUE-Operation
+     * @return The eaten pancake (needed for undoing the WUE-Operation)
+     */
+    private int apply(int index) {
+        int position = this.size - 1 - index;
+        reverse(position, this.size - 1);
+
+        int removed = this.stack[--this.size];
+        for (int i = 0; i < this.size; i++) {
+            if (this.stack[i] > removed) this.stack[i]--;
+        }
+
+        return removed;
+    }
+
+    /**
+     * Private methode undoing the improved WUE-Operation with the given (0-based) index in place.
+     *
+     * @param index   The index of the WUE-Operation
+     * @param removed The pancake eaten by the WUE-Operation
+     */
+    private void undo(int index, int removed) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.stack[i] >= removed) this.stack[i]++;
+        }
+
+        this.stack[this.size++] = removed;
+        reverse(this.size - 1 - index, this.size - 1);
+    }
+
+    /**
+     * Private methode reversing the pancakes of the current stack between two positions (inclusive).
+     *
+     * @param from The first position
+     * @param to   The last position
+     */
+    private void reverse(int from, int to) {
+        for (; from < to; from++, to--) {
+            int tmp = this.stack[from];
+            this.stack[from] = this.stack[to];
+            this.stack[to] = tmp;
+        }
+    }
+
+    /**
+     * Private methode checking if the current stack is sorted, e.i. the pancake
+     * at the position i (bottom first) is size - i.
+     *
+     * @return If the current stack is sorted
+     */
+    private boolean isSorted() {
+        for (int i = 0; i < this.size; i++) {
+            if (this.stack[i] != this.size - i) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Private methode computing the lower bound of the amount of WUE-Operations needed to sort
+     * the current stack, e.i. the exact amount if the stack is contained in the endgame database.
+     *
+     * @return The lower bound
+     */
+    private int bound() {
+        return isInDatabase() ? this.database.getEntry(rank(), this.size) >>> 4 : heuristic();
+    }
+
+    /**
+     * Private methode computing the lower bound of the amount of WUE-Operations
+     * needed to sort the current stack as described above.
+     *
+     * @return The lower bound
+     */
+    private int heuristic() {
+        int gaps = 0;
+        Arrays.fill(this.leftEnds, 0, this.size + 2, 0);
+
+        // Go through all neighbouring pancakes, starting with the plate (size + 1) and the bottom pancake
+        int below = this.size + 1;
+
+        for (int i = 0; i < this.size; i++) {
+            int above = this.stack[i];
+
+            if (Math.abs(below - above) != 1) {
+                gaps++;
+
+                // The plate can't be eaten, so the interval ends at the biggest pancake
+                int left = Math.min(below, above);
+                int right = Math.min(Math.max(below, above), this.size);
+                this.leftEnds[right] = Math.max(this.leftEnds[right], left);
+            }
+
+            below = above;
+        }
+
+        // Hit the intervals greedily ordered by their right ends, always with the right end
+        int hits = 0, last = 0;
+
+        for (int right = 1; right <= this.size; right++) {
+            if (this.leftEnds[right] > last) {
+                hits++;
+                last = right;
+            }
+        }
+
+        return Math.max((gaps + 2) / 3, hits);
+    }
+
+    /**
+     * Private methode checking if the gaps of the current stack can be removed by eating at most the given
+     * amount of pancakes, which is a lower bound of the amount of WUE-Operations (see above), e.i. if at least
+     * size - budget pancakes can be kept, such that all kept pancakes forming a gap are consecutive among
+     * the kept ones (and the bottom pancake is only kept if it's the biggest kept one in case it forms a gap
+     * with the plate). The pancakes are decided from the smallest to the biggest one.
+     * For stacks with more than 62 pancakes, this is not checked (e.i. true is returned).
+     *
+     * @param budget The amount of pancakes that can be eaten
+     * @return If the gaps can be removed by eating at most the given amount of pancakes
+     */
+    private boolean isCoverable(int budget) {
+        if (budget < 0) return false;
+        if (this.size > 62 || budget >= this.size) return true;
+
+        Arrays.fill(this.upper1, 0, this.size + 2, 0);
+        Arrays.fill(this.upper2, 0, this.size + 2, 0);
+
+        for (int i = 0; i < this.size - 1; i++) {
+            int below = this.stack[i], above = this.stack[i + 1];
+            if (Math.abs(below - above) == 1) continue;
+
+            int smaller = Math.min(below, above), bigger = Math.max(below, above);
+            if (this.upper1[smaller] == 0) this.upper1[smaller] = bigger;
+            else this.upper2[smaller] = bigger;
+        }
+
+        this.bottom = this.stack[0];
+        return canKeep(1, 0, 0L, 0, this.size - budget);
+    }
+
+    /**
+     * Recursive private methode deciding for the pancakes from the given one upwards
+     * if they are kept, such that the given amount of pancakes is kept.
+     *
+     * @param pancake   The current pancake
+     * @param last      The biggest kept pancake so far (0 if none)
+     * @param forbidden Bitmask of the pancakes that can't be kept anymore, since they form a gap
+     *                  with a kept pancake, that's not the last one
+     * @param count     The amount of kept pancakes so far
+     * @param target    The amount of pancakes that have to be kept
+     * @return If the given amount of pancakes can be kept
+     */
+    private boolean canKeep(int pancake, int last, long forbidden, int count, int target) {
+        if (count >= target) return true;
+
+        // Not enough pancakes left, even if all not forbidden ones are kept
+        if (count + this.size - pancake + 1 - Long.bitCount(forbidden >>> pancake) < target) return false;
+
+        if ((forbidden >>> pancake & 1) == 0) {
+            // Keeping the pancake forbids the pancakes forming a gap with the last kept one
+            long next = forbidden;
+            if (this.upper1[last] != 0 && this.upper1[last] != pancake) next |= 1L << this.upper1[last];
+            if (this.upper2[last] != 0 && this.upper2[last] != pancake) next |= 1L << this.upper2[last];
+
+            // No bigger pancake can be kept with the bottom pancake, if it forms a gap with the plate
+            if (pancake == this.bottom && pancake != this.size) {
+                if (count + 1 >= target) return true;
+            } else if (canKeep(pancake + 1, pancake, next, count + 1, target)) {
+                return true;
+            }
+        }
+
+        return canKeep(pancake + 1, last, forbidden, count, target);
+    }
+}
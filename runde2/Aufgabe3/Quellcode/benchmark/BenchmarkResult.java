@@ -0,0 +1,193 @@
+package de.flo.pancakeSort.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Class representing the result of a benchmark: the throughput (mean and standard deviation
+ * over all measured iterations) and the bytes allocated per operation.
+ * Results are written as one JSON object per line, such that baselines can be read and diffed easily.
+ */
+public class BenchmarkResult {
+
+    /**
+     * Pattern matching a name-value-pair of a JSON object written by this class
+     */
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\":(\"[^\"]*\"|[-+.\\dEe]+|NaN)");
+
+    /**
+     * The benchmark's name
+     */
+    private final String name;
+
+    /**
+     * The amount of measured iterations (over all forks)
+     */
+    private final int iterations;
+
+    /**
+     * The mean throughput in operations per second
+     */
+    private final double opsPerSecond;
+
+    /**
+     * The standard deviation of the throughput over the measured iterations
+     */
+    private final double error;
+
+    /**
+     * The bytes allocated per operation (-1 if not supported by the JVM)
+     */
+    private final double bytesPerOp;
+
+    /**
+     * Public constructor taking in all values of the result.
+     *
+     * @param name         The benchmark's name
+     * @param iterations   The amount of measured iterations
+     * @param opsPerSecond The mean throughput in operations per second
+     * @param error        The standard deviation of the throughput
+     * @param bytesPerOp   The bytes allocated per operation (-1 if not supported)
+     */
+    public BenchmarkResult(String name, int iterations, double opsPerSecond, double error, double bytesPerOp) {
+        this.name = name;
+        this.iterations = iterations;
+        this.opsPerSecond = opsPerSecond;
+        this.error = error;
+        this.bytesPerOp = bytesPerOp;
+    }
+
+    /**
+     * Public static function combining the results of several forks of the same benchmark
+     * (weighted by their amount of iterations).
+     *
+     * @param results The results (at least one)
+     * @return The combined result
+     */
+    public static BenchmarkResult combine(List<BenchmarkResult> results) {
+        int iterations = 0;
+        double mean = 0D, bytes = 0D;
+
+        for (BenchmarkResult result : results) iterations += result.iterations;
+
+        for (BenchmarkResult result : results) {
+            mean += result.opsPerSecond * result.iterations / iterations;
+            bytes += result.bytesPerOp * result.iterations / iterations;
+        }
+
+        // Combine the variances within the forks and between the forks
+        double variance = 0D;
+        for (BenchmarkResult result : results) {
+            double difference = result.opsPerSecond - mean;
+            variance += (result.error * result.error + difference * difference) * result.iterations / iterations;
+        }
+
+        return new BenchmarkResult(results.get(0).name, iterations, mean, Math.sqrt(variance), bytes);
+    }
+
+    /**
+     * Public static function parsing a result from a line written by toJson.
+     *
+     * @param line The line
+     * @return The result
+     * @throws IllegalArgumentException If the line is not a valid result
+     */
+    public static BenchmarkResult parse(String line) {
+        String name = null;
+        int iterations = -1;
+        double opsPerSecond = Double.NaN, error = Double.NaN, bytesPerOp = -1;
+
+        Matcher matcher = FIELD.matcher(line);
+
+        try {
+            while (matcher.find()) {
+                String value = matcher.group(2);
+
+                switch (matcher.group(1)) {
+                    case "name":
+                        name = value.substring(1, value.length() - 1);
+                        break;
+                    case "iterations":
+                        iterations = Integer.parseInt(value);
+                        break;
+                    case "opsPerSecond":
+                        opsPerSecond = Double.parseDouble(value);
+                        break;
+                    case "error":
+                        error = Double.parseDouble(value);
+                        break;
+                    case "bytesPerOp":
+                        bytesPerOp = Double.parseDouble(value);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(line, e);
+        }
+
+        if (name == null || iterations < 0) throw new IllegalArgumentException(line);
+
+        return new BenchmarkResult(name, iterations, opsPerSecond, error, bytesPerOp);
+    }
+
+    /**
+     * Public method returning this result as a JSON object in one line.
+     *
+     * @return The JSON object
+     */
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"name\":\"%s\",\"iterations\":%d,\"opsPerSecond\":%.6e,\"error\":%.6e,\"bytesPerOp\":%.2f}",
+                this.name, this.iterations, this.opsPerSecond, this.error, this.bytesPerOp);
+    }
+
+    /**
+     * Implementation of the toString-methode returning this result in a human-readable form.
+     *
+     * @return The result as a string
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-50s %14.3f +- %12.3f ops/s %14.1f B/op", this.name, this.opsPerSecond, this.error,
+                this.bytesPerOp);
+    }
+
+    /**
+     * Getter for the benchmark's name
+     *
+     * @return The name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Getter for the mean throughput in operations per second
+     *
+     * @return The throughput
+     */
+    public double getOpsPerSecond() {
+        return this.opsPerSecond;
+    }
+
+    /**
+     * Getter for the standard deviation of the throughput
+     *
+     * @return The standard deviation
+     */
+    public double getError() {
+        return this.error;
+    }
+
+    /**
+     * Getter for the bytes allocated per operation
+     *
+     * @return The bytes per operation (-1 if not supported)
+     */
+    public double getBytesPerOp() {
+        return this.bytesPerOp;
+    }
+}
@@ -0,0 +1,463 @@
+package de.flo.pancakeSort.benchmark;
+
+import de.flo.pancakeSort.BatchSolver;
+import de.flo.pancakeSort.PZSolver;
+import de.flo.pancakeSort.PancakeSort;
+import de.flo.pancakeSort.algorithms.betterWUEOperation.PZSolver3;
+import de.flo.pancakeSort.algorithms.betterWUEOperation.PZSolver4;
+import de.flo.pancakeSort.algorithms.betterWUEOperation.PancakeSort3;
+import de.flo.pancakeSort.algorithms.betterWUEOperation.PancakeSort4;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.PZSolverDP1;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.PZSolverDP2;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.PZSolverDP3;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.PZSolverDP4;
+import de.flo.pancakeSort.algorithms.dynamicProgramming.PancakeSortDP;
+import de.flo.pancakeSort.algorithms.heuristic.IDAStarPancakeSort;
+import de.flo.pancakeSort.algorithms.normalWUEOperation.PZSolver1;
+import de.flo.pancakeSort.algorithms.normalWUEOperation.PZSolver2;
+import de.flo.pancakeSort.algorithms.normalWUEOperation.PancakeSort1;
+import de.flo.pancakeSort.algorithms.normalWUEOperation.PancakeSort2;
+import de.flo.pancakeSort.util.IntArray;
+import de.flo.pancakeSort.util.PackedStack;
+import de.flo.pancakeSort.util.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Final class containing all benchmarks of the WUE-Operations, the hashing and the solvers and the main-function
+ * running them. The results are printed and written to a JSON file (one result per line), which can be
+ * used as baseline for later runs: if a baseline is given, the change of every benchmark's throughput is printed.
+ * By default, every solver is only benchmarked with the examples and values of n it solves within a few seconds,
+ * with --all every PancakeSort is benchmarked with pancake0 to pancake7 and every PZSolver with n = 6, 7, ... , 11.
+ * <p>
+ * Arguments (all optional):
+ * --filter regex      Only run the benchmarks whose name contains a match of the regex
+ * --forks n           The amount of forks per benchmark (default 1, 0 for no forks)
+ * --warmup n          The amount of warmup iterations per fork (default 5)
+ * --iterations n      The amount of measured iterations per fork (default 5)
+ * --time ms           The time of one iteration in ms (default 1000)
+ * --data dir          The directory containing the examples (default "Ergebnisse")
+ * --output file       The JSON file the results are written to (default "benchmark-results.json")
+ * --baseline file     A JSON file of a former run the results are compared to
+ * --all               Also run the solvers with the examples and values of n taking minutes or more
+ * --list              Only print the benchmarks' names
+ */
+public final class Benchmarks {
+
+    /**
+     * The size of the stacks used by the benchmarks of the WUE-Operations (the size of the biggest example)
+     */
+    private static final int OPERATION_SIZE = 16;
+
+    /**
+     * The amount of stacks used by the benchmarks of the WUE-Operations
+     */
+    private static final int OPERATION_COUNT = 1024;
+
+    /**
+     * The amount of examples (pancake0, pancake1, ... )
+     */
+    private static final int EXAMPLES = 8;
+
+    /**
+     * The values of n the PZSolvers are benchmarked with (using --all)
+     */
+    private static final int MIN_N = 6, MAX_N = 11;
+
+    /**
+     * The amount of examples every PancakeSort is benchmarked with by default (the first ones)
+     */
+    private static final Map<String, Integer> PANCAKE_EXAMPLES = new LinkedHashMap<>();
+
+    /**
+     * The biggest n every PZSolver is benchmarked with by default
+     */
+    private static final Map<String, Integer> PZ_MAX_N = new LinkedHashMap<>();
+
+    static {
+        // The normal WUE-Operation without pruning needs more than a minute for pancake4
+        PANCAKE_EXAMPLES.put("PancakeSort1", 8);
+        PANCAKE_EXAMPLES.put("PancakeSort2", 4);
+        PANCAKE_EXAMPLES.put("PancakeSort3", 8);
+        PANCAKE_EXAMPLES.put("PancakeSort4", 4);
+        PANCAKE_EXAMPLES.put("PancakeSortDP", 8);
+        PANCAKE_EXAMPLES.put("IDAStarPancakeSort", 8);
+
+        // The next value of n takes more than ten seconds
+        PZ_MAX_N.put("PZSolver1", 8);
+        PZ_MAX_N.put("PZSolver2", 7);
+        PZ_MAX_N.put("PZSolver3", 8);
+        PZ_MAX_N.put("PZSolver4", 7);
+        PZ_MAX_N.put("PZSolverDP1", 9);
+        PZ_MAX_N.put("PZSolverDP2", 9);
+        PZ_MAX_N.put("PZSolverDP3", 9);
+        PZ_MAX_N.put("PZSolverDP4", 11);
+    }
+
+    /**
+     * Private constructor, such that no instances of this class can be created
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * The main function running the benchmarks
+     *
+     * @param args Arguments (see above)
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = parseOptions(args);
+        if (options == null) {
+            System.out.println("Error occurred - Invalid arguments " + Arrays.toString(args) + "!");
+            System.exit(1);
+            return;
+        }
+
+        File data = new File(options.getOrDefault("data", "Ergebnisse"));
+        List<Benchmark> benchmarks = createBenchmarks(data, options.containsKey("all"));
+
+        BenchmarkRunner runner;
+
+        try {
+            runner = new BenchmarkRunner(Integer.parseInt(options.getOrDefault("warmup", "5")),
+                    Integer.parseInt(options.getOrDefault("iterations", "5")),
+                    Long.parseLong(options.getOrDefault("time", "1000")),
+                    Integer.parseInt(options.getOrDefault("forks", "1")));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error occurred - Invalid arguments " + Arrays.toString(args) + "!");
+            System.exit(1);
+            return;
+        }
+
+        // Run a single benchmark in this JVM (used by the forks)
+        if (options.containsKey("run")) {
+            for (Benchmark benchmark : benchmarks) {
+                if (benchmark.getName().equals(options.get("run"))) {
+                    System.out.println(runner.runHere(benchmark).toJson());
+                    System.exit(0);
+                }
+            }
+
+            System.out.println("Error occurred - Unknown benchmark \"" + options.get("run") + "\"!");
+            System.exit(1);
+        }
+
+        Pattern filter = Pattern.compile(options.getOrDefault("filter", ""));
+        Map<String, BenchmarkResult> baseline = options.containsKey("baseline")
+                ? readResults(new File(options.get("baseline"))) : new HashMap<>();
+
+        // The forks need all benchmarks, since the one they run might only be created with --all
+        List<String> forkArguments = new ArrayList<>(Arrays.asList("--data", data.getAbsolutePath(), "--all"));
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        for (Benchmark benchmark : benchmarks) {
+            if (!filter.matcher(benchmark.getName()).find()) continue;
+
+            if (options.containsKey("list")) {
+                System.out.println(benchmark.getName());
+                continue;
+            }
+
+            BenchmarkResult result = runner.run(benchmark, Benchmarks.class, forkArguments);
+            if (result == null) continue;
+
+            results.add(result);
+            System.out.println(result + compare(result, baseline.get(result.getName())));
+        }
+
+        if (!options.containsKey("list")) writeResults(new File(options.getOrDefault("output", "benchmark-results.json")), results);
+    }
+
+    /**
+     * Public static function creating all benchmarks.
+     *
+     * @param data The directory containing the examples (subdirectories pancake0, pancake1, ... containing "Eingabe.txt")
+     * @param all  If the solvers are also benchmarked with the examples and values of n taking minutes or more
+     * @return The benchmarks
+     */
+    public static List<Benchmark> createBenchmarks(File data, boolean all) {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        // WUE-Operations, using random stacks and indexes
+        benchmarks.add(operationBenchmark("Utils.standardWUEOperation", (stacks, indexes) -> blackhole -> {
+            for (int i = 0; i < OPERATION_COUNT; i++) blackhole.consume(Utils.standardWUEOperation(stacks[i], indexes[i]));
+        }));
+
+        benchmarks.add(operationBenchmark("Utils.standardWUEOperation/buffer", (stacks, indexes) -> {
+            int[] buffer = new int[OPERATION_SIZE];
+
+            return blackhole -> {
+                for (int i = 0; i < OPERATION_COUNT; i++) {
+                    blackhole.consume(Utils.standardWUEOperation(stacks[i], indexes[i], buffer)[0]);
+                }
+            };
+        }));
+
+        benchmarks.add(operationBenchmark("Utils.improvedWUEOperation", (stacks, indexes) -> blackhole -> {
+            for (int i = 0; i < OPERATION_COUNT; i++) blackhole.consume(Utils.improvedWUEOperation(stacks[i], indexes[i]));
+        }));
+
+        benchmarks.add(operationBenchmark("Utils.improvedWUEOperation/buffer", (stacks, indexes) -> {
+            int[] buffer = new int[OPERATION_SIZE - 1];
+
+            return blackhole -> {
+                for (int i = 0; i < OPERATION_COUNT; i++) {
+                    blackhole.consume(Utils.improvedWUEOperation(stacks[i], indexes[i], buffer)[0]);
+                }
+            };
+        }));
+
+        benchmarks.add(operationBenchmark("PackedStack.improvedWUEOperation", (stacks, indexes) -> {
+            long[] packed = new long[OPERATION_COUNT];
+            for (int i = 0; i < OPERATION_COUNT; i++) packed[i] = PackedStack.pack(stacks[i]);
+
+            return blackhole -> {
+                for (int i = 0; i < OPERATION_COUNT; i++) {
+                    blackhole.consume(PackedStack.improvedWUEOperation(packed[i], OPERATION_SIZE, indexes[i]));
+                }
+            };
+        }));
+
+        // Hashing and checking stacks (PackedStack.pack is the key used by PZSolverDP3)
+        benchmarks.add(operationBenchmark("IntArray.hashCode", (stacks, indexes) -> {
+            IntArray[] arrays = new IntArray[OPERATION_COUNT];
+            for (int i = 0; i < OPERATION_COUNT; i++) arrays[i] = new IntArray(stacks[i]);
+
+            return blackhole -> {
+                for (int i = 0; i < OPERATION_COUNT; i++) blackhole.consume(arrays[i].hashCode());
+            };
+        }));
+
+        benchmarks.add(operationBenchmark("PackedStack.pack", (stacks, indexes) -> blackhole -> {
+            for (int i = 0; i < OPERATION_COUNT; i++) blackhole.consume(PackedStack.pack(stacks[i]));
+        }));
+
+        benchmarks.add(operationBenchmark("Utils.isPermutation", (stacks, indexes) -> blackhole -> {
+            for (int i = 0; i < OPERATION_COUNT; i++) blackhole.consume(Utils.isPermutation(stacks[i]));
+        }));
+
+        // PancakeSorts, using the examples
+        Map<String, Function<int[], PancakeSort>> pancakeSorts = new LinkedHashMap<>();
+        pancakeSorts.put("PancakeSort1", PancakeSort1::new);
+        pancakeSorts.put("PancakeSort2", PancakeSort2::new);
+        pancakeSorts.put("PancakeSort3", PancakeSort3::new);
+        pancakeSorts.put("PancakeSort4", PancakeSort4::new);
+        pancakeSorts.put("PancakeSortDP", PancakeSortDP::new);
+        pancakeSorts.put("IDAStarPancakeSort", IDAStarPancakeSort::new);
+
+        for (Map.Entry<String, Function<int[], PancakeSort>> entry : pancakeSorts.entrySet()) {
+            int examples = all ? EXAMPLES : PANCAKE_EXAMPLES.get(entry.getKey());
+
+            for (int i = 0; i < examples; i++) {
+                benchmarks.add(pancakeSortBenchmark(entry.getKey() + "/pancake" + i, entry.getValue(),
+                        new File(new File(data, "pancake" + i), "Eingabe.txt")));
+            }
+        }
+
+        // PZSolvers
+        Map<String, IntFunction<PZSolver>> pzSolvers = new LinkedHashMap<>();
+        pzSolvers.put("PZSolver1", PZSolver1::new);
+        pzSolvers.put("PZSolver2", PZSolver2::new);
+        pzSolvers.put("PZSolver3", PZSolver3::new);
+        pzSolvers.put("PZSolver4", PZSolver4::new);
+        pzSolvers.put("PZSolverDP1", PZSolverDP1::new);
+        pzSolvers.put("PZSolverDP2", PZSolverDP2::new);
+        pzSolvers.put("PZSolverDP3", PZSolverDP3::new);
+        pzSolvers.put("PZSolverDP4", PZSolverDP4::new);
+
+        for (Map.Entry<String, IntFunction<PZSolver>> entry : pzSolvers.entrySet()) {
+            int maxN = all ? MAX_N : PZ_MAX_N.get(entry.getKey());
+
+            for (int n = MIN_N; n <= maxN; n++) {
+                IntFunction<PZSolver> factory = entry.getValue();
+                int size = n;
+
+                benchmarks.add(new Benchmark(entry.getKey() + "/n=" + n,
+                        () -> blackhole -> blackhole.consume(factory.apply(size).solve()), 1));
+            }
+        }
+
+        return benchmarks;
+    }
+
+    /**
+     * Private static function creating a benchmark of an operation applied to OPERATION_COUNT
+     * random stacks of the size OPERATION_SIZE with random indexes per invocation.
+     *
+     * @param name    The benchmark's name
+     * @param factory Function creating the workload for given stacks and indexes
+     * @return The benchmark
+     */
+    private static Benchmark operationBenchmark(String name, OperationFactory factory) {
+        return new Benchmark(name, () -> {
+            Random random = new Random(42L);
+            int[][] stacks = new int[OPERATION_COUNT][];
+            int[] indexes = new int[OPERATION_COUNT];
+
+            for (int i = 0; i < OPERATION_COUNT; i++) {
+                stacks[i] = randomStack(random, OPERATION_SIZE);
+                indexes[i] = random.nextInt(OPERATION_SIZE);
+            }
+
+            return factory.create(stacks, indexes);
+        }, OPERATION_COUNT);
+    }
+
+    /**
+     * Private static function creating a benchmark of a PancakeSort.
+     *
+     * @param name    The benchmark's name
+     * @param factory Function creating the PancakeSort for a given stack
+     * @param input   The file containing the stack
+     * @return The benchmark
+     */
+    private static Benchmark pancakeSortBenchmark(String name, Function<int[], PancakeSort> factory, File input) {
+        return new Benchmark(name, () -> {
+            int[] array;
+
+            try {
+                array = BatchSolver.readStack(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            // The PancakeSorts don't change the given stack, but a copy is used anyways
+            return blackhole -> blackhole.consume(factory.apply(array.clone()).solve());
+        }, 1);
+    }
+
+    /**
+     * Private static function creating a random stack (a permutation of the numbers 1, 2, ... , n).
+     *
+     * @param random The random number generator
+     * @param size   The stack's size n
+     * @return The stack
+     */
+    private static int[] randomStack(Random random, int size) {
+        int[] stack = new int[size];
+        for (int i = 0; i < size; i++) stack[i] = i + 1;
+
+        // Shuffle the sorted stack (Fisher-Yates)
+        for (int i = size - 1; i > 0; i--) Utils.swap(stack, i, random.nextInt(i + 1));
+
+        return stack;
+    }
+
+    /**
+     * Private static function comparing a result to the baseline's result of the same benchmark.
+     *
+     * @param result   The result
+     * @param baseline The baseline's result (might be null)
+     * @return A string describing the change of the throughput (empty if there's no baseline)
+     */
+    private static String compare(BenchmarkResult result, BenchmarkResult baseline) {
+        if (baseline == null || baseline.getOpsPerSecond() <= 0) return "";
+
+        double change = (result.getOpsPerSecond() - baseline.getOpsPerSecond()) / baseline.getOpsPerSecond();
+
+        // The change is only significant if it's bigger than the errors of both results
+        boolean significant = Math.abs(result.getOpsPerSecond() - baseline.getOpsPerSecond()) > result.getError() + baseline.getError();
+
+        return String.format(Locale.ROOT, "   %+7.1f%%%s", change * 100D, significant ? (change < 0 ? " (regression)" : " (improvement)") : "");
+    }
+
+    /**
+     * Private static function reading the results of a former run.
+     *
+     * @param file The JSON file
+     * @return The results by the benchmarks' names (empty if the file can't be read)
+     */
+    private static Map<String, BenchmarkResult> readResults(File file) {
+        Map<String, BenchmarkResult> results = new HashMap<>();
+
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                if (!line.startsWith("{\"name\"")) continue;
+
+                BenchmarkResult result = BenchmarkResult.parse(line);
+                results.put(result.getName(), result);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error occurred - Could not read baseline \"" + file + "\"!");
+        }
+
+        return results;
+    }
+
+    /**
+     * Private static function writing the results to a JSON file (one result per line).
+     *
+     * @param file    The JSON file
+     * @param results The results
+     */
+    private static void writeResults(File file, List<BenchmarkResult> results) {
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("{\"benchmarks\":[");
+
+            for (int i = 0; i < results.size(); i++) {
+                out.println(results.get(i).toJson() + (i + 1 < results.size() ? "," : ""));
+            }
+
+            out.println("]}");
+        } catch (IOException e) {
+            System.out.println("Error occurred - Could not write results \"" + file + "\"!");
+        }
+    }
+
+    /**
+     * Private static function parsing the arguments into options (name without "--" to value,
+     * "list" and "all" having the value "true").
+     *
+     * @param args The arguments
+     * @return The options (null if the arguments are invalid)
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) return null;
+            String name = args[i].substring(2);
+
+            if (name.equals("list") || name.equals("all")) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                return null;
+            }
+        }
+
+        return options;
+    }
+
+    /**
+     * Interface for creating the workload of an operation benchmark (see operationBenchmark).
+     */
+    @FunctionalInterface
+    private interface OperationFactory {
+
+        /**
+         * Method creating the workload for given stacks and indexes.
+         *
+         * @param stacks  The random stacks
+         * @param indexes The random indexes for the WUE-Operations (one per stack)
+         * @return The workload
+         */
+        Benchmark.Workload create(int[][] stacks, int[] indexes);
+    }
+}
@@ -0,0 +1,210 @@
+package de.flo.pancakeSort.util;
+
+import java.util.Arrays;
+
+/**
+ * This class is a hash map from long keys (except -1) to byte values using open addressing
+ * (linear probing) on a primitive long-array and byte-array, e.i. 9 bytes per entry without any objects.
+ * The map grows up to a given maximum capacity. As soon as it's reached, the map works like a cache:
+ * if all slots an entry can be put into (at most MAX_PROBES after the key's hash) are used, the entry with the
+ * smallest value among them is replaced. So, a value that was put into the map might not be found later.
+ * Note that this map is not thread-safe.
+ */
+public class LongByteMap {
+
+    /**
+     * The key of empty slots
+     */
+    private static final long EMPTY = -1;
+
+    /**
+     * The maximum amount of slots checked for a key
+     */
+    private static final int MAX_PROBES = 16;
+
+    /**
+     * The smallest capacity
+     */
+    private static final int MIN_CAPACITY = 1 << 10;
+
+    /**
+     * The biggest capacity the map grows to (a power of two)
+     */
+    private final int maxCapacity;
+
+    /**
+     * The keys of the slots (EMPTY for empty slots)
+     */
+    private long[] keys;
+
+    /**
+     * The values of the slots
+     */
+    private byte[] values;
+
+    /**
+     * The amount of entries
+     */
+    private int size;
+
+    /**
+     * Public constructor creating an empty map that holds at most (about) the given amount of entries.
+     *
+     * @param maxSize The maximum amount of entries (rounded up to a power of two)
+     * @throws IllegalArgumentException If the maximum amount of entries is less than 1 or bigger than 2^30
+     */
+    public LongByteMap(int maxSize) {
+        if (maxSize < 1 || maxSize > 1 << 30) throw new IllegalArgumentException("Size " + maxSize + " is not supported");
+
+        this.maxCapacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(maxSize - 1) << 1);
+        allocate(Math.min(MIN_CAPACITY, this.maxCapacity));
+    }
+
+    /**
+     * Public getter for the value of a given key.
+     *
+     * @param key The key (not -1)
+     * @return The value (0 to 255), or -1 if the map contains no value for the key
+     */
+    public int get(long key) {
+        int mask = this.keys.length - 1;
+        int index = hash(key) & mask;
+
+        for (int i = 0; i < MAX_PROBES; i++, index = (index + 1) & mask) {
+            if (this.keys[index] == key) return this.values[index] & 0xFF;
+            if (this.keys[index] == EMPTY) return -1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Public methode putting a value for a given key into the map, replacing the key's old value.
+     * If there is no free slot for the key and the map can't grow anymore, the entry with the smallest value
+     * among the slots the key can be put into is replaced (or the value is not put into the map at all,
+     * if it's smaller than all of them).
+     *
+     * @param key   The key (not -1)
+     * @param value The value
+     */
+    public void put(long key, byte value) {
+        if (this.size * 2 >= this.keys.length && this.keys.length < this.maxCapacity) {
+            resize(this.keys.length * 2);
+        }
+
+        while (!insert(key, value)) {
+            if (this.keys.length >= this.maxCapacity) {
+                replace(key, value);
+                return;
+            }
+
+            resize(this.keys.length * 2);
+        }
+    }
+
+    /**
+     * Public getter for the amount of entries.
+     *
+     * @return The amount of entries
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Public methode removing all entries (keeping the current capacity).
+     */
+    public void clear() {
+        Arrays.fill(this.keys, EMPTY);
+        this.size = 0;
+    }
+
+    /**
+     * Private methode putting a value into the first free slot of the key (or the key's slot).
+     *
+     * @param key   The key
+     * @param value The value
+     * @return If the value was put into the map (false if all slots of the key are used)
+     */
+    private boolean insert(long key, byte value) {
+        int mask = this.keys.length - 1;
+        int index = hash(key) & mask;
+
+        for (int i = 0; i < MAX_PROBES; i++, index = (index + 1) & mask) {
+            if (this.keys[index] == EMPTY) {
+                this.keys[index] = key;
+                this.values[index] = value;
+                this.size++;
+                return true;
+            }
+
+            if (this.keys[index] == key) {
+                this.values[index] = value;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Private methode replacing the entry with the smallest value among the slots of the key
+     * (if it's not bigger than the given value). All of those slots are used.
+     *
+     * @param key   The key
+     * @param value The value
+     */
+    private void replace(long key, byte value) {
+        int mask = this.keys.length - 1;
+        int index = hash(key) & mask;
+        int victim = -1;
+
+        for (int i = 0; i < MAX_PROBES; i++, index = (index + 1) & mask) {
+            if (victim == -1 || (this.values[index] & 0xFF) < (this.values[victim] & 0xFF)) victim = index;
+        }
+
+        if ((this.values[victim] & 0xFF) <= (value & 0xFF)) {
+            this.keys[victim] = key;
+            this.values[victim] = value;
+        }
+    }
+
+    /**
+     * Private methode changing the capacity and putting all entries into the new slots.
+     * Entries that don't find a free slot anymore are dropped.
+     *
+     * @param capacity The new capacity (a power of two)
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        byte[] oldValues = this.values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) insert(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    /**
+     * Private methode creating new empty slots.
+     *
+     * @param capacity The capacity (a power of two)
+     */
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new byte[capacity];
+        this.size = 0;
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    /**
+     * Private static function computing the hash of a key by multiplying it
+     * with the golden ratio and using the highest bits.
+     *
+     * @param key The key
+     * @return The hash
+     */
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+}
@@ -0,0 +1,160 @@
+package de.flo.pancakeSort.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class is a dense array of 4-bit values (nibbles, e.i. 0 to 15) like NibbleArray, but stored in a
+ * memory-mapped file (two values per byte, the value with the even index in the lower 4 bits) instead of
+ * on the heap. The operating system keeps the used parts of the file in memory, such that tables bigger
+ * than the heap (or the RAM) can be used, while the heap usage stays constant.
+ * Since a MappedByteBuffer can't be bigger than 2 GB, the file is mapped in segments of 1 GB.
+ * Reading values is thread-safe, setting values is not, since 2 values share one byte.
+ */
+public class MappedNibbleArray implements WritableNibbleTable {
+
+    /**
+     * The amount of bits of the byte index addressing a byte within a segment (2^30 bytes = 1 GB per segment)
+     */
+    private static final int SEGMENT_BITS = 30;
+
+    /**
+     * Mask for the byte index within a segment
+     */
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    /**
+     * The file containing the values
+     */
+    private final File file;
+
+    /**
+     * The mapped segments of the file
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * The amount of values
+     */
+    private final long size;
+
+    /**
+     * Private constructor mapping the given file, use create(...) or open(...) to create an instance.
+     *
+     * @param file     The file
+     * @param size     The amount of values
+     * @param writable If the file is mapped for writing
+     * @throws IOException If the file can't be mapped
+     */
+    private MappedNibbleArray(File file, long size, boolean writable) throws IOException {
+        this.file = file;
+        this.size = size;
+
+        long bytes = (size + 1) / 2;
+        int count = (int) ((bytes + SEGMENT_MASK) >>> SEGMENT_BITS);
+        this.segments = new MappedByteBuffer[count];
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, writable ? "rw" : "r")) {
+            if (writable) randomAccessFile.setLength(bytes);
+            if (randomAccessFile.length() < bytes) throw new IOException("File " + file + " is too short for " + size + " values");
+
+            // The mapping stays valid after the channel is closed
+            FileChannel channel = randomAccessFile.getChannel();
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                this.segments[i] = channel.map(mode, start, Math.min(SEGMENT_MASK + 1, bytes - start));
+            }
+        }
+    }
+
+    /**
+     * Public static function creating a file for the given amount of values (all 0, replacing an
+     * existing file's content) and mapping it for reading and writing.
+     *
+     * @param file The file
+     * @param size The amount of values
+     * @return The mapped array
+     * @throws IOException If the file can't be created or mapped
+     */
+    public static MappedNibbleArray create(File file, long size) throws IOException {
+        // Truncate the file first, such that no old values are kept
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(0);
+        }
+
+        return new MappedNibbleArray(file, size, true);
+    }
+
+    /**
+     * Public static function mapping an existing file containing the given amount of values.
+     *
+     * @param file     The file
+     * @param size     The amount of values
+     * @param writable If values should be set (otherwise, the file is mapped read-only)
+     * @return The mapped array
+     * @throws IOException If the file doesn't exist, is too short or can't be mapped
+     */
+    public static MappedNibbleArray open(File file, long size, boolean writable) throws IOException {
+        return new MappedNibbleArray(file, size, writable);
+    }
+
+    /**
+     * Implementation of the get-methode reading the byte containing the value.
+     *
+     * @param index The index
+     * @return The value at the given index (0 to 15)
+     */
+    @Override
+    public int get(long index) {
+        long byteIndex = index >>> 1;
+        byte b = this.segments[(int) (byteIndex >>> SEGMENT_BITS)].get((int) (byteIndex & SEGMENT_MASK));
+        return (b >>> ((index & 1) << 2)) & 0xF;
+    }
+
+    /**
+     * Implementation of the set-methode changing the 4 bits of the value in its byte.
+     *
+     * @param index The index
+     * @param value The new value (0 to 15, only the lowest 4 bits are used)
+     */
+    @Override
+    public void set(long index, int value) {
+        long byteIndex = index >>> 1;
+        MappedByteBuffer segment = this.segments[(int) (byteIndex >>> SEGMENT_BITS)];
+        int offset = (int) (byteIndex & SEGMENT_MASK);
+        int shift = (int) (index & 1) << 2;
+
+        segment.put(offset, (byte) ((segment.get(offset) & ~(0xF << shift)) | ((value & 0xF) << shift)));
+    }
+
+    /**
+     * Public methode writing all changes to the file.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : this.segments) segment.force();
+    }
+
+    /**
+     * Implementation of the getter for this array's size.
+     *
+     * @return The amount of values
+     */
+    @Override
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Public getter for the file containing the values.
+     *
+     * @return The file
+     */
+    public File getFile() {
+        return this.file;
+    }
+}
@@ -0,0 +1,74 @@
+package de.flo.pancakeSort.util;
+
+/**
+ * This class is a dense array of 4-bit values (nibbles, e.i. 0 to 15), storing 16 values in every long.
+ * It's used for storing A(S) for all permutations S of a size indexed by their rank, since A(S) is at
+ * most n-1 and therefore fits into 4 bits for n <= 16. This needs half a byte per permutation instead
+ * of a map entry, boxed key and boxed value.
+ * Note that setting values is not thread-safe, since 16 values share one long.
+ */
+public class NibbleArray implements WritableNibbleTable {
+
+    /**
+     * The biggest amount of values that can be stored, since the internal long-array
+     * cannot have more than Integer.MAX_VALUE - 8 elements.
+     */
+    public static final long MAX_SIZE = (Integer.MAX_VALUE - 8L) * 16;
+
+    /**
+     * The internal long array containing 16 values each
+     */
+    private final long[] data;
+
+    /**
+     * The amount of values
+     */
+    private final long size;
+
+    /**
+     * Public constructor creating an array of the given size filled with zeros.
+     *
+     * @param size The amount of values
+     * @throws IllegalArgumentException If the size is negative or bigger than MAX_SIZE
+     */
+    public NibbleArray(long size) {
+        if (size < 0 || size > MAX_SIZE) throw new IllegalArgumentException("Size " + size + " is not supported");
+
+        this.size = size;
+        this.data = new long[(int) ((size + 15) / 16)];
+    }
+
+    /**
+     * Public getter for a value given its index.
+     *
+     * @param index The index
+     * @return The value at the given index (0 to 15)
+     */
+    @Override
+    public int get(long index) {
+        return (int) (this.data[(int) (index >>> 4)] >>> ((index & 15) << 2)) & 0xF;
+    }
+
+    /**
+     * Public setter for a value given its index.
+     *
+     * @param index The index
+     * @param value The new value (0 to 15, only the lowest 4 bits are used)
+     */
+    @Override
+    public void set(long index, int value) {
+        int i = (int) (index >>> 4);
+        int shift = (int) (index & 15) << 2;
+        this.data[i] = (this.data[i] & ~(0xFL << shift)) | ((long) (value & 0xF) << shift);
+    }
+
+    /**
+     * Public getter for this array's size.
+     *
+     * @return The amount of values
+     */
+    @Override
+    public long getSize() {
+        return this.size;
+    }
+}
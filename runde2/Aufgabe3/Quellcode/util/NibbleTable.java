@@ -0,0 +1,24 @@
+package de.flo.pancakeSort.util;
+
+/**
+ * Interface for reading dense tables of 4-bit values (nibbles, e.i. 0 to 15) indexed by a long,
+ * used for storing A(S) for all permutations S of a size indexed by their rank.
+ * Tables whose values can be set implement WritableNibbleTable.
+ */
+public interface NibbleTable {
+
+    /**
+     * Public getter for a value given its index.
+     *
+     * @param index The index
+     * @return The value at the given index (0 to 15)
+     */
+    int get(long index);
+
+    /**
+     * Public getter for this table's size.
+     *
+     * @return The amount of values
+     */
+    long getSize();
+}
@@ -0,0 +1,158 @@
+package de.flo.pancakeSort.util;
+
+/**
+ * Public final utility class containing public static functions for stacks (permutations of the numbers
+ * 1, 2, ... , n) of up to 16 pancakes packed into one long, 4 bits per pancake. The pancake at the index i
+ * (0 = top) is stored as A[i] - 1 in the bits 4i to 4i+3, all bits above the stack are 0.
+ * The improved WUE-Operation is computed directly on the long using shifts and masks, without creating arrays.
+ * Note that a packed stack also determines its size, since exactly one of the nibbles 0 to n-1 is 0
+ * (the pancake 1), so packed stacks of different sizes can be used as keys of the same map.
+ */
+public final class PackedStack {
+
+    /**
+     * The biggest stack that can be packed
+     */
+    public static final int MAX_SIZE = 16;
+
+    /**
+     * Mask of the lower nibble of every byte
+     */
+    private static final long LOW_NIBBLES = 0x0F0F0F0F0F0F0F0FL;
+
+    /**
+     * Mask of the lowest bit of every byte
+     */
+    private static final long LOW_BITS = 0x0101010101010101L;
+
+    /**
+     * The packed sorted stacks of the sizes 0, 1, ... , 16
+     */
+    private static final long[] SORTED = new long[MAX_SIZE + 1];
+
+    static {
+        for (int i = 1; i <= MAX_SIZE; i++) SORTED[i] = SORTED[i - 1] | (long) (i - 1) << 4 * (i - 1);
+    }
+
+    /**
+     * Private constructor, such that no instances of this class can be created.
+     */
+    private PackedStack() {
+    }
+
+    /**
+     * Public static function packing a given stack into a long.
+     *
+     * @param array The stack (a permutation of the numbers 1, 2, ... , n with n <= 16)
+     * @return The packed stack
+     * @throws IllegalArgumentException If the stack has more than 16 pancakes
+     */
+    public static long pack(int[] array) {
+        if (array.length > MAX_SIZE) throw new IllegalArgumentException("Stacks of size " + array.length + " can't be packed");
+
+        long packed = 0;
+        for (int i = 0; i < array.length; i++) packed |= (long) (array[i] - 1) << 4 * i;
+        return packed;
+    }
+
+    /**
+     * Public static function unpacking a packed stack into a new array.
+     *
+     * @param packed The packed stack
+     * @param size   The stack's size
+     * @return The stack as an int array
+     */
+    public static int[] unpack(long packed, int size) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) array[i] = get(packed, i);
+        return array;
+    }
+
+    /**
+     * Public static function returning the pancake at a given index of a packed stack.
+     *
+     * @param packed The packed stack
+     * @param index  The 0-based index (0 = top)
+     * @return The pancake (1 to 16)
+     */
+    public static int get(long packed, int index) {
+        return (int) (packed >>> 4 * index & 0xF) + 1;
+    }
+
+    /**
+     * Public static function checking weather a packed stack is sorted, e.i. A[1] = 1, A[2] = 2, ... A[n] = n.
+     *
+     * @param packed The packed stack
+     * @param size   The stack's size
+     * @return If the stack is sorted
+     */
+    public static boolean isSorted(long packed, int size) {
+        return packed == SORTED[size];
+    }
+
+    /**
+     * Public static function computing the rank of a packed stack, e.i. the same rank
+     * Permutations.rank(...) computes for the unpacked stack, without unpacking it.
+     *
+     * @param packed The packed stack
+     * @param size   The stack's size
+     * @return The stack's rank (0 for the sorted stack)
+     */
+    public static long rank(long packed, int size) {
+        long rank = 0;
+        int seen = 0;
+
+        for (int i = 0; i < size; i++) {
+            int value = (int) (packed >>> 4 * i & 0xF);
+
+            // The amount of smaller pancakes that are not seen yet, e.i. that come after the current one
+            int smaller = value - Integer.bitCount(seen & ((1 << value) - 1));
+            rank += smaller * Permutations.factorial(size - 1 - i);
+            seen |= 1 << value;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Public static function doing the improved WUE-Operation on a packed stack given the 0-based index.
+     * The pancakes above the index are reversed by reversing the nibbles of the whole long and shifting them
+     * down, the pancakes below the index are shifted up by one nibble. Afterwards, all pancakes greater than
+     * the removed one are decreased in parallel, separately for the even and odd nibbles, such that every
+     * nibble has 4 free bits above it: adding 15 - removed to a nibble sets its 5th bit iff it's greater.
+     *
+     * @param packed The packed stack
+     * @param size   The stack's size
+     * @param index  The index for the WUE-Operation (0 <= index < size)
+     * @return The packed resulting stack of the size size - 1
+     */
+    public static long improvedWUEOperation(long packed, int size, int index) {
+        int shift = 4 * index;
+        long removed = packed >>> shift & 0xF;
+
+        // Reverse the pancakes above the index and shift the ones below the index up
+        long above = index == 0 ? 0 : reverse(packed) >>> 64 - shift;
+        long below = index == MAX_SIZE - 1 ? 0 : packed >>> shift + 4 << shift;
+
+        // Decrease the pancakes greater than the removed one
+        long even = (above | below) & LOW_NIBBLES;
+        long odd = (above | below) >>> 4 & LOW_NIBBLES;
+        long add = (15 - removed) * LOW_BITS;
+
+        even -= (even + add) >>> 4 & LOW_BITS;
+        odd -= (odd + add) >>> 4 & LOW_BITS;
+
+        return even | odd << 4;
+    }
+
+    /**
+     * Private static function reversing the order of the 16 nibbles of a long.
+     *
+     * @param value The long
+     * @return The long with the nibbles reversed
+     */
+    private static long reverse(long value) {
+        long bytes = Long.reverseBytes(value);
+        return (bytes & LOW_NIBBLES) << 4 | bytes >>> 4 & LOW_NIBBLES;
+    }
+}
@@ -0,0 +1,133 @@
+package de.flo.pancakeSort.util;
+
+/**
+ * Public final utility class containing public static functions for ranking and unranking
+ * permutations of the numbers 1, 2, ... , n (for n <= 20), e.i. mapping every permutation to its
+ * index in the lexicographic order of all n! permutations and back, using the Lehmer code.
+ * This way, values for all permutations of a size can be stored in a dense array indexed by rank.
+ */
+public final class Permutations {
+
+    /**
+     * The biggest size of permutations that can be ranked, since 20! is the biggest factorial fitting into a long
+     */
+    public static final int MAX_SIZE = 20;
+
+    /**
+     * The factorials 0!, 1!, ... , 20!
+     */
+    private static final long[] FACTORIALS = new long[MAX_SIZE + 1];
+
+    static {
+        FACTORIALS[0] = 1;
+        for (int i = 1; i <= MAX_SIZE; i++) FACTORIALS[i] = FACTORIALS[i - 1] * i;
+    }
+
+    /**
+     * Private constructor, such that no instances of this class can be created.
+     */
+    private Permutations() {
+    }
+
+    /**
+     * Public static function returning n!, e.i. the amount of permutations of the size n.
+     *
+     * @param n The size (0 <= n <= 20)
+     * @return n!
+     */
+    public static long factorial(int n) {
+        return FACTORIALS[n];
+    }
+
+    /**
+     * Public static function computing the rank of a given permutation of the numbers 1, 2, ... , n,
+     * e.i. its index in the lexicographic order of all permutations of the size n.
+     * The i-th digit of the Lehmer code is the amount of numbers after the i-th one that are smaller,
+     * which is computed using a bitmask of the numbers seen so far.
+     *
+     * @param permutation The permutation (of size n <= 20)
+     * @return The permutation's rank (0 for the sorted permutation)
+     */
+    public static long rank(int[] permutation) {
+        int n = permutation.length;
+        long rank = 0;
+        int seen = 0;
+
+        for (int i = 0; i < n; i++) {
+            int value = permutation[i] - 1;
+
+            // The amount of smaller numbers that are not seen yet, e.i. that come after the current one
+            int smaller = value - Integer.bitCount(seen & ((1 << value) - 1));
+            rank += smaller * FACTORIALS[n - 1 - i];
+            seen |= 1 << value;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Public static function computing the permutation of the numbers 1, 2, ... , n with a given rank
+     * and writing it into a given array (not creating a new one).
+     *
+     * @param rank        The rank (0 <= rank < n!)
+     * @param permutation The array the permutation is written to, its length is the size n (<= 20)
+     */
+    public static void unrank(long rank, int[] permutation) {
+        int n = permutation.length;
+
+        // Bitmask of the numbers (minus one) not used yet
+        int available = (1 << n) - 1;
+
+        for (int i = 0; i < n; i++) {
+            long factorial = FACTORIALS[n - 1 - i];
+            int k = (int) (rank / factorial);
+            rank %= factorial;
+
+            // Find the k-th smallest available number by removing the k smaller ones
+            int bits = available;
+            for (int j = 0; j < k; j++) bits &= bits - 1;
+
+            int value = Integer.numberOfTrailingZeros(bits);
+            permutation[i] = value + 1;
+            available &= ~(1 << value);
+        }
+    }
+
+    /**
+     * Public static function computing the permutation of the numbers 1, 2, ... , n with a given rank.
+     *
+     * @param rank The rank (0 <= rank < n!)
+     * @param n    The size (<= 20)
+     * @return The permutation
+     */
+    public static int[] unrank(long rank, int n) {
+        int[] permutation = new int[n];
+        unrank(rank, permutation);
+        return permutation;
+    }
+
+    /**
+     * Public static function changing a given permutation into the next one in the lexicographic
+     * order, e.i. the one with the next rank.
+     *
+     * @param permutation The permutation (changed!)
+     * @return If there was a next permutation (false if the given one was the last one, it's not changed then)
+     */
+    public static boolean nextPermutation(int[] permutation) {
+        // Find the last position i with A[i] < A[i+1]
+        int i = permutation.length - 2;
+        while (i >= 0 && permutation[i] > permutation[i + 1]) i--;
+        if (i < 0) return false;
+
+        // Swap A[i] with the smallest bigger element after it and reverse the part after i
+        int j = permutation.length - 1;
+        while (permutation[j] < permutation[i]) j--;
+        Utils.swap(permutation, i, j);
+
+        for (int left = i + 1, right = permutation.length - 1; left < right; left++, right--) {
+            Utils.swap(permutation, left, right);
+        }
+
+        return true;
+    }
+}
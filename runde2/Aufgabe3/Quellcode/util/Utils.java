@@ -81,6 +81,26 @@ public final class Utils {
         return result;
     }
 
+    /**
+     * Public static function doing the WUE-Operation on a given array given the 0-based index, writing the
+     * resulting stack into a given array instead of creating a new one (not changing the given array).
+     *
+     * @param array  The array
+     * @param index  The index for the WUE-Operation
+     * @param result The array the resulting stack is written to (at least array.length - 1 elements)
+     * @return The given result array
+     * @throws IllegalArgumentException If the given index is invalid, e.i. not in the range [0; n-1]
+     */
+    public static int[] standardWUEOperation(int[] array, int index, int[] result) {
+        if (index >= array.length || index < 0) throw new IllegalArgumentException();
+
+        // Reverse the elements above the index and keep the ones below it
+        for (int i = 0; i < array.length - 1; i++) {
+            result[i] = i < index ? array[index - i - 1] : array[i + 1];
+        }
+
+        return result;
+    }
 
     /**
      * Public static function doing the improved WUE-Operation on a given array by
@@ -109,6 +129,30 @@ public final class Utils {
         return result;
     }
 
+    /**
+     * Public static function doing the improved WUE-Operation on a given array given the 0-based index,
+     * writing the resulting stack into a given array instead of creating a new one (not changing the array).
+     *
+     * @param array  The array
+     * @param index  The index for the WUE-Operation
+     * @param result The array the resulting stack is written to (at least array.length - 1 elements)
+     * @return The given result array
+     * @throws IllegalArgumentException If the given index is invalid, e.i. not in the range [0; n-1]
+     */
+    public static int[] improvedWUEOperation(int[] array, int index, int[] result) {
+        if (index >= array.length || index < 0) throw new IllegalArgumentException();
+        int removed = array[index];
+
+        // Reverse the elements above the index and keep the ones below it,
+        // decreasing all elements greater than the removed one
+        for (int i = 0; i < array.length - 1; i++) {
+            int element = i < index ? array[index - i - 1] : array[i + 1];
+            result[i] = element > removed ? element - 1 : element;
+        }
+
+        return result;
+    }
+
     /**
      * Public static function doing the WUE-Operation on an array given by the wrapper class
      * Int-Array (not changing the array!) given the needed index and returning an int-array
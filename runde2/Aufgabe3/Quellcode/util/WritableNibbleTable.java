@@ -0,0 +1,16 @@
+package de.flo.pancakeSort.util;
+
+/**
+ * Interface for dense tables of 4-bit values (nibbles, e.i. 0 to 15) whose values can also be set.
+ * Implemented by NibbleArray (on the heap) and MappedNibbleArray (in a memory-mapped file).
+ */
+public interface WritableNibbleTable extends NibbleTable {
+
+    /**
+     * Public setter for a value given its index.
+     *
+     * @param index The index
+     * @param value The new value (0 to 15, only the lowest 4 bits are used)
+     */
+    void set(long index, int value);
+}